@@ -10,4 +10,18 @@ public class LoginResDTO {
     private String username;
     private String tenantId;
     private boolean isSuperTenant;
-}
\ No newline at end of file
+
+    /**
+     * 无状态令牌模式下用于换取新的访问令牌，否则为空
+     */
+    private String refreshToken;
+
+    /**
+     * 无状态令牌模式下访问令牌的有效期（毫秒）
+     */
+    private Long expiresIn;
+
+    public LoginResDTO(String token, String username, String tenantId, boolean isSuperTenant) {
+        this(token, username, tenantId, isSuperTenant, null, null);
+    }
+}
@@ -0,0 +1,10 @@
+package com.mok.ddd.application.sys.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequest {
+    @NotBlank(message = "刷新令牌不允许为空")
+    private String refreshToken;
+}
@@ -11,6 +11,7 @@ public class LoginLogDTO {
     private String ipAddress;
     private String status;
     private String message;
+    private Integer attemptCount;
     private String tenantId;
     private String tenantName;
     private LocalDateTime createTime;
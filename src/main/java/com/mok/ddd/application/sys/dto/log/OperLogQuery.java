@@ -6,12 +6,16 @@ import com.querydsl.core.types.Predicate;
 import lombok.Data;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+
 @Data
 public class OperLogQuery {
 
     private String title;
     private String operName;
     private Integer status;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
 
     public Predicate toPredicate() {
         QOperLog operLog = QOperLog.operLog;
@@ -25,6 +29,12 @@ public class OperLogQuery {
         if (status != null) {
             builder.and(operLog.status.eq(status));
         }
+        if (startTime != null) {
+            builder.and(operLog.createTime.goe(startTime));
+        }
+        if (endTime != null) {
+            builder.and(operLog.createTime.loe(endTime));
+        }
         return builder;
     }
 }
@@ -0,0 +1,21 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 菜单新增、修改、删除或菜单下的权限变更后发布，用于失效包含这些菜单的菜单树
+ */
+@Getter
+public class MenuChangedEvent extends ApplicationEvent {
+
+    private final Set<Long> menuIds;
+
+    public MenuChangedEvent(Object source, Collection<Long> menuIds) {
+        super(source);
+        this.menuIds = menuIds == null ? Set.of() : Set.copyOf(menuIds);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * 角色授权或权限/菜单变更后发布，用于失效依赖角色权限的缓存
+ */
+@Getter
+public class PermissionChangedEvent extends ApplicationEvent {
+
+    /**
+     * 受影响的角色
+     */
+    private final Set<Long> roleIds;
+
+    /**
+     * 全量权限集合是否变化（超管拥有全部权限，需要一并失效）
+     */
+    private final boolean allPermissionsChanged;
+
+    public PermissionChangedEvent(Object source, Collection<Long> roleIds, boolean allPermissionsChanged) {
+        super(source);
+        this.roleIds = roleIds == null ? Set.of() : Set.copyOf(roleIds);
+        this.allPermissionsChanged = allPermissionsChanged;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户或租户被禁用、删除后发布，提交后撤销其全部在线会话
+ */
+@Getter
+public class SessionRevokeEvent extends ApplicationEvent {
+
+    private final String tenantId;
+
+    /**
+     * 为 null 时撤销整个租户的会话
+     */
+    private final String username;
+
+    public SessionRevokeEvent(Object source, String tenantId, String username) {
+        super(source);
+        this.tenantId = tenantId;
+        this.username = username;
+    }
+}
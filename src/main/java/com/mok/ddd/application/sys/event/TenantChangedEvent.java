@@ -0,0 +1,18 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 租户信息、状态变更或删除后发布
+ */
+@Getter
+public class TenantChangedEvent extends ApplicationEvent {
+
+    private final String tenantId;
+
+    public TenantChangedEvent(Object source, String tenantId) {
+        super(source);
+        this.tenantId = tenantId;
+    }
+}
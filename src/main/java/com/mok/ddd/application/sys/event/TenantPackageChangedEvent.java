@@ -0,0 +1,18 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 租户套餐授权（菜单/权限）变更后发布
+ */
+@Getter
+public class TenantPackageChangedEvent extends ApplicationEvent {
+
+    private final Long packageId;
+
+    public TenantPackageChangedEvent(Object source, Long packageId) {
+        super(source);
+        this.packageId = packageId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.mok.ddd.application.sys.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户角色变更或用户删除后发布，用于失效按用户缓存的菜单和权限
+ */
+@Getter
+public class UserRolesChangedEvent extends ApplicationEvent {
+
+    private final Long userId;
+
+    public UserRolesChangedEvent(Object source, Long userId) {
+        super(source);
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,205 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.application.sys.dto.menu.MenuDTO;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.event.TenantChangedEvent;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
+import com.mok.ddd.application.sys.event.UserRolesChangedEvent;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.common.SysUtil;
+import com.mok.ddd.domain.sys.model.Tenant;
+import com.mok.ddd.domain.sys.model.User;
+import com.mok.ddd.domain.sys.repository.PermissionRepository;
+import com.mok.ddd.domain.sys.repository.TenantRepository;
+import com.mok.ddd.domain.sys.repository.UserRepository;
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 账户菜单树和权限码的读模型
+ * <p>
+ * 按用户缓存权限码和决定菜单作用域的角色、租户、套餐，菜单树取自 {@link MenuTreeCache}，相同作用域的用户共享；
+ * 加载的查询次数固定，与角色数量无关：角色 id、权限码各一次；
+ * 角色授权、用户角色、套餐授权、租户及权限变更后失效，并通过 Redis pub/sub 通知其他节点，消息丢失时最迟 ttl 后失效
+ */
+@Slf4j
+@Service
+public class AccountAccessService {
+
+    private static final int MAX_SIZE = 4096;
+    private static final Duration TTL = Duration.ofMinutes(30);
+
+    private static final String ALL = "*";
+    private static final String ROLE = "role:";
+    private static final String USER = "user:";
+    private static final String PACKAGE = "package:";
+    private static final String TENANT = "tenant:";
+
+    private final UserRepository userRepository;
+    private final PermissionRepository permissionRepository;
+    private final TenantRepository tenantRepository;
+    private final PermissionService permissionService;
+    private final MenuTreeCache menuTreeCache;
+    private final StringRedisTemplate redisTemplate;
+
+    private final LocalCache<Long, Grant> cache = new LocalCache<>(MAX_SIZE, TTL);
+
+    /**
+     * 每次失效递增，加载期间发生过失效则不回写，避免旧数据覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 用户可见的菜单树和权限码，以及用于失效的依赖（角色、租户、套餐）
+     * <p>
+     * 菜单树由相同作用域的用户共享，调用方不可修改
+     */
+    public record AccountAccess(List<MenuDTO> menus, Set<String> permissions, Set<Long> roleIds,
+                                String tenantId, Long packageId) {
+    }
+
+    /**
+     * 按用户缓存的部分，superAdmin、packageId、roleIds 依次决定菜单树的作用域
+     */
+    private record Grant(Set<String> permissions, Set<Long> roleIds, String tenantId, Long packageId,
+                         boolean superAdmin) {
+    }
+
+    public AccountAccessService(UserRepository userRepository, PermissionRepository permissionRepository,
+                                TenantRepository tenantRepository, PermissionService permissionService,
+                                MenuTreeCache menuTreeCache, StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer) {
+        this.userRepository = userRepository;
+        this.permissionRepository = permissionRepository;
+        this.tenantRepository = tenantRepository;
+        this.permissionService = permissionService;
+        this.menuTreeCache = menuTreeCache;
+        this.redisTemplate = redisTemplate;
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.ACCOUNT_ACCESS_EVICT));
+    }
+
+    @Transactional(readOnly = true)
+    public AccountAccess getAccess(User user) {
+        Grant grant = cache.get(user.getId());
+        if (grant == null) {
+            long gen = generation.get();
+            grant = load(user);
+            if (generation.get() == gen) {
+                cache.put(user.getId(), grant);
+            }
+        }
+        return new AccountAccess(menus(grant), grant.permissions(), grant.roleIds(), grant.tenantId(), grant.packageId());
+    }
+
+    private List<MenuDTO> menus(Grant grant) {
+        if (grant.superAdmin()) {
+            return menuTreeCache.globalMenus();
+        }
+        if (grant.packageId() != null) {
+            return menuTreeCache.packageMenus(grant.packageId());
+        }
+        return menuTreeCache.roleMenus(grant.roleIds());
+    }
+
+    private Grant load(User user) {
+        String tenantId = user.getTenantId();
+        if (SysUtil.isSuperAdmin(tenantId, user.getUsername())) {
+            // 超级管理员拥有所有权限
+            Set<String> permissions = new HashSet<>(permissionService.getAllPermissionCodes());
+            permissions.add(Const.SUPER_ADMIN_ROLE_CODE);
+            return new Grant(Set.copyOf(permissions), Set.of(), tenantId, null, true);
+        }
+
+        if (Boolean.TRUE.equals(user.getIsTenantAdmin())) {
+            // 租户管理员，拥有该租户套餐下的所有权限
+            Long packageId = tenantRepository.findByTenantId(tenantId)
+                    .map(Tenant::getPackageId)
+                    .orElse(null);
+            if (packageId == null) {
+                return new Grant(Set.of(), Set.of(), tenantId, null, false);
+            }
+            return new Grant(Set.copyOf(permissionRepository.findCodesByPackageId(packageId)), Set.of(), tenantId,
+                    packageId, false);
+        }
+
+        // 普通用户，根据角色获取权限
+        Set<Long> roleIds = Set.copyOf(userRepository.findRoleIdsByUserId(user.getId()));
+        if (roleIds.isEmpty()) {
+            return new Grant(Set.of(), Set.of(), tenantId, null, false);
+        }
+        return new Grant(Set.copyOf(permissionService.getPermissionsByRoleIds(roleIds)), roleIds, tenantId, null, false);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        // 菜单或权限本身变化会影响超管和所有套餐，全部失效
+        if (event.isAllPermissionsChanged()) {
+            evict(ALL);
+        } else if (!event.getRoleIds().isEmpty()) {
+            evict(ROLE + event.getRoleIds().stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        evict(USER + event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantPackageChanged(TenantPackageChangedEvent event) {
+        evict(PACKAGE + event.getPackageId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        evict(TENANT + event.getTenantId());
+    }
+
+    private void evict(String message) {
+        evictLocal(message);
+        try {
+            redisTemplate.convertAndSend(Const.Channel.ACCOUNT_ACCESS_EVICT, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish account access eviction {}, falling back to local ttl", message, e);
+        }
+    }
+
+    void evictLocal(String message) {
+        generation.incrementAndGet();
+        try {
+            if (message.startsWith(ROLE)) {
+                Set<Long> roleIds = Arrays.stream(message.substring(ROLE.length()).split(","))
+                        .map(id -> Long.valueOf(id.trim()))
+                        .collect(Collectors.toSet());
+                cache.invalidateIfValue(access -> access.roleIds().stream().anyMatch(roleIds::contains));
+            } else if (message.startsWith(USER)) {
+                cache.invalidate(Long.valueOf(message.substring(USER.length())));
+            } else if (message.startsWith(PACKAGE)) {
+                Long packageId = Long.valueOf(message.substring(PACKAGE.length()));
+                cache.invalidateIfValue(access -> packageId.equals(access.packageId()));
+            } else if (message.startsWith(TENANT)) {
+                String tenantId = message.substring(TENANT.length());
+                cache.invalidateIfValue(access -> tenantId.equals(access.tenantId()));
+            } else {
+                cache.invalidateAll();
+            }
+        } catch (NumberFormatException e) {
+            cache.invalidateAll();
+        }
+    }
+}
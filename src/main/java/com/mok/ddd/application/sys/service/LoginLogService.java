@@ -5,10 +5,15 @@ import com.mok.ddd.domain.sys.model.LoginLog;
 import com.mok.ddd.domain.sys.model.QLoginLog;
 import com.mok.ddd.domain.sys.model.QTenant;
 import com.mok.ddd.domain.sys.repository.LoginLogRepository;
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import com.mok.ddd.infrastructure.log.storage.LogQueryWindow;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.infrastructure.repository.KeysetPaging;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
+import com.mok.ddd.infrastructure.repository.SortKey;
 import com.mok.ddd.infrastructure.util.QuerydslUtils;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
-import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -25,20 +30,61 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class LoginLogService {
 
-    private final LoginLogRepository loginLogRepository;
+    private static final String LISTING = "login-log";
+    private static final String TABLE = "sys_login_log";
 
-    @Transactional
-    public void createLoginLog(LoginLog loginLog) {
-        loginLogRepository.save(loginLog);
-    }
+    private static final List<SortKey> SLICE_KEYS = List.of(
+            SortKey.desc(QLoginLog.loginLog.createTime), SortKey.desc(QLoginLog.loginLog.id));
+
+    private final LoginLogRepository loginLogRepository;
+    private final LogStorageProperties logStorageProperties;
+    private final PageFetcher pageFetcher;
 
     @Transactional(readOnly = true)
     public Page<LoginLogDTO> findPage(Predicate predicate, Pageable pageable) {
         QLoginLog loginLog = QLoginLog.loginLog;
-        QTenant tenant = QTenant.tenant;
+        // 未指定时间范围时只查最近 N 天，分区表只扫描对应月份
+        Predicate filter = LogQueryWindow.apply(predicate, loginLog.createTime, logStorageProperties.getDefaultQueryDays());
 
         Pageable qSortPageable = QuerydslUtils.convertToQSortPageable(pageable, LoginLog.class, loginLog.getMetadata().getName());
 
+        Page<LoginLogDTO> page = pageFetcher.fetch(LISTING, selectDto(filter), loginLogRepository.getQuerydsl(), qSortPageable,
+                new PageFetcher.CountSource(TABLE, filter, () -> count(filter)));
+
+        Pageable cleanPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        return new PageImpl<>(page.getContent(), cleanPageable, page.getTotalElements());
+    }
+
+    /**
+     * 按 (createTime, id) 倒序的游标分页，深翻页不受 OFFSET 影响
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<LoginLogDTO> findSlice(Predicate predicate, String cursor, int size) {
+        QLoginLog loginLog = QLoginLog.loginLog;
+        predicate = LogQueryWindow.apply(predicate, loginLog.createTime, logStorageProperties.getDefaultQueryDays());
+        return KeysetPaging.fetch(selectDto(predicate), SLICE_KEYS, cursor, size);
+    }
+
+    /**
+     * 条件只涉及登录日志本身，计数不需要关联租户表
+     */
+    private long count(Predicate predicate) {
+        QLoginLog loginLog = QLoginLog.loginLog;
+        JPAQuery<Long> countQuery = loginLogRepository.getJPAQueryFactory()
+                .select(loginLog.count())
+                .from(loginLog)
+                .where(predicate);
+        loginLogRepository.applyTenantFilter(countQuery, loginLog);
+        return Optional.ofNullable(countQuery.fetchOne()).orElse(0L);
+    }
+
+    /**
+     * 列表投影（关联租户名称），已应用租户过滤
+     */
+    private JPAQuery<LoginLogDTO> selectDto(Predicate predicate) {
+        QLoginLog loginLog = QLoginLog.loginLog;
+        QTenant tenant = QTenant.tenant;
+
         JPAQuery<LoginLogDTO> query = loginLogRepository.getJPAQueryFactory()
                 .select(Projections.bean(LoginLogDTO.class,
                         loginLog.id,
@@ -46,6 +92,7 @@ public class LoginLogService {
                         loginLog.ipAddress,
                         loginLog.status,
                         loginLog.message,
+                        loginLog.attemptCount,
                         loginLog.tenantId,
                         tenant.name.as("tenantName"),
                         loginLog.createTime
@@ -55,17 +102,6 @@ public class LoginLogService {
                 .where(predicate);
 
         loginLogRepository.applyTenantFilter(query, loginLog);
-        JPQLQuery<LoginLogDTO> paginatedQuery = loginLogRepository.getQuerydsl().applyPagination(qSortPageable, query);
-
-        List<LoginLogDTO> content = paginatedQuery.fetch();
-
-        long total = Optional.ofNullable(loginLogRepository.getJPAQueryFactory()
-                .select(tenant.count())
-                .from(tenant)
-                .where(predicate)
-                .fetchOne()).orElse(0L);
-
-        Pageable cleanPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
-        return new PageImpl<>(content, cleanPageable, total);
+        return query;
     }
 }
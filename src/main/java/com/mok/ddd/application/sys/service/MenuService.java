@@ -1,15 +1,19 @@
 package com.mok.ddd.application.sys.service;
 
 import com.mok.ddd.application.common.service.BaseServiceImpl;
+import com.mok.ddd.application.exception.BizException;
 import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
 import com.mok.ddd.application.sys.dto.permission.PermissionOptionDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.Menu;
 import com.mok.ddd.domain.sys.model.Permission;
+import com.mok.ddd.domain.sys.model.Tenant;
 import com.mok.ddd.domain.sys.repository.MenuRepository;
 import com.mok.ddd.domain.sys.repository.PermissionRepository;
 import com.mok.ddd.domain.sys.repository.TenantRepository;
@@ -17,6 +21,7 @@ import com.mok.ddd.infrastructure.repository.CustomRepository;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,6 +40,8 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
     private final MenuMapper menuMapper;
     private final TenantRepository tenantRepository;
     private final TenantPackageService tenantPackageService;
+    private final MenuSubtreeResolver subtreeResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public MenuDTO createMenu(@NonNull MenuDTO dto) {
@@ -43,7 +50,9 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
             parent = menuRepository.findById(dto.getParentId()).orElse(null);
         }
         Menu menu = Menu.create(parent, dto.getName(), dto.getPath(), dto.getComponent(), dto.getIcon(), dto.getSort(), dto.getIsHidden());
-        return menuMapper.toDto(menuRepository.save(menu));
+        Menu saved = menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(this, nonNullIds(saved.getId())));
+        return menuMapper.toDto(saved);
     }
 
     @Transactional
@@ -51,10 +60,15 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
         Menu menu = menuRepository.findById(dto.getId()).orElseThrow(NotFoundException::new);
         Menu parent = null;
         if (dto.getParentId() != null) {
+            if (subtreeResolver.isInSubtree(dto.getId(), dto.getParentId())) {
+                throw new BizException("不能将菜单移动到自身或其子菜单下");
+            }
             parent = menuRepository.findById(dto.getParentId()).orElse(null);
         }
         menu.updateInfo(parent, dto.getName(), dto.getPath(), dto.getComponent(), dto.getIcon(), dto.getSort(), dto.getIsHidden());
-        return menuMapper.toDto(menuRepository.save(menu));
+        MenuDTO result = menuMapper.toDto(menuRepository.save(menu));
+        eventPublisher.publishEvent(new MenuChangedEvent(this, nonNullIds(dto.getId())));
+        return result;
     }
 
     @Transactional
@@ -65,10 +79,20 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
         if (!CollectionUtils.isEmpty(permissionIds)) {
             newPermissions.addAll(permissionRepository.findAllById(permissionIds));
         }
-        
+
+        // 权限从原菜单移到当前菜单，原菜单的树也需要失效
+        Set<Long> affectedMenuIds = new HashSet<>(nonNullIds(menuId));
+        newPermissions.stream()
+                .map(Permission::getMenu)
+                .filter(Objects::nonNull)
+                .map(Menu::getId)
+                .filter(Objects::nonNull)
+                .forEach(affectedMenuIds::add);
+
         menu.changePermissions(newPermissions);
         
         menuRepository.save(menu);
+        eventPublisher.publishEvent(new MenuChangedEvent(this, affectedMenuIds));
     }
 
     public List<MenuDTO> buildMenuTree(@NonNull List<MenuDTO> flatList) {
@@ -100,7 +124,7 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
 
     @Transactional
     public void deleteById(Long id) {
-        List<Long> allIds = getAllMenuIds(id);
+        List<Long> allIds = subtreeResolver.subtreeIds(id);
 
         List<Long> roleIds = menuRepository.findRoleIdsByMenuIds(allIds);
 
@@ -110,23 +134,18 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
         menuRepository.deleteRoleMenuByMenuIds(allIds);
         menuRepository.deleteAllById(allIds);
 
-        redisTemplate.delete(Const.CacheKey.MENU_TREE);
         if (!roleIds.isEmpty()) {
             List<String> keys = roleIds.stream()
                     .map(roleId -> Const.CacheKey.ROLE_PERMS + ":" + roleId)
                     .toList();
             redisTemplate.delete(keys);
         }
+        eventPublisher.publishEvent(new PermissionChangedEvent(this, roleIds, true));
+        eventPublisher.publishEvent(new MenuChangedEvent(this, allIds));
     }
 
-    private List<Long> getAllMenuIds(Long parentId) {
-        List<Long> ids = new ArrayList<>();
-        ids.add(parentId);
-        List<Menu> children = menuRepository.findByParentId(parentId);
-        for (Menu child : children) {
-            ids.addAll(getAllMenuIds(child.getId()));
-        }
-        return ids;
+    private static Set<Long> nonNullIds(Long id) {
+        return id == null ? Set.of() : Set.of(id);
     }
 
     private List<MenuDTO> filterEmptyParentMenus(@NonNull List<MenuDTO> menus) {
@@ -149,77 +168,65 @@ public class MenuService extends BaseServiceImpl<Menu, Long, MenuDTO> {
 
     @Transactional(readOnly = true)
     public List<MenuOptionDTO> buildMenuAndPermissionTree() {
-        List<Menu> entities = menuRepository.findAll();
-
         String currentTenantId = TenantContextHolder.getTenantId();
-        if (!SysUtil.isSuperTenant(currentTenantId)) {
-            Long packageId = tenantRepository.findByTenantId(currentTenantId)
-                    .map(com.mok.ddd.domain.sys.model.Tenant::getPackageId)
-                    .orElse(null);
-
-            if (packageId != null) {
-                Set<Long> allowedMenuIds = tenantPackageService.getMenuIdsByPackage(packageId);
-                Set<Long> allowedPermissionIds = tenantPackageService.getPermissionIdsByPackage(packageId);
-
-                entities = entities.stream()
-                        .filter(m -> allowedMenuIds.contains(m.getId()))
-                        .toList();
-
-                List<MenuOptionDTO> flatList = entities.stream()
-                        .map(entity -> {
-                            MenuOptionDTO dto = new MenuOptionDTO();
-                            dto.setId(entity.getId());
-                            dto.setParentId(entity.getParent() != null ? entity.getParent().getId() : null);
-                            dto.setName(entity.getName());
-                            dto.setPath(entity.getPath());
-                            dto.setIsPermission(false);
-
-                            if (entity.getPermissions() != null) {
-                                List<PermissionOptionDTO> pDtos = entity.getPermissions().stream()
-                                        .filter(p -> allowedPermissionIds.contains(p.getId()))
-                                        .map(p -> {
-                                            PermissionOptionDTO pDto = new PermissionOptionDTO();
-                                            pDto.setId(p.getId());
-                                            pDto.setName(p.getName());
-                                            pDto.setIsPermission(true);
-                                            return pDto;
-                                        }).toList();
-                                dto.setPermissions(pDtos);
-                            }
-                            return dto;
-                        }).toList();
-
-                return buildTreeFromFlatList(flatList);
-            }
-            return Collections.emptyList();
+        if (SysUtil.isSuperTenant(currentTenantId)) {
+            return buildMenuAndPermissionTree(null);
         }
 
-        List<MenuOptionDTO> flatList = entities.stream()
-                .map(entity -> {
-                    MenuOptionDTO dto = new MenuOptionDTO();
-                    dto.setId(entity.getId());
-                    dto.setParentId(entity.getParent() != null ? entity.getParent().getId() : null);
-                    dto.setName(entity.getName());
-                    dto.setPath(entity.getPath());
-                    dto.setIsPermission(false);
-
-                    if (entity.getPermissions() != null) {
-                        List<PermissionOptionDTO> pDtos = entity.getPermissions().stream()
-                                .map(p -> {
-                                    PermissionOptionDTO pDto = new PermissionOptionDTO();
-                                    pDto.setId(p.getId());
-                                    pDto.setName(p.getName());
-                                    pDto.setIsPermission(true);
-                                    return pDto;
-                                }).toList();
-                        dto.setPermissions(pDtos);
-                    }
-                    return dto;
-                }).toList();
+        Long packageId = tenantRepository.findByTenantId(currentTenantId)
+                .map(Tenant::getPackageId)
+                .orElse(null);
+        return packageId != null ? buildMenuAndPermissionTree(packageId) : Collections.emptyList();
+    }
+
+    /**
+     * 菜单和按钮权限树，菜单连同权限一次查出
+     *
+     * @param packageId 套餐 id，只保留套餐内的菜单和权限；为 null 时为全部菜单和权限
+     */
+    @Transactional(readOnly = true)
+    public List<MenuOptionDTO> buildMenuAndPermissionTree(Long packageId) {
+        List<Menu> entities = menuRepository.findAllWithPermissions();
+
+        Set<Long> allowedPermissionIds = null;
+        if (packageId != null) {
+            Set<Long> allowedMenuIds = tenantPackageService.getMenuIdsByPackage(packageId);
+            allowedPermissionIds = tenantPackageService.getPermissionIdsByPackage(packageId);
+            entities = entities.stream()
+                    .filter(m -> allowedMenuIds.contains(m.getId()))
+                    .toList();
+        }
 
+        Set<Long> permissionFilter = allowedPermissionIds;
+        List<MenuOptionDTO> flatList = entities.stream()
+                .map(entity -> toOption(entity, permissionFilter))
+                .toList();
         return buildTreeFromFlatList(flatList);
     }
 
+    private static MenuOptionDTO toOption(Menu entity, Set<Long> allowedPermissionIds) {
+        MenuOptionDTO dto = new MenuOptionDTO();
+        dto.setId(entity.getId());
+        dto.setParentId(entity.getParent() != null ? entity.getParent().getId() : null);
+        dto.setName(entity.getName());
+        dto.setPath(entity.getPath());
+        dto.setIsPermission(false);
+
+        if (entity.getPermissions() != null) {
+            List<PermissionOptionDTO> pDtos = entity.getPermissions().stream()
+                    .filter(p -> allowedPermissionIds == null || allowedPermissionIds.contains(p.getId()))
+                    .map(p -> {
+                        PermissionOptionDTO pDto = new PermissionOptionDTO();
+                        pDto.setId(p.getId());
+                        pDto.setName(p.getName());
+                        pDto.setIsPermission(true);
+                        return pDto;
+                    }).toList();
+            dto.setPermissions(pDtos);
+        }
+        return dto;
+    }
+
     private List<MenuOptionDTO> buildTreeFromFlatList(List<MenuOptionDTO> flatList) {
         Map<Long, MenuOptionDTO> dtoMap = flatList.stream()
                 .collect(Collectors.toMap(MenuOptionDTO::getId, dto -> dto));
@@ -0,0 +1,61 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.domain.sys.repository.MenuRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * 菜单子树解析
+ * <p>
+ * 一次查询取出所有菜单的 (id, parentId)，在内存中建立父 -> 子索引后遍历，查询次数与子树的大小和深度无关；
+ * 删除、移动、禁用子树等操作共用
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuSubtreeResolver {
+
+    private final MenuRepository menuRepository;
+
+    /**
+     * @return rootId 及其所有后代，rootId 在首位，其余按层序排列
+     */
+    public List<Long> subtreeIds(Long rootId) {
+        return walk(childrenIndex(), rootId);
+    }
+
+    /**
+     * candidateId 是否为 rootId 本身或其后代，移动菜单时用于防止成环
+     */
+    public boolean isInSubtree(Long rootId, Long candidateId) {
+        return candidateId != null && subtreeIds(rootId).contains(candidateId);
+    }
+
+    private Map<Long, List<Long>> childrenIndex() {
+        Map<Long, List<Long>> children = new HashMap<>();
+        for (Object[] row : menuRepository.findAllIdAndParentId()) {
+            if (row[1] != null) {
+                children.computeIfAbsent(((Number) row[1]).longValue(), _ -> new ArrayList<>())
+                        .add(((Number) row[0]).longValue());
+            }
+        }
+        return children;
+    }
+
+    static List<Long> walk(Map<Long, List<Long>> children, Long rootId) {
+        List<Long> ids = new ArrayList<>();
+        // 数据异常成环时避免死循环
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(rootId);
+        while (!queue.isEmpty()) {
+            Long id = queue.poll();
+            if (visited.add(id)) {
+                ids.add(id);
+                queue.addAll(children.getOrDefault(id, List.of()));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,279 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.application.sys.dto.menu.MenuDTO;
+import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
+import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
+import com.mok.ddd.application.sys.mapper.MenuMapper;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.common.SysUtil;
+import com.mok.ddd.domain.sys.model.Menu;
+import com.mok.ddd.domain.sys.repository.MenuRepository;
+import com.mok.ddd.infrastructure.cache.CacheStats;
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import com.mok.ddd.infrastructure.cache.PreSerializedList;
+import com.mok.ddd.infrastructure.cache.SingleFlight;
+import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 物化的菜单树，按作用域缓存：全局、套餐、角色集合
+ * <p>
+ * 每个条目是附带预先序列化 JSON 的列表（{@link PreSerializedList}），接口按 List 返回，
+ * 写出响应时 Jackson 直接输出 JSON 字节，不再逐次构建和序列化；
+ * 条目记录构建时用到的菜单、角色和套餐，菜单/权限、角色授权、套餐授权变更时只失效相关条目，
+ * 并通过 Redis pub/sub 通知其他节点，消息丢失时最迟 ttl 后失效
+ */
+@Slf4j
+@Component
+public class MenuTreeCache {
+
+    private static final int MAX_SIZE = 1024;
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private static final String MENUS = "menus:";
+    private static final String OPTIONS = "options:";
+    private static final String GLOBAL_SCOPE = "global";
+    private static final String PACKAGE_SCOPE = "package:";
+    private static final String ROLES_SCOPE = "roles:";
+
+    private static final String MENU = "menu:";
+    private static final String ROLE = "role:";
+    private static final String PACKAGE = "package:";
+
+    private final MenuRepository menuRepository;
+    private final MenuService menuService;
+    private final MenuMapper menuMapper;
+    private final TenantCacheService tenantCacheService;
+    private final JsonMapper jsonMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    private final LocalCache<String, MenuTree> cache = new LocalCache<>(MAX_SIZE, TTL);
+    private final SingleFlight<String, MenuTree> loads = new SingleFlight<>();
+
+    /**
+     * 每次失效递增，加载期间发生过失效则不回写，避免旧数据覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    /**
+     * 物化的树
+     *
+     * @param tree      树，附带序列化后的 JSON，调用方不可修改
+     * @param menuIds   构建时用到的菜单，全局树为空（任何菜单变更都会失效）
+     * @param roleIds   角色集合作用域的角色
+     * @param packageId 套餐作用域的套餐
+     */
+    public record MenuTree(PreSerializedList<?> tree, Set<Long> menuIds, Set<Long> roleIds, Long packageId) {
+    }
+
+    public MenuTreeCache(MenuRepository menuRepository, MenuService menuService, MenuMapper menuMapper,
+                         TenantCacheService tenantCacheService, JsonMapper jsonMapper,
+                         StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer) {
+        this.menuRepository = menuRepository;
+        this.menuService = menuService;
+        this.menuMapper = menuMapper;
+        this.tenantCacheService = tenantCacheService;
+        this.jsonMapper = jsonMapper;
+        this.redisTemplate = redisTemplate;
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.MENU_TREE_EVICT));
+    }
+
+    /**
+     * 全部菜单的树（超级管理员、菜单管理）
+     */
+    public List<MenuDTO> globalMenus() {
+        return menus(globalMenuTree());
+    }
+
+    /**
+     * 套餐内菜单的树（租户管理员）
+     */
+    public List<MenuDTO> packageMenus(Long packageId) {
+        return menus(get(MENUS + PACKAGE_SCOPE + packageId, () -> menuTree(
+                menuRepository.findWithPermissionsByPackageId(packageId), Set.of(), packageId)));
+    }
+
+    /**
+     * 角色集合可见菜单的树，拥有相同角色集合的用户共享同一条目
+     */
+    public List<MenuDTO> roleMenus(Set<Long> roleIds) {
+        if (roleIds.isEmpty()) {
+            return List.of();
+        }
+        String fingerprint = roleIds.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+        return menus(get(MENUS + ROLES_SCOPE + fingerprint, () -> menuTree(
+                menuRepository.findWithPermissionsByRoleIds(roleIds), Set.copyOf(roleIds), null)));
+    }
+
+    /**
+     * 当前租户可分配的菜单和按钮权限树：超级租户为全部，其他租户为其套餐内的，没有套餐时为空
+     */
+    public List<MenuOptionDTO> menuOptions() {
+        String tenantId = TenantContextHolder.getTenantId();
+        if (SysUtil.isSuperTenant(tenantId)) {
+            return options(get(OPTIONS + GLOBAL_SCOPE, () -> optionTree(null)));
+        }
+
+        TenantDTO tenant = StringUtils.hasText(tenantId) ? tenantCacheService.findByTenantId(tenantId) : null;
+        Long packageId = tenant != null ? tenant.getPackageId() : null;
+        if (packageId == null) {
+            return List.of();
+        }
+        return options(get(OPTIONS + PACKAGE_SCOPE + packageId, () -> optionTree(packageId)));
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(cache.getHitCount(), cache.getMissCount(), loadCount.sum(), loadTimeNanos.sum(), cache.size());
+    }
+
+    private MenuTree globalMenuTree() {
+        return get(MENUS + GLOBAL_SCOPE, () -> menuTree(menuRepository.findAllWithPermissions(), Set.of(), null));
+    }
+
+    private MenuTree get(String key, Supplier<MenuTree> loader) {
+        MenuTree cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.load(key, () -> {
+            long gen = generation.get();
+            long start = System.nanoTime();
+            MenuTree loaded = loader.get();
+            loadCount.increment();
+            loadTimeNanos.add(System.nanoTime() - start);
+            if (generation.get() == gen) {
+                cache.put(key, loaded);
+            }
+            return loaded;
+        });
+    }
+
+    private MenuTree menuTree(List<Menu> menus, Set<Long> roleIds, Long packageId) {
+        List<MenuDTO> flatMenus = new ArrayList<>(menuMapper.toDtoList(menus));
+        flatMenus.sort(Comparator.comparing(MenuDTO::getSort, Comparator.nullsLast(Comparator.naturalOrder())));
+        Set<Long> menuIds = roleIds.isEmpty() && packageId == null ? Set.of() : ids(flatMenus);
+        return materialize(menuService.buildMenuTree(flatMenus), menuIds, roleIds, packageId);
+    }
+
+    private MenuTree optionTree(Long packageId) {
+        List<MenuOptionDTO> tree = menuService.buildMenuAndPermissionTree(packageId);
+        Set<Long> menuIds = packageId == null ? Set.of() : optionIds(tree, new HashSet<>());
+        return materialize(tree, menuIds, Set.of(), packageId);
+    }
+
+    private <E> MenuTree materialize(List<E> tree, Set<Long> menuIds, Set<Long> roleIds, Long packageId) {
+        PreSerializedList<E> list = new PreSerializedList<>(tree, jsonMapper.writeValueAsString(tree));
+        return new MenuTree(list, menuIds, roleIds, packageId);
+    }
+
+    private static Set<Long> ids(List<MenuDTO> menus) {
+        return menus.stream().map(MenuDTO::getId).filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static Set<Long> optionIds(List<MenuOptionDTO> nodes, Set<Long> ids) {
+        for (MenuOptionDTO node : nodes) {
+            if (!Boolean.TRUE.equals(node.getIsPermission()) && node.getId() != null) {
+                ids.add(node.getId());
+            }
+            if (node.getChildren() != null) {
+                optionIds(node.getChildren(), ids);
+            }
+        }
+        return Set.copyOf(ids);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<MenuDTO> menus(MenuTree tree) {
+        return (List<MenuDTO>) tree.tree();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<MenuOptionDTO> options(MenuTree tree) {
+        return (List<MenuOptionDTO>) tree.tree();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        // 不挂在菜单下的权限不出现在任何树中
+        if (!event.getMenuIds().isEmpty()) {
+            evict(MENU + join(event.getMenuIds()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        // 菜单和权限本身的变更由 MenuChangedEvent 处理，这里只关心角色授权
+        if (!event.getRoleIds().isEmpty()) {
+            evict(ROLE + join(event.getRoleIds()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantPackageChanged(TenantPackageChangedEvent event) {
+        evict(PACKAGE + event.getPackageId());
+    }
+
+    private static String join(Set<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private void evict(String message) {
+        evictLocal(message);
+        try {
+            redisTemplate.convertAndSend(Const.Channel.MENU_TREE_EVICT, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish menu tree eviction {}, falling back to local ttl", message, e);
+        }
+    }
+
+    void evictLocal(String message) {
+        generation.incrementAndGet();
+        try {
+            if (message.startsWith(MENU)) {
+                Set<Long> menuIds = parseIds(message.substring(MENU.length()));
+                cache.invalidateIfValue(tree -> tree.menuIds().isEmpty()
+                        || tree.menuIds().stream().anyMatch(menuIds::contains));
+            } else if (message.startsWith(ROLE)) {
+                Set<Long> roleIds = parseIds(message.substring(ROLE.length()));
+                cache.invalidateIfValue(tree -> tree.roleIds().stream().anyMatch(roleIds::contains));
+            } else if (message.startsWith(PACKAGE)) {
+                Long packageId = Long.valueOf(message.substring(PACKAGE.length()));
+                cache.invalidateIfValue(tree -> packageId.equals(tree.packageId()));
+            } else {
+                cache.invalidateAll();
+            }
+        } catch (NumberFormatException e) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static Set<Long> parseIds(String ids) {
+        return Arrays.stream(ids.split(","))
+                .map(id -> Long.valueOf(id.trim()))
+                .collect(Collectors.toSet());
+    }
+}
@@ -4,10 +4,15 @@ import com.mok.ddd.application.sys.dto.log.OperLogDTO;
 import com.mok.ddd.domain.sys.model.OperLog;
 import com.mok.ddd.domain.sys.model.QOperLog;
 import com.mok.ddd.domain.sys.repository.OperLogRepository;
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import com.mok.ddd.infrastructure.log.storage.LogQueryWindow;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.infrastructure.repository.KeysetPaging;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
+import com.mok.ddd.infrastructure.repository.SortKey;
 import com.mok.ddd.infrastructure.util.QuerydslUtils;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
-import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
@@ -25,15 +30,59 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class OperLogService {
 
+    private static final String LISTING = "oper-log";
+    private static final String TABLE = "sys_oper_log";
+
+    private static final List<SortKey> SLICE_KEYS = List.of(
+            SortKey.desc(QOperLog.operLog.createTime), SortKey.desc(QOperLog.operLog.id));
+
     private final OperLogRepository operLogRepository;
+    private final LogStorageProperties logStorageProperties;
+    private final PageFetcher pageFetcher;
 
     @Transactional(readOnly = true)
     public Page<@NonNull OperLogDTO> findPage(Predicate predicate, Pageable pageable) {
         QOperLog operLog = QOperLog.operLog;
+        // 未指定时间范围时只查最近 N 天，分区表只扫描对应月份
+        Predicate filter = LogQueryWindow.apply(predicate, operLog.createTime, logStorageProperties.getDefaultQueryDays());
 
         // 1. 转换排序，用于 QueryDSL 查询
         Pageable qSortPageable = QuerydslUtils.convertToQSortPageable(pageable, OperLog.class, operLog.getMetadata().getName());
 
+        // 2. 数据查询已应用租户过滤，总数按 page.count.modes.oper-log 计算
+        Page<OperLogDTO> page = pageFetcher.fetch(LISTING, selectDto(filter), operLogRepository.getQuerydsl(), qSortPageable,
+                new PageFetcher.CountSource(TABLE, filter, () -> count(filter)));
+
+        // 3. 参照 LoginLogService，创建干净的 Pageable 对象用于返回
+        Pageable cleanPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
+        return new PageImpl<>(page.getContent(), cleanPageable, page.getTotalElements());
+    }
+
+    /**
+     * 按 (createTime, id) 倒序的游标分页，深翻页不受 OFFSET 影响
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<OperLogDTO> findSlice(Predicate predicate, String cursor, int size) {
+        QOperLog operLog = QOperLog.operLog;
+        predicate = LogQueryWindow.apply(predicate, operLog.createTime, logStorageProperties.getDefaultQueryDays());
+        return KeysetPaging.fetch(selectDto(predicate), SLICE_KEYS, cursor, size);
+    }
+
+    private long count(Predicate predicate) {
+        QOperLog operLog = QOperLog.operLog;
+        JPAQuery<Long> countQuery = operLogRepository.getJPAQueryFactory()
+                .select(operLog.count())
+                .from(operLog)
+                .where(predicate);
+        operLogRepository.applyTenantFilter(countQuery, operLog);
+        return Optional.ofNullable(countQuery.fetchOne()).orElse(0L);
+    }
+
+    /**
+     * 列表投影，已应用租户过滤
+     */
+    private JPAQuery<OperLogDTO> selectDto(Predicate predicate) {
+        QOperLog operLog = QOperLog.operLog;
         JPAQuery<OperLogDTO> query = operLogRepository.getJPAQueryFactory()
                 .select(Projections.bean(OperLogDTO.class,
                         operLog.id,
@@ -57,20 +106,6 @@ public class OperLogService {
 
         // 2. 对数据查询应用租户过滤
         operLogRepository.applyTenantFilter(query, operLog);
-        JPQLQuery<OperLogDTO> paginatedQuery = operLogRepository.getQuerydsl().applyPagination(qSortPageable, query);
-
-        List<OperLogDTO> content = paginatedQuery.fetch();
-
-        // 3. 对总数查询也应用租户过滤
-        JPAQuery<Long> countQuery = operLogRepository.getJPAQueryFactory()
-                .select(operLog.count())
-                .from(operLog)
-                .where(predicate);
-        operLogRepository.applyTenantFilter(countQuery, operLog);
-        long total = Optional.ofNullable(countQuery.fetchOne()).orElse(0L);
-
-        // 4. 参照 LoginLogService，创建干净的 Pageable 对象用于返回
-        Pageable cleanPageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort());
-        return new PageImpl<>(content, cleanPageable, total);
+        return query;
     }
 }
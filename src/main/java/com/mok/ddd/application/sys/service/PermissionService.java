@@ -3,31 +3,53 @@ package com.mok.ddd.application.sys.service;
 import com.mok.ddd.application.common.service.BaseServiceImpl;
 import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.permission.PermissionDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.domain.sys.model.Menu;
 import com.mok.ddd.domain.sys.model.Permission;
 import com.mok.ddd.domain.sys.repository.MenuRepository;
 import com.mok.ddd.domain.sys.repository.PermissionRepository;
+import com.mok.ddd.infrastructure.cache.RedisLoadLock;
+import com.mok.ddd.infrastructure.cache.SingleFlight;
 import com.mok.ddd.infrastructure.repository.CustomRepository;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.List;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class PermissionService extends BaseServiceImpl<Permission, Long, PermissionDTO> {
+
+    /**
+     * 角色权限缓存过期时间，作为失效消息丢失时的兜底
+     */
+    private static final Duration ROLE_PERMS_TTL = Duration.ofHours(12);
+
     private final PermissionRepository permissionRepository;
     private final MenuRepository menuRepository;
     private final PermissionMapper permissionMapper;
     private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SingleFlight<String, Set<String>> roleLoads = new SingleFlight<>();
+
+    @Value("${cache.load-lock-ms:0}")
+    private long loadLockMs;
 
     @Transactional
     public PermissionDTO createPermission(@NonNull PermissionDTO dto) {
@@ -36,7 +58,10 @@ public class PermissionService extends BaseServiceImpl<Permission, Long, Permiss
             menu = menuRepository.findById(dto.getMenuId()).orElse(null);
         }
         Permission permission = Permission.create(dto.getName(), dto.getCode(), dto.getUrl(), dto.getMethod(), dto.getDescription(), menu);
-        return permissionMapper.toDto(permissionRepository.save(permission));
+        PermissionDTO result = permissionMapper.toDto(permissionRepository.save(permission));
+        eventPublisher.publishEvent(new PermissionChangedEvent(this, Set.of(), true));
+        eventPublisher.publishEvent(new MenuChangedEvent(this, menuIds(menu)));
+        return result;
     }
 
     @Transactional
@@ -46,8 +71,21 @@ public class PermissionService extends BaseServiceImpl<Permission, Long, Permiss
         if (dto.getMenuId() != null) {
             menu = menuRepository.findById(dto.getMenuId()).orElse(null);
         }
+        // 权限可能从原菜单移到新菜单，两边的菜单树都需要失效
+        Set<Long> menuIds = new HashSet<>(menuIds(permission.getMenu()));
         permission.updateInfo(dto.getName(), dto.getCode(), dto.getUrl(), dto.getMethod(), dto.getDescription(), menu);
-        return permissionMapper.toDto(permissionRepository.save(permission));
+        menuIds.addAll(menuIds(menu));
+        PermissionDTO result = permissionMapper.toDto(permissionRepository.save(permission));
+        // 权限编码可能变化，拥有该权限的角色和超管的权限缓存都需要失效
+        List<Long> roleIds = permissionRepository.findRoleIdsByPermissionId(dto.getId());
+        evictRolePermissions(roleIds);
+        eventPublisher.publishEvent(new PermissionChangedEvent(this, roleIds, true));
+        eventPublisher.publishEvent(new MenuChangedEvent(this, menuIds));
+        return result;
+    }
+
+    private static Set<Long> menuIds(Menu menu) {
+        return menu == null || menu.getId() == null ? Set.of() : Set.of(menu.getId());
     }
 
     @Transactional(readOnly = true)
@@ -57,35 +95,110 @@ public class PermissionService extends BaseServiceImpl<Permission, Long, Permiss
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * 一次 pipeline 读取所有角色缓存，未命中的角色合并为一条 IN 查询，再 pipeline 回写并设置过期时间
+     * <p>
+     * 相同的未命中角色集合并发回源时只查询一次数据库
+     */
     public Set<String> getPermissionsByRoleIds(Set<Long> roleIds) {
         if (roleIds == null || roleIds.isEmpty()) {
             return Set.of();
         }
 
-        return roleIds.stream().flatMap(roleId -> {
-            String cacheKey = Const.CacheKey.ROLE_PERMS + ":" + roleId;
-            List<String> cachedPerms = redisTemplate.opsForList().range(cacheKey, 0, -1);
-
-            if (cachedPerms == null || cachedPerms.isEmpty()) {
-                List<String> dbPerms = permissionRepository.findCodesByRoleId(roleId);
-                if (!dbPerms.isEmpty()) {
-                    redisTemplate.opsForList().rightPushAll(cacheKey, dbPerms);
-                    return dbPerms.stream();
-                }
-                return Stream.empty();
+        Set<String> result = new HashSet<>();
+        List<Long> missing = readCached(List.copyOf(roleIds), result);
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        String loadKey = missing.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+        result.addAll(roleLoads.load(loadKey, () -> RedisLoadLock.load(redisTemplate,
+                Const.CacheKey.ROLE_PERMS + ":load:" + loadKey, loadLockMs,
+                () -> {
+                    Set<String> codes = new HashSet<>();
+                    return readCached(missing, codes).isEmpty() ? codes : null;
+                },
+                () -> loadAndCache(missing))));
+        return result;
+    }
+
+    /**
+     * @return 未命中的角色
+     */
+    private List<Long> readCached(List<Long> ids, Set<String> result) {
+        List<Object> cached = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Long roleId : ids) {
+                connection.listCommands().lRange(rolePermsKey(roleId), 0, -1);
             }
-            return cachedPerms.stream();
-        }).collect(Collectors.toSet());
+            return null;
+        });
+
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = cached != null && i < cached.size() ? cached.get(i) : null;
+            if (value instanceof List<?> codes && !codes.isEmpty()) {
+                codes.forEach(code -> result.add(code.toString()));
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        return missing;
+    }
+
+    private Set<String> loadAndCache(List<Long> roleIds) {
+        Map<Long, List<String>> loaded = new HashMap<>();
+        for (Object[] row : permissionRepository.findCodesByRoleIds(roleIds)) {
+            loaded.computeIfAbsent(((Number) row[0]).longValue(), _ -> new ArrayList<>()).add((String) row[1]);
+        }
+        if (loaded.isEmpty()) {
+            return Set.of();
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            loaded.forEach((roleId, codes) -> {
+                byte[] key = rolePermsKey(roleId);
+                connection.keyCommands().del(key);
+                connection.listCommands().rPush(key, codes.stream()
+                        .map(code -> code.getBytes(StandardCharsets.UTF_8))
+                        .toArray(byte[][]::new));
+                connection.keyCommands().pExpire(key, ROLE_PERMS_TTL.toMillis());
+            });
+            return null;
+        });
+        return loaded.values().stream().flatMap(List::stream).collect(Collectors.toSet());
+    }
+
+    private static byte[] rolePermsKey(Long roleId) {
+        return (Const.CacheKey.ROLE_PERMS + ":" + roleId).getBytes(StandardCharsets.UTF_8);
     }
 
     @Transactional
     @Override
     public void deleteById(Long id) {
         List<Long> roleIds = permissionRepository.findRoleIdsByPermissionId(id);
+        Set<Long> menuIds = permissionRepository.findById(id)
+                .map(permission -> menuIds(permission.getMenu()))
+                .orElse(Set.of());
 
         permissionRepository.deleteRolePermissionsByPermissionId(id);
         permissionRepository.deleteById(id);
 
+        evictRolePermissions(roleIds);
+        eventPublisher.publishEvent(new PermissionChangedEvent(this, roleIds, true));
+        eventPublisher.publishEvent(new MenuChangedEvent(this, menuIds));
+    }
+
+    /**
+     * 提交后再删除一次角色权限缓存：提交前删除到提交之间的读取会按旧数据回填 Redis。
+     * 先于 AuthorityCache、AccountAccessService 的失效执行，使本地缓存重建时读到新数据
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        evictRolePermissions(List.copyOf(event.getRoleIds()));
+    }
+
+    private void evictRolePermissions(List<Long> roleIds) {
         if (!roleIds.isEmpty()) {
             List<String> keys = roleIds.stream()
                     .map(roleId -> Const.CacheKey.ROLE_PERMS + ":" + roleId)
@@ -6,6 +6,7 @@ import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.permission.PermissionDTO;
 import com.mok.ddd.application.sys.dto.role.*;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.application.sys.mapper.RoleMapper;
@@ -22,6 +23,7 @@ import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -43,6 +45,7 @@ public class RoleService extends BaseServiceImpl<Role, Long, RoleDTO> {
     private final PermissionMapper permissionMapper;
     private final MenuMapper menuMapper;
     private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     protected CustomRepository<Role, Long> getRepository() {
@@ -160,6 +163,7 @@ public class RoleService extends BaseServiceImpl<Role, Long, RoleDTO> {
 
         String cacheKey = Const.CacheKey.ROLE_PERMS + ":" + roleId;
         redisTemplate.delete(cacheKey);
+        eventPublisher.publishEvent(new PermissionChangedEvent(this, Set.of(roleId), false));
     }
 
     @Transactional(readOnly = true)
@@ -5,35 +5,236 @@ import com.mok.ddd.application.sys.dto.tenant.TenantQuery;
 import com.mok.ddd.application.sys.mapper.TenantMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.domain.sys.repository.TenantRepository;
-import lombok.RequiredArgsConstructor;
+import com.mok.ddd.infrastructure.cache.CacheStats;
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import com.mok.ddd.infrastructure.cache.RedisLoadLock;
+import com.mok.ddd.infrastructure.cache.SingleFlight;
+import com.mok.ddd.infrastructure.config.TenantCacheProperties;
+import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 租户查询：进程内全量快照 -> Redis -> 数据库
+ * <p>
+ * 快照启动时预加载，租户变更后按 tenantId 刷新（见 TenantChangeBroadcaster），并定期全量重建；
+ * 不存在的租户在本地和 Redis 中都记录一条短期的"不存在"，避免反复查询数据库
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class TenantCacheService {
 
+    /**
+     * Redis 中表示租户不存在的值
+     */
+    static final String NULL_MARKER = "__NULL__";
+
     private final TenantRepository tenantRepository;
     private final TenantMapper tenantMapper;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final TenantCacheProperties properties;
+
+    private final SingleFlight<String, Optional<TenantDTO>> tenantLoads = new SingleFlight<>();
+
+    /**
+     * tenantId -> 租户，写时复制，读无锁
+     */
+    private volatile Map<String, TenantDTO> tenants = Map.of();
+
+    private final LocalCache<String, Boolean> unknownTenants;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+
+    @Value("${cache.load-lock-ms:0}")
+    private long loadLockMs;
+
+    public TenantCacheService(TenantRepository tenantRepository, TenantMapper tenantMapper,
+                              RedisTemplate<String, Object> redisTemplate, TenantCacheProperties properties) {
+        this.tenantRepository = tenantRepository;
+        this.tenantMapper = tenantMapper;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.unknownTenants = new LocalCache<>(properties.getMaxEntries(), Duration.ofMillis(properties.getNegativeTtlMs()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        log.info("Tenant registry preloaded with {} tenants", reload());
+    }
+
+    /**
+     * 定期按数据库重建快照，租户变更消息丢失时也能在一个周期内纠正
+     */
+    @Scheduled(fixedDelayString = "${cache.tenant.reload-interval-ms:300000}",
+            initialDelayString = "${cache.tenant.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Failed to reload tenant registry, keeping the current snapshot", e);
+        }
+    }
+
+    /**
+     * 全量替换快照；已不存在的租户同时删除 Redis 记录，避免下次查询又从 Redis 取回旧值
+     *
+     * @return 快照中的租户数
+     */
+    int reload() {
+        Map<String, TenantDTO> all = new HashMap<>();
+        boolean truncated = false;
+        for (TenantDTO dto : tenantRepository.findAll().stream().map(tenantMapper::toDto).toList()) {
+            if (all.size() >= properties.getMaxEntries()) {
+                log.warn("Tenant registry reached max entries {}, remaining tenants are loaded on demand", properties.getMaxEntries());
+                truncated = true;
+                break;
+            }
+            all.putIfAbsent(dto.getTenantId(), dto);
+        }
+        Set<String> removed = new HashSet<>();
+        synchronized (this) {
+            if (!truncated) {
+                removed.addAll(tenants.keySet());
+                removed.removeAll(all.keySet());
+            }
+            tenants = Map.copyOf(all);
+        }
+        if (!removed.isEmpty()) {
+            redisTemplate.delete(removed.stream().map(tenantId -> Const.CacheKey.TENANT + tenantId).toList());
+            log.info("Removed {} tenants no longer in the database from the registry", removed.size());
+        }
+        return all.size();
+    }
 
     public TenantDTO findByTenantId(@NonNull String tenantId) {
+        TenantDTO registered = tenants.get(tenantId);
+        if (registered != null) {
+            hitCount.increment();
+            return registered;
+        }
+        if (unknownTenants.get(tenantId) != null) {
+            hitCount.increment();
+            return null;
+        }
+        missCount.increment();
+
         String key = Const.CacheKey.TENANT + tenantId;
+        Optional<TenantDTO> cached = getCached(key);
+        if (cached == null) {
+            cached = tenantLoads.load(tenantId, () -> RedisLoadLock.load(redisTemplate, key, loadLockMs,
+                    () -> getCached(key), () -> loadTenant(key, tenantId)));
+        }
+
+        TenantDTO dto = cached.orElse(null);
+        if (dto != null) {
+            register(tenantId, dto);
+        } else {
+            unknownTenants.put(tenantId, Boolean.TRUE);
+        }
+        return dto;
+    }
+
+    /**
+     * 从数据库重新加载租户并替换快照和 Redis，租户已删除时移除
+     */
+    public void refresh(@NonNull String tenantId) {
+        String key = Const.CacheKey.TENANT + tenantId;
+        TenantDTO dto = timedLoad(tenantId);
+        if (dto != null) {
+            unknownTenants.invalidate(tenantId);
+            register(tenantId, dto);
+            redisTemplate.opsForValue().set(key, dto, jitteredTtl());
+            return;
+        }
+        synchronized (this) {
+            if (tenants.containsKey(tenantId)) {
+                Map<String, TenantDTO> copy = new HashMap<>(tenants);
+                copy.remove(tenantId);
+                tenants = Map.copyOf(copy);
+            }
+        }
+        unknownTenants.put(tenantId, Boolean.TRUE);
+        redisTemplate.opsForValue().set(key, NULL_MARKER, Duration.ofMillis(properties.getNegativeTtlMs()));
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), loadCount.sum(), loadTimeNanos.sum(),
+                tenants.size() + unknownTenants.size());
+    }
+
+    private synchronized void register(String tenantId, TenantDTO dto) {
+        if (!tenants.containsKey(tenantId) && tenants.size() >= properties.getMaxEntries()) {
+            return;
+        }
+        Map<String, TenantDTO> copy = new HashMap<>(tenants);
+        copy.put(tenantId, dto);
+        tenants = Map.copyOf(copy);
+    }
+
+    /**
+     * @return null 表示 Redis 中没有记录，Optional.empty() 表示记录为不存在
+     */
+    private Optional<TenantDTO> getCached(String key) {
         Object cached = redisTemplate.opsForValue().get(key);
         if (cached instanceof TenantDTO tenantDTO) {
-            return tenantDTO;
+            return Optional.of(tenantDTO);
         }
+        if (NULL_MARKER.equals(cached)) {
+            return Optional.empty();
+        }
+        return null;
+    }
 
-        TenantQuery query = new TenantQuery();
-        query.setTenantId(tenantId);
-        TenantDTO dto = tenantRepository.findOne(query.toPredicate())
-                .map(tenantMapper::toDto)
-                .orElse(null);
+    private Optional<TenantDTO> loadTenant(String key, String tenantId) {
+        // 等待合并期间可能已被其他线程写入
+        Optional<TenantDTO> cached = getCached(key);
+        if (cached != null) {
+            return cached;
+        }
 
+        TenantDTO dto = timedLoad(tenantId);
         if (dto != null) {
-            redisTemplate.opsForValue().set(key, dto);
+            redisTemplate.opsForValue().set(key, dto, jitteredTtl());
+        } else {
+            redisTemplate.opsForValue().set(key, NULL_MARKER, Duration.ofMillis(properties.getNegativeTtlMs()));
         }
-        return dto;
+        return Optional.ofNullable(dto);
+    }
+
+    private TenantDTO timedLoad(String tenantId) {
+        long start = System.nanoTime();
+        try {
+            TenantQuery query = new TenantQuery();
+            query.setTenantId(tenantId);
+            return tenantRepository.findOne(query.toPredicate())
+                    .map(tenantMapper::toDto)
+                    .orElse(null);
+        } finally {
+            loadCount.increment();
+            loadTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private Duration jitteredTtl() {
+        double jitter = properties.getTtlJitter();
+        double factor = jitter > 0 ? 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter) : 1;
+        return Duration.ofMillis(Math.max(1, (long) (properties.getTtlMs() * factor)));
     }
 }
@@ -6,6 +6,7 @@ import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageGrantDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageOptionDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageSaveDTO;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.application.sys.mapper.TenantPackageMapper;
@@ -18,16 +19,21 @@ import com.mok.ddd.domain.sys.repository.MenuRepository;
 import com.mok.ddd.domain.sys.repository.PermissionRepository;
 import com.mok.ddd.domain.sys.repository.TenantPackageRepository;
 import com.mok.ddd.domain.sys.repository.TenantRepository;
+import com.mok.ddd.infrastructure.cache.RedisLoadLock;
+import com.mok.ddd.infrastructure.cache.SingleFlight;
 import com.mok.ddd.infrastructure.repository.CustomRepository;
 import com.querydsl.core.BooleanBuilder;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +48,12 @@ public class TenantPackageService extends BaseServiceImpl<TenantPackage, Long, T
     private final RedisTemplate<String, Object> redisTemplate;
     private final MenuMapper menuMapper;
     private final PermissionMapper permissionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final SingleFlight<String, Set<Long>> packageLoads = new SingleFlight<>();
+
+    @Value("${cache.load-lock-ms:0}")
+    private long loadLockMs;
 
     @Transactional
     public void createPackage(TenantPackageSaveDTO dto) {
@@ -78,6 +90,7 @@ public class TenantPackageService extends BaseServiceImpl<TenantPackage, Long, T
                 Const.CacheKey.TENANT_PACKAGE_PERMS + ":permissions:" + id
         );
         redisTemplate.delete(keys);
+        eventPublisher.publishEvent(new TenantPackageChangedEvent(this, id));
     }
 
     @Transactional
@@ -114,39 +127,50 @@ public class TenantPackageService extends BaseServiceImpl<TenantPackage, Long, T
     }
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
     public Set<Long> getMenuIdsByPackage(Long id) {
         String cacheKey = Const.CacheKey.TENANT_PACKAGE_PERMS + ":menus:" + id;
-        Object cached = redisTemplate.opsForValue().get(cacheKey);
-        if (cached instanceof Set) {
-            return (Set<Long>) cached;
-        }
-
-        TenantPackage tenantPackage = packageRepository.findById(id).orElse(null);
-        if (tenantPackage == null || tenantPackage.getMenus() == null) {
-            return Collections.emptySet();
-        }
-        Set<Long> menuIds = tenantPackage.getMenus().stream().map(Menu::getId).collect(Collectors.toSet());
-        redisTemplate.opsForValue().set(cacheKey, menuIds);
-        return menuIds;
+        return getCachedIds(cacheKey, () -> packageRepository.findById(id)
+                .map(TenantPackage::getMenus)
+                .map(menus -> menus.stream().map(Menu::getId).collect(Collectors.toSet()))
+                .orElse(null));
     }
 
     @Transactional(readOnly = true)
-    @SuppressWarnings("unchecked")
     public Set<Long> getPermissionIdsByPackage(Long id) {
         String cacheKey = Const.CacheKey.TENANT_PACKAGE_PERMS + ":permissions:" + id;
-        Object cached = redisTemplate.opsForValue().get(cacheKey);
-        if (cached instanceof Set) {
-            return (Set<Long>) cached;
-        }
+        return getCachedIds(cacheKey, () -> packageRepository.findById(id)
+                .map(TenantPackage::getPermissions)
+                .map(permissions -> permissions.stream().map(Permission::getId).collect(Collectors.toSet()))
+                .orElse(null));
+    }
 
-        TenantPackage tenantPackage = packageRepository.findById(id).orElse(null);
-        if (tenantPackage == null || tenantPackage.getPermissions() == null) {
-            return Collections.emptySet();
+    /**
+     * 读缓存，未命中时合并并发回源；loader 返回 null 表示套餐不存在，不写缓存
+     */
+    private Set<Long> getCachedIds(String cacheKey, Supplier<Set<Long>> loader) {
+        Set<Long> cached = readIds(cacheKey);
+        if (cached != null) {
+            return cached;
         }
-        Set<Long> permissionIds = tenantPackage.getPermissions().stream().map(Permission::getId).collect(Collectors.toSet());
-        redisTemplate.opsForValue().set(cacheKey, permissionIds);
-        return permissionIds;
+        return packageLoads.load(cacheKey, () -> RedisLoadLock.load(redisTemplate, cacheKey, loadLockMs,
+                () -> readIds(cacheKey),
+                () -> {
+                    Set<Long> current = readIds(cacheKey);
+                    if (current != null) {
+                        return current;
+                    }
+                    Set<Long> ids = loader.get();
+                    if (ids == null) {
+                        return Collections.emptySet();
+                    }
+                    redisTemplate.opsForValue().set(cacheKey, ids);
+                    return ids;
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> readIds(String cacheKey) {
+        return redisTemplate.opsForValue().get(cacheKey) instanceof Set<?> ids ? (Set<Long>) ids : null;
     }
 
     @Override
@@ -6,6 +6,8 @@ import com.mok.ddd.application.sys.dto.tenant.TenantCreateResultDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantOptionDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantSaveDTO;
+import com.mok.ddd.application.sys.event.SessionRevokeEvent;
+import com.mok.ddd.application.sys.event.TenantChangedEvent;
 import com.mok.ddd.application.sys.event.TenantCreatedEvent;
 import com.mok.ddd.application.sys.mapper.TenantMapper;
 import com.mok.ddd.common.Const;
@@ -133,6 +135,7 @@ public class TenantService extends BaseServiceImpl<Tenant, Long, TenantDTO> {
 
         Tenant savedTenant = tenantRepository.save(existingTenant);
         redisTemplate.delete(Const.CacheKey.TENANT + savedTenant.getTenantId());
+        eventPublisher.publishEvent(new TenantChangedEvent(this, savedTenant.getTenantId()));
         return tenantMapper.toDto(savedTenant);
     }
 
@@ -150,6 +153,10 @@ public class TenantService extends BaseServiceImpl<Tenant, Long, TenantDTO> {
 
         Tenant savedTenant = tenantRepository.save(existingTenant);
         redisTemplate.delete(Const.CacheKey.TENANT + savedTenant.getTenantId());
+        eventPublisher.publishEvent(new TenantChangedEvent(this, savedTenant.getTenantId()));
+        if (Objects.equals(state, Const.TenantState.DISABLED)) {
+            eventPublisher.publishEvent(new SessionRevokeEvent(this, savedTenant.getTenantId(), null));
+        }
         return tenantMapper.toDto(savedTenant);
     }
 
@@ -166,6 +173,8 @@ public class TenantService extends BaseServiceImpl<Tenant, Long, TenantDTO> {
         // TODO其他业务数据判断
         deleteById(id);
         redisTemplate.delete(Const.CacheKey.TENANT + old.getTenantId());
+        eventPublisher.publishEvent(new TenantChangedEvent(this, old.getTenantId()));
+        eventPublisher.publishEvent(new SessionRevokeEvent(this, old.getTenantId(), null));
         return true;
     }
 
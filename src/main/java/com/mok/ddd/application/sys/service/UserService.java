@@ -4,52 +4,55 @@ import com.mok.ddd.application.common.service.BaseServiceImpl;
 import com.mok.ddd.application.exception.BizException;
 import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.auth.AccountInfoDTO;
-import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.user.UserDTO;
 import com.mok.ddd.application.sys.dto.user.UserPasswordDTO;
 import com.mok.ddd.application.sys.dto.user.UserPostDTO;
 import com.mok.ddd.application.sys.dto.user.UserPutDTO;
-import com.mok.ddd.application.sys.mapper.MenuMapper;
+import com.mok.ddd.application.sys.event.SessionRevokeEvent;
+import com.mok.ddd.application.sys.event.UserRolesChangedEvent;
 import com.mok.ddd.application.sys.mapper.UserMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.*;
 import com.mok.ddd.domain.sys.repository.RoleRepository;
-import com.mok.ddd.domain.sys.repository.TenantPackageRepository;
-import com.mok.ddd.domain.sys.repository.TenantRepository;
 import com.mok.ddd.domain.sys.repository.UserRepository;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
 import com.mok.ddd.infrastructure.repository.CustomRepository;
+import com.mok.ddd.infrastructure.repository.KeysetPaging;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
+import com.mok.ddd.infrastructure.repository.SortKey;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import com.mok.ddd.infrastructure.tenant.TenantFilter;
 import com.querydsl.core.types.Predicate;
 import com.querydsl.core.types.Projections;
-import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import lombok.AllArgsConstructor;
 import org.jspecify.annotations.NonNull;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
 
+    private static final String LISTING = "user";
+    private static final String TABLE = "sys_user";
+
+    private static final List<SortKey> SLICE_KEYS = List.of(SortKey.desc(QUser.user.createTime), SortKey.desc(QUser.user.id));
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
-    private final MenuService menuService;
-    private final MenuMapper menuMapper;
-    private final PermissionService permissionService;
-    private final TenantRepository tenantRepository;
-    private final TenantPackageRepository tenantPackageRepository;
+    private final PageFetcher pageFetcher;
+    private final AccountAccessService accountAccessService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @Override
@@ -57,6 +60,33 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
         QUser user = QUser.user;
         QTenant tenant = QTenant.tenant;
 
+        return pageFetcher.fetch(LISTING, selectDto(predicate), userRepository.getQuerydsl(), pageable,
+                new PageFetcher.CountSource(TABLE, predicate, () -> {
+                    JPAQuery<Long> countQuery = userRepository.getJPAQueryFactory()
+                            .select(user.count())
+                            .from(user)
+                            .leftJoin(tenant).on(user.tenantId.eq(tenant.tenantId))
+                            .where(predicate);
+                    userRepository.applyTenantFilter(countQuery, user);
+                    return Optional.ofNullable(countQuery.fetchOne()).orElse(0L);
+                }));
+    }
+
+    /**
+     * 按 (createTime, id) 倒序的游标分页
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<UserDTO> findSlice(Predicate predicate, String cursor, int size) {
+        return KeysetPaging.fetch(selectDto(predicate), SLICE_KEYS, cursor, size);
+    }
+
+    /**
+     * 列表投影（关联租户名称），已应用租户过滤
+     */
+    private JPAQuery<UserDTO> selectDto(Predicate predicate) {
+        QUser user = QUser.user;
+        QTenant tenant = QTenant.tenant;
+
         JPAQuery<UserDTO> query = userRepository.getJPAQueryFactory()
                 .select(Projections.bean(UserDTO.class,
                         user.id,
@@ -72,16 +102,7 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
                 .where(predicate);
 
         userRepository.applyTenantFilter(query, user);
-        JPQLQuery<UserDTO> paginatedQuery = userRepository.getQuerydsl().applyPagination(pageable, query);
-
-        return PageableExecutionUtils.getPage(paginatedQuery.fetch(), pageable, () -> {
-            JPAQuery<Long> countQuery = userRepository.getJPAQueryFactory()
-                    .select(user.count())
-                    .from(user)
-                    .leftJoin(tenant).on(user.tenantId.eq(tenant.tenantId))
-                    .where(predicate);
-            return Optional.ofNullable(countQuery.fetchOne()).orElse(0L);
-        });
+        return query;
     }
 
     @Transactional
@@ -137,7 +158,11 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
             roles = new HashSet<>(roleRepository.findAllById(dto.getRoleIds()));
         }
         entity.updateInfo(dto.getNickname(), roles);
-        return this.toDto(userRepository.save(entity));
+        UserDTO result = this.toDto(userRepository.save(entity));
+        if (roles != null) {
+            eventPublisher.publishEvent(new UserRolesChangedEvent(this, entity.getId()));
+        }
+        return result;
     }
 
     @Transactional
@@ -155,6 +180,7 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
             entity.enable();
         } else {
             entity.disable();
+            eventPublisher.publishEvent(new SessionRevokeEvent(this, entity.getTenantId(), entity.getUsername()));
         }
         return this.toDto(userRepository.save(entity));
     }
@@ -185,6 +211,8 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
         }
 
         super.deleteById(id);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(this, id));
+        eventPublisher.publishEvent(new SessionRevokeEvent(this, userToDelete.get().getTenantId(), userToDelete.get().getUsername()));
     }
 
     @Transactional(readOnly = true)
@@ -193,61 +221,19 @@ public class UserService extends BaseServiceImpl<User, Long, UserDTO> {
                 .orElseThrow(() -> new NotFoundException(Const.NOT_FOUND_MESSAGE)));
     }
 
+    /**
+     * 菜单树和权限码来自按用户缓存的读模型，只有用户本身每次查询
+     */
     @Transactional(readOnly = true)
     public AccountInfoDTO findAccountInfoByUsername(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new NotFoundException(Const.NOT_FOUND_MESSAGE));
 
-        List<MenuDTO> flatMenus;
-        Set<String> distinctPermissions;
-
-        if (SysUtil.isSuperAdmin(user.getTenantId(), username)) {
-            // 超级管理员拥有所有权限
-            flatMenus = new ArrayList<>(menuService.findAll());
-            distinctPermissions = new HashSet<>(permissionService.getAllPermissionCodes());
-            distinctPermissions.add(Const.SUPER_ADMIN_ROLE_CODE);
-        } else if (Boolean.TRUE.equals(user.getIsTenantAdmin())) {
-            // 租户管理员，拥有该租户套餐下的所有权限
-            Long packageId = tenantRepository.findByTenantId(user.getTenantId())
-                    .map(Tenant::getPackageId)
-                    .orElse(null);
-
-            if (packageId != null) {
-                TenantPackage tenantPackage = tenantPackageRepository.findById(packageId).orElse(null);
-                if (tenantPackage != null) {
-                    flatMenus = new ArrayList<>(menuMapper.toDtoList(tenantPackage.getMenus()));
-                    distinctPermissions = tenantPackage.getPermissions().stream()
-                            .map(Permission::getCode)
-                            .collect(Collectors.toSet());
-                } else {
-                    flatMenus = new ArrayList<>();
-                    distinctPermissions = new HashSet<>();
-                }
-            } else {
-                flatMenus = new ArrayList<>();
-                distinctPermissions = new HashSet<>();
-            }
-        } else {
-            // 普通用户，根据角色获取权限
-            Set<Menu> distinctMenuEntities = user.getRoles().stream()
-                    .flatMap(role -> role.getMenus().stream())
-                    .collect(Collectors.toSet());
-
-            flatMenus = new ArrayList<>(menuMapper.toDtoList(distinctMenuEntities));
-
-            distinctPermissions = user.getRoles().stream()
-                    .flatMap(r -> r.getPermissions().stream())
-                    .map(Permission::getCode)
-                    .collect(Collectors.toSet());
-        }
-
-        flatMenus.sort(Comparator.comparing(MenuDTO::getSort, Comparator.nullsLast(Comparator.naturalOrder())));
-        List<MenuDTO> menuTree = menuService.buildMenuTree(flatMenus);
-
+        AccountAccessService.AccountAccess access = accountAccessService.getAccess(user);
         return AccountInfoDTO.builder()
                 .user(this.toDto(user))
-                .menus(menuTree)
-                .permissions(distinctPermissions).build();
+                .menus(access.menus())
+                .permissions(access.permissions()).build();
     }
 
     @Override
@@ -10,8 +10,12 @@ public interface Const {
 
     String SUPER_ADMIN_ROLE_CODE = "SUPER_ADMIN";
 
+    /**
+     * 超管登录时写入会话的虚拟角色 id
+     */
+    Long SUPER_ADMIN_ROLE_ID = 0L;
+
     class CacheKey {
-        public static final String MENU_TREE = "sys:menu:tree";
         public static final String ROLE_PERMS = "sys:role:perms";
         public static final String TENANT_PACKAGE_PERMS = "sys:tenant:package:perms";
 
@@ -19,8 +23,32 @@ public interface Const {
 
         public static final String AUTH_TOKEN = "auth:token:";
         public static final String USER_TOKENS = "user:tokens:";
+        /**
+         * 会话索引（sorted set，token 按登录时间排序）：所有租户 / 按租户
+         */
+        public static final String SESSION_INDEX = "auth:sessions";
+        public static final String TENANT_SESSION_INDEX = "auth:sessions:";
+        /**
+         * 会话过期索引（sorted set，成员为 token:tenantId，按过期时间排序），用于清理会话索引中已过期的 token
+         */
+        public static final String SESSION_EXPIRY_INDEX = "auth:session-expiry";
+        /**
+         * 已撤销的会话（sorted set，按访问令牌最迟过期时间排序），无状态令牌模式下新节点启动时加载
+         */
+        public static final String REVOKED_SESSIONS = "auth:revoked";
         
         public static final String DICT_DATA = "sys:dict:";
+
+        public static final String LOG_RETENTION_LOCK = "sys:log:retention:lock";
+    }
+
+    class Channel {
+        public static final String SESSION_EVICT = "channel:auth:session:evict";
+        public static final String AUTHORITY_EVICT = "channel:auth:authority:evict";
+        public static final String TENANT_CHANGED = "channel:sys:tenant:changed";
+        public static final String ACCOUNT_ACCESS_EVICT = "channel:auth:account:evict";
+        public static final String MENU_TREE_EVICT = "channel:sys:menu:tree:evict";
+        public static final String SESSION_REVOKED = "channel:auth:session:revoked";
     }
 
     class UserState {
@@ -2,6 +2,7 @@ package com.mok.ddd.domain.sys.model;
 
 import com.mok.ddd.domain.common.model.TenantBaseEntity;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -10,7 +11,10 @@ import lombok.NoArgsConstructor;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "sys_login_log")
+@Table(name = "sys_login_log", indexes = {
+        @Index(name = "idx_login_log_create_time", columnList = "create_time"),
+        @Index(name = "idx_login_log_tenant_time", columnList = "tenant_id, create_time")
+})
 public class LoginLog extends TenantBaseEntity {
 
     private String username;
@@ -21,12 +25,18 @@ public class LoginLog extends TenantBaseEntity {
 
     private String message;
 
+    /**
+     * 合并记录的次数，连续失败在一个时间窗口内合并为一条
+     */
+    private Integer attemptCount;
+
     public static LoginLog create(String username, String ipAddress, String status, String message) {
         LoginLog log = new LoginLog();
         log.username = username;
         log.ipAddress = ipAddress;
         log.status = status;
         log.message = message;
+        log.attemptCount = 1;
         return log;
     }
 
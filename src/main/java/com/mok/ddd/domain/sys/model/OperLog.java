@@ -3,6 +3,7 @@ package com.mok.ddd.domain.sys.model;
 import com.mok.ddd.domain.common.model.TenantBaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Lob;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
@@ -12,7 +13,10 @@ import lombok.NoArgsConstructor;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "sys_oper_log")
+@Table(name = "sys_oper_log", indexes = {
+        @Index(name = "idx_oper_log_create_time", columnList = "create_time"),
+        @Index(name = "idx_oper_log_tenant_time", columnList = "tenant_id, create_time")
+})
 public class OperLog extends TenantBaseEntity {
 
     /**
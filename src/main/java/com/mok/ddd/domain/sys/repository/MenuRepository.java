@@ -6,10 +6,31 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuRepository extends CustomRepository<Menu, Long> {
-    List<Menu> findByParentId(Long parentId);
+
+    /**
+     * 所有菜单的 [id, parentId]，用于一次构建父子索引
+     */
+    @Query("select m.id, m.parent.id from Menu m")
+    List<Object[]> findAllIdAndParentId();
+
+    @Query("select distinct m from Menu m left join fetch m.permissions")
+    List<Menu> findAllWithPermissions();
+
+    /**
+     * 角色集合可见的菜单，连同菜单的权限一次查出
+     */
+    @Query("select distinct m from Role r join r.menus m left join fetch m.permissions where r.id in :roleIds")
+    List<Menu> findWithPermissionsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    /**
+     * 套餐包含的菜单，连同菜单的权限一次查出
+     */
+    @Query("select distinct m from TenantPackage p join p.menus m left join fetch m.permissions where p.id = :packageId")
+    List<Menu> findWithPermissionsByPackageId(@Param("packageId") Long packageId);
 
     @Query(value = "SELECT DISTINCT role_id FROM sys_role_menu WHERE menu_id IN :menuIds", nativeQuery = true)
     List<Long> findRoleIdsByMenuIds(@Param("menuIds") List<Long> menuIds);
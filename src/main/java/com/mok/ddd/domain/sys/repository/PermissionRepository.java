@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 
@@ -29,8 +30,18 @@ public interface PermissionRepository extends CustomRepository<Permission, Long>
     @Query("DELETE FROM com.mok.ddd.domain.sys.model.Permission p WHERE p.menu.id IN :menuIds")
     void deleteByMenuIds(@Param("menuIds") List<Long> menuIds);
 
-    @Query(value = "SELECT p.code FROM sys_permission p " +
+    /**
+     * 批量查询角色权限码
+     *
+     * @return [role_id, code]
+     */
+    @Query(value = "SELECT rp.role_id, p.code FROM sys_permission p " +
             "JOIN sys_role_permission rp ON p.id = rp.permission_id " +
-            "WHERE rp.role_id = :roleId", nativeQuery = true)
-    List<String> findCodesByRoleId(@Param("roleId") Long roleId);
-}
\ No newline at end of file
+            "WHERE rp.role_id IN :roleIds", nativeQuery = true)
+    List<Object[]> findCodesByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    @Query(value = "SELECT p.code FROM sys_permission p " +
+            "JOIN sys_package_permission pp ON p.id = pp.permission_id " +
+            "WHERE pp.package_id = :packageId", nativeQuery = true)
+    List<String> findCodesByPackageId(@Param("packageId") Long packageId);
+}
@@ -3,7 +3,10 @@ package com.mok.ddd.domain.sys.repository;
 import com.mok.ddd.domain.sys.model.User;
 import com.mok.ddd.infrastructure.repository.CustomRepository;
 import com.mok.ddd.infrastructure.tenant.TenantFilter;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends CustomRepository<User, Long> {
@@ -11,4 +14,7 @@ public interface UserRepository extends CustomRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByTenantIdAndUsername(String tenantId, String username);
-}
\ No newline at end of file
+
+    @Query(value = "SELECT role_id FROM sys_user_role WHERE user_id = :userId", nativeQuery = true)
+    List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,22 @@
+package com.mok.ddd.infrastructure.cache;
+
+/**
+ * 缓存命中统计快照
+ *
+ * @param hitCount          命中次数（包含命中"不存在"记录）
+ * @param missCount         未命中次数
+ * @param loadCount         回源次数
+ * @param totalLoadTimeNanos 回源累计耗时
+ * @param size              当前条目数
+ */
+public record CacheStats(long hitCount, long missCount, long loadCount, long totalLoadTimeNanos, long size) {
+
+    public double hitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 1.0 : (double) hitCount / total;
+    }
+
+    public double averageLoadTimeMillis() {
+        return loadCount == 0 ? 0 : totalLoadTimeNanos / 1_000_000.0 / loadCount;
+    }
+}
@@ -0,0 +1,115 @@
+package com.mok.ddd.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 进程内缓存：容量上限 + TTL
+ * <p>
+ * 超出容量时先清理过期条目，仍超出则按迭代顺序淘汰，不保证严格 LRU
+ */
+public class LocalCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> store = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long defaultTtlNanos;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public LocalCache(int maxSize, Duration defaultTtl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.defaultTtlNanos = defaultTtl.toNanos();
+    }
+
+    public V get(K key) {
+        Entry<V> entry = store.get(key);
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            store.remove(key, entry);
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value();
+    }
+
+    public void put(K key, V value) {
+        put(key, value, defaultTtlNanos);
+    }
+
+    public void put(K key, V value, Duration ttl) {
+        put(key, value, ttl.toNanos());
+    }
+
+    private void put(K key, V value, long ttlNanos) {
+        if (value == null || ttlNanos <= 0) {
+            store.remove(key);
+            return;
+        }
+        store.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        if (store.size() > maxSize) {
+            evict();
+        }
+    }
+
+    public void invalidate(K key) {
+        store.remove(key);
+    }
+
+    public void invalidateIf(Predicate<K> predicate) {
+        store.keySet().removeIf(predicate);
+    }
+
+    public void invalidateIfValue(Predicate<V> predicate) {
+        store.values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void invalidateAll() {
+        store.clear();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        store.entrySet().removeIf(e -> e.getValue().isExpired(now));
+
+        Iterator<K> iterator = store.keySet().iterator();
+        while (store.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long expireAtNanos) {
+        boolean isExpired(long now) {
+            return now - expireAtNanos >= 0;
+        }
+    }
+}
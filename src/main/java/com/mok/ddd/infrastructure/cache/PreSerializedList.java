@@ -0,0 +1,61 @@
+package com.mok.ddd.infrastructure.cache;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.annotation.JsonSerialize;
+import tools.jackson.databind.ser.std.StdSerializer;
+import tools.jackson.databind.util.RawValue;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 附带预先序列化 JSON 的只读列表
+ * <p>
+ * 接口仍按 List&lt;E&gt; 声明返回类型（文档和调用方看到的契约不变），写出响应时 Jackson 直接输出缓存的 JSON，
+ * 不再逐个序列化元素；JSON 须由与响应相同的 JsonMapper 生成
+ */
+@JsonSerialize(using = PreSerializedList.Serializer.class)
+public final class PreSerializedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> elements;
+    private final RawValue json;
+
+    /**
+     * @param json elements 序列化后的 JSON，会提前编码为 UTF-8 字节
+     */
+    public PreSerializedList(List<E> elements, String json) {
+        this.elements = List.copyOf(elements);
+        SerializedString serialized = new SerializedString(json);
+        serialized.asUnquotedUTF8();
+        this.json = new RawValue(serialized);
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    public RawValue json() {
+        return json;
+    }
+
+    static class Serializer extends StdSerializer<PreSerializedList<?>> {
+
+        Serializer() {
+            super(PreSerializedList.class);
+        }
+
+        @Override
+        public void serialize(PreSerializedList<?> value, JsonGenerator gen, SerializationContext context) {
+            value.json().serialize(gen, context);
+        }
+    }
+}
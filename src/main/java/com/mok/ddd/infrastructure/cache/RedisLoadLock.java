@@ -0,0 +1,89 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 跨节点的缓存回源锁：拿到锁的节点回源，其余节点轮询缓存，超时后自行回源
+ * <p>
+ * 锁只是减少并发回源的手段，Redis 异常时直接回源
+ */
+public final class RedisLoadLock {
+
+    private static final String LOCK_SUFFIX = ":lock";
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private static final byte[] RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private RedisLoadLock() {
+    }
+
+    /**
+     * @param cacheKey 被保护的缓存 key，锁为 cacheKey:lock
+     * @param lockMs   锁有效期，同时是等待上限；小于等于 0 时不加锁
+     * @param cached   等待期间读取缓存，返回 null 表示尚未写入
+     * @param loader   回源并写缓存
+     */
+    public static <V> V load(RedisOperations<String, ?> redis, String cacheKey, long lockMs,
+                             Supplier<V> cached, Supplier<V> loader) {
+        if (lockMs <= 0) {
+            return loader.get();
+        }
+
+        byte[] lockKey = (cacheKey + LOCK_SUFFIX).getBytes(StandardCharsets.UTF_8);
+        byte[] owner = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        Boolean acquired;
+        try {
+            acquired = redis.execute((RedisCallback<Boolean>) connection -> connection.stringCommands()
+                    .set(lockKey, owner, Expiration.milliseconds(lockMs), RedisStringCommands.SetOption.ifAbsent()));
+        } catch (Exception e) {
+            return loader.get();
+        }
+
+        if (!Boolean.FALSE.equals(acquired)) {
+            try {
+                return loader.get();
+            } finally {
+                if (Boolean.TRUE.equals(acquired)) {
+                    release(redis, lockKey, owner);
+                }
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + lockMs;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            V value = cached.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return loader.get();
+    }
+
+    private static void release(RedisOperations<String, ?> redis, byte[] lockKey, byte[] owner) {
+        try {
+            redis.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                    .eval(RELEASE_SCRIPT, ReturnType.INTEGER, 1, lockKey, owner));
+        } catch (Exception ignored) {
+            // 锁会自行过期
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.mok.ddd.infrastructure.common.aspect;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.OperLog;
 import com.mok.ddd.infrastructure.log.event.OperLogEvent;
+import com.mok.ddd.infrastructure.log.serializer.BoundedJsonSerializer;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,7 +17,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
-import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Arrays;
+import java.util.List;
 
 @Aspect
 @Component
@@ -25,7 +28,7 @@ import tools.jackson.databind.json.JsonMapper;
 public class OperLogAspect {
 
     private final ApplicationEventPublisher applicationEventPublisher;
-    private final JsonMapper jsonMapper;
+    private final BoundedJsonSerializer boundedJsonSerializer;
 
     @Around("@annotation(controllerLog)")
     public Object doAround(ProceedingJoinPoint joinPoint, com.mok.ddd.infrastructure.log.annotation.OperLog controllerLog) throws Throwable {
@@ -77,19 +80,12 @@ public class OperLogAspect {
             String title = controllerLog.title();
             Integer businessType = controllerLog.businessType().ordinal();
 
-            String operParam = null;
-            if (controllerLog.isSaveRequestData()) {
-                operParam = getRequestValue(joinPoint);
-            }
+            List<Object> args = controllerLog.isSaveRequestData() ? loggableArgs(joinPoint.getArgs()) : null;
+            Object result = controllerLog.isSaveResponseData() ? jsonResult : null;
 
-            String resultJson = null;
-            if (controllerLog.isSaveResponseData() && jsonResult != null) {
-                try {
-                    resultJson = jsonMapper.writeValueAsString(jsonResult);
-                } catch (Exception ex) {
-                    resultJson = "error serializing result";
-                }
-            }
+            // 在请求线程内按上限序列化，入队的只是定长字符串，不再引用参数和返回值
+            String operParam = boundedJsonSerializer.serializeParams(args);
+            String resultJson = boundedJsonSerializer.serializeResult(result);
 
             OperLog operLog = OperLog.create(title, businessType, method, requestMethod, username, operUrl, ip, operParam, resultJson, status, errorMsg, costTime);
             operLog.assignTenant(tenantId);
@@ -102,12 +98,13 @@ public class OperLogAspect {
         }
     }
 
-    private String getRequestValue(ProceedingJoinPoint joinPoint) {
-        Object[] args = joinPoint.getArgs();
+    /**
+     * 去掉不可序列化的参数，位置保留为 null
+     */
+    private static List<Object> loggableArgs(Object[] args) {
         if (args == null || args.length == 0) {
             return null;
         }
-
         Object[] arguments = new Object[args.length];
         for (int i = 0; i < args.length; i++) {
             if (args[i] instanceof HttpServletRequest || args[i] instanceof HttpServletResponse || args[i] instanceof MultipartFile) {
@@ -115,15 +112,6 @@ public class OperLogAspect {
             }
             arguments[i] = args[i];
         }
-
-        try {
-            String params = jsonMapper.writeValueAsString(arguments);
-            if (params.length() > 2000) {
-                return params.substring(0, 2000) + "...";
-            }
-            return params;
-        } catch (Exception e) {
-            return "error serializing args";
-        }
+        return Arrays.asList(arguments);
     }
 }
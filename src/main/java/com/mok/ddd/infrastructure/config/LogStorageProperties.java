@@ -0,0 +1,55 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "log.storage")
+public class LogStorageProperties {
+
+    /**
+     * Whether the log tables are RANGE partitioned by month on create_time (MySQL only).
+     * Converting an existing table rebuilds it, so enable it during a maintenance window
+     */
+    private boolean partitioned = false;
+
+    /**
+     * Number of monthly partitions created ahead of the current month
+     */
+    private int futurePartitions = 3;
+
+    /**
+     * Months of logs kept in the online tables, older rows are moved out (or their partitions dropped) by the
+     * retention job; 0 keeps everything. Opt-in: set e.g. 6 together with archive=true to keep a copy
+     */
+    private int retentionMonths = 0;
+
+    /**
+     * Whether expired rows are copied to the *_archive tables before being removed
+     */
+    private boolean archive = true;
+
+    /**
+     * Rows moved per transaction by the retention job on unpartitioned tables; partitioned tables are archived
+     * and dropped one partition at a time
+     */
+    private int chunkSize = 5000;
+
+    /**
+     * Pause between chunks in milliseconds, keeps replication and the buffer pool breathing
+     */
+    private long chunkPauseMs = 50;
+
+    /**
+     * Cron of the retention job
+     */
+    private String retentionCron = "0 30 3 * * *";
+
+    /**
+     * Log listings without a time filter only look at the last N days; 0 disables the default window.
+     * Opt-in: set e.g. 30 on partitioned tables so unfiltered listings only scan recent partitions
+     */
+    private int defaultQueryDays = 0;
+}
@@ -0,0 +1,42 @@
+package com.mok.ddd.infrastructure.config;
+
+import com.mok.ddd.infrastructure.log.writer.BatchingLogWriter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "log.writer")
+public class LogWriterProperties {
+
+    /**
+     * Max log records buffered in memory per writer
+     */
+    private int capacity = 10000;
+
+    /**
+     * Max records written in one JDBC batch
+     */
+    private int batchSize = 200;
+
+    /**
+     * Max time in milliseconds a record waits before its batch is flushed
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * How long a caller waits for queue space before the overflow policy applies
+     */
+    private long offerTimeoutMs = 10;
+
+    /**
+     * What to do with a record when the queue is still full after offerTimeoutMs
+     */
+    private BatchingLogWriter.OverflowPolicy overflowPolicy = BatchingLogWriter.OverflowPolicy.DROP;
+
+    /**
+     * Max time in milliseconds to wait for buffered records to be written on shutdown
+     */
+    private long shutdownTimeoutMs = 10000;
+}
@@ -0,0 +1,26 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "log.login")
+public class LoginLogProperties {
+
+    /**
+     * Whether repeated failures of the same tenant/user/ip are collapsed into one row with a count
+     */
+    private boolean aggregateFailures = true;
+
+    /**
+     * Aggregation window in milliseconds, measured from the first failure
+     */
+    private long aggregateWindowMs = 60000;
+
+    /**
+     * Max failure groups held in memory; beyond this failures are written one by one
+     */
+    private int maxAggregates = 10000;
+}
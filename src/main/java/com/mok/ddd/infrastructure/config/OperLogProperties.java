@@ -0,0 +1,26 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "log.oper")
+public class OperLogProperties {
+
+    /**
+     * Max characters kept from the serialized request arguments
+     */
+    private int maxParamLength = 2000;
+
+    /**
+     * Max characters kept from the serialized response
+     */
+    private int maxResultLength = 4000;
+
+    /**
+     * Collections longer than this are cut off and end with a "...N more" marker
+     */
+    private int maxCollectionElements = 20;
+}
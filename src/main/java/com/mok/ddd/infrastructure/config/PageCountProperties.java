@@ -0,0 +1,35 @@
+package com.mok.ddd.infrastructure.config;
+
+import com.mok.ddd.infrastructure.repository.CountMode;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "page.count")
+public class PageCountProperties {
+
+    /**
+     * Count mode per listing (oper-log, login-log, user), listings not configured use EXACT
+     */
+    private Map<String, CountMode> modes = new HashMap<>();
+
+    /**
+     * How long a cached count is reused, in milliseconds
+     */
+    private long cacheTtlMs = 30000;
+
+    /**
+     * Max cached counts
+     */
+    private int cacheMaxEntries = 2048;
+
+    /**
+     * In ESTIMATED mode tables whose statistics report fewer rows than this are counted exactly
+     */
+    private long estimateExactBelow = 100000;
+}
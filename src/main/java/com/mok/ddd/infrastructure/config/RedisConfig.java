@@ -1,11 +1,14 @@
 package com.mok.ddd.infrastructure.config;
 
+import com.mok.ddd.infrastructure.redis.InstrumentedRedisConnectionFactory;
+import com.mok.ddd.infrastructure.redis.RedisMetrics;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import tools.jackson.databind.json.JsonMapper;
@@ -15,9 +18,10 @@ public class RedisConfig {
 
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
-                                                       @Qualifier("redisJsonMapper") JsonMapper redisJsonMapper) {
+                                                       @Qualifier("redisJsonMapper") JsonMapper redisJsonMapper,
+                                                       RedisMetrics redisMetrics, RedisMetricsProperties metricsProperties) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
+        template.setConnectionFactory(instrumented(connectionFactory, redisMetrics, metricsProperties));
         GenericJacksonJsonRedisSerializer jsonSerializer = new GenericJacksonJsonRedisSerializer(redisJsonMapper);
         template.setKeySerializer(RedisSerializer.string());
         template.setValueSerializer(jsonSerializer);
@@ -27,8 +31,27 @@ public class RedisConfig {
     }
 
     @Bean
-    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
-        return new StringRedisTemplate(connectionFactory);
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory, RedisMetrics redisMetrics,
+                                                   RedisMetricsProperties metricsProperties) {
+        return new StringRedisTemplate(instrumented(connectionFactory, redisMetrics, metricsProperties));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        // 订阅连接长期占用，不计入命令统计
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * 模板共用同一个连接工厂，统计按命令和调用方汇总
+     */
+    private static RedisConnectionFactory instrumented(RedisConnectionFactory connectionFactory, RedisMetrics redisMetrics,
+                                                       RedisMetricsProperties metricsProperties) {
+        return metricsProperties.isEnabled()
+                ? new InstrumentedRedisConnectionFactory(connectionFactory, redisMetrics)
+                : connectionFactory;
     }
 
     //@Bean
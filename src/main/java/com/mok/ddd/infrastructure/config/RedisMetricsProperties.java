@@ -0,0 +1,39 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.metrics")
+public class RedisMetricsProperties {
+
+    /**
+     * Whether the Redis templates record command latency, connection acquire time and errors
+     */
+    private boolean enabled = true;
+
+    /**
+     * Whether latency is also attributed to the calling class, costs one stack walk per sampled command.
+     * Off by default; turn on while investigating, with caller-sample-rate raised under production load
+     */
+    private boolean callerTracking = false;
+
+    /**
+     * Attribute 1 in N commands to their caller, caller counts are then a sample rather than totals
+     */
+    private int callerSampleRate = 1;
+
+    /**
+     * Max distinct callers tracked, the rest are counted as "other"
+     */
+    private int maxCallers = 256;
+
+    /**
+     * Whether to log a summary every log-interval-ms
+     */
+    private boolean logSummary = false;
+
+    private long logIntervalMs = 60000;
+}
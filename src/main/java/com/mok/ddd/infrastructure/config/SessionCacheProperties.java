@@ -0,0 +1,26 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.session-cache")
+public class SessionCacheProperties {
+
+    /**
+     * Whether to keep decoded sessions in a local near cache
+     */
+    private boolean enabled = true;
+
+    /**
+     * Max sessions kept per node
+     */
+    private int maxSize = 10000;
+
+    /**
+     * Local entry lifetime in milliseconds, also the upper bound of kick-out delay when a pub/sub message is lost
+     */
+    private long ttlMs = 30000;
+}
@@ -0,0 +1,36 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.stateless")
+public class StatelessTokenProperties {
+
+    /**
+     * Whether login issues signed access tokens verified locally; the Redis session becomes the refresh token
+     */
+    private boolean enabled = false;
+
+    /**
+     * HMAC-SHA256 signing key, at least 32 bytes, shared by all nodes
+     */
+    private String secret;
+
+    /**
+     * Access token lifetime in milliseconds, also how long a revoked token is remembered
+     */
+    private long accessTtlMs = 300000;
+
+    /**
+     * Expected number of tokens revoked within one access token lifetime, sizes the local bloom filter
+     */
+    private int revocationExpectedSize = 100000;
+
+    /**
+     * Target false positive rate of the bloom filter, false positives fall through to the exact set
+     */
+    private double revocationFpp = 0.01;
+}
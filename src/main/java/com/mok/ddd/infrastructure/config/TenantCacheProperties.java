@@ -0,0 +1,37 @@
+package com.mok.ddd.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.tenant")
+public class TenantCacheProperties {
+
+    /**
+     * Redis entry lifetime in milliseconds
+     */
+    private long ttlMs = 3600000;
+
+    /**
+     * Random spread applied to ttlMs, e.g. 0.1 means ±10%, so entries written together do not expire together
+     */
+    private double ttlJitter = 0.1;
+
+    /**
+     * Lifetime of "tenant does not exist" entries in milliseconds
+     */
+    private long negativeTtlMs = 60000;
+
+    /**
+     * Max tenants kept in the local registry, and max unknown ids remembered locally
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * Interval in milliseconds at which the local registry is rebuilt from the database,
+     * bounds how long a lost tenant change message can leave a node stale
+     */
+    private long reloadIntervalMs = 300000;
+}
@@ -1,12 +1,11 @@
 package com.mok.ddd.infrastructure.log.listener;
 
 import com.mok.ddd.domain.sys.model.OperLog;
-import com.mok.ddd.domain.sys.repository.OperLogRepository;
 import com.mok.ddd.infrastructure.log.event.OperLogEvent;
+import com.mok.ddd.infrastructure.log.writer.OperLogWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -14,17 +13,16 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class OperLogListener {
 
-    private final OperLogRepository operLogRepository;
+    private final OperLogWriter operLogWriter;
 
-    @Async
+    /**
+     * 只入队，由 OperLogWriter 的写线程批量落库
+     */
     @EventListener
     public void recordOperLog(OperLogEvent event) {
         OperLog operLog = event.getOperLog();
-        try {
-            operLogRepository.save(operLog);
-            log.info("Remote operation log recorded: {}", operLog.getTitle());
-        } catch (Exception e) {
-            log.error("Failed to record operation log", e);
+        if (!operLogWriter.write(operLog)) {
+            log.debug("Operation log dropped: {}", operLog.getTitle());
         }
     }
 }
@@ -0,0 +1,173 @@
+package com.mok.ddd.infrastructure.log.serializer;
+
+import com.mok.ddd.infrastructure.config.OperLogProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+import tools.jackson.databind.ser.std.StdSerializer;
+
+import java.io.Writer;
+import java.util.Collection;
+
+/**
+ * 日志用的有界 JSON 序列化
+ * <p>
+ * 直接流式写入定长缓冲，写满后中断序列化，不再生成完整 JSON 再截断；
+ * 集合只输出前 N 个元素，其余以 "...N more" 表示
+ */
+@Component
+public class BoundedJsonSerializer {
+
+    private static final String TRUNCATED = "...";
+
+    private final JsonMapper logMapper;
+    private final OperLogProperties properties;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public BoundedJsonSerializer(JsonMapper jsonMapper, OperLogProperties properties) {
+        SimpleModule module = new SimpleModule("bounded-log");
+        module.addSerializer((Class) Collection.class,
+                (ValueSerializer) new TruncatingCollectionSerializer(properties.getMaxCollectionElements()));
+        this.logMapper = jsonMapper.rebuild().addModule(module).build();
+        this.properties = properties;
+    }
+
+    public String serializeParams(Object args) {
+        if (args == null) {
+            return null;
+        }
+        try {
+            return serialize(args, properties.getMaxParamLength());
+        } catch (Exception e) {
+            return "error serializing args";
+        }
+    }
+
+    public String serializeResult(Object result) {
+        if (result == null) {
+            return null;
+        }
+        try {
+            return serialize(result, properties.getMaxResultLength());
+        } catch (Exception e) {
+            return "error serializing result";
+        }
+    }
+
+    /**
+     * 序列化为最多 maxLength 个字符，超出部分以 "..." 结尾
+     */
+    public String serialize(Object value, int maxLength) {
+        BoundedWriter writer = new BoundedWriter(maxLength);
+        try {
+            logMapper.writeValue(writer, value);
+        } catch (RuntimeException e) {
+            // 写满时由 BoundedWriter 主动中断，Jackson 可能再包装一层
+            if (!writer.isFull()) {
+                throw e;
+            }
+        }
+        return writer.isFull() ? writer + TRUNCATED : writer.toString();
+    }
+
+    /**
+     * 写满后抛出 BudgetExceededException，中断外层序列化
+     */
+    static final class BoundedWriter extends Writer {
+
+        private final StringBuilder buffer;
+        private final int maxLength;
+        private boolean full;
+
+        BoundedWriter(int maxLength) {
+            this.maxLength = Math.max(0, maxLength);
+            this.buffer = new StringBuilder(Math.min(this.maxLength, 256));
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) {
+            if (full) {
+                throw BudgetExceededException.INSTANCE;
+            }
+            int remaining = maxLength - buffer.length();
+            if (len > remaining) {
+                buffer.append(chars, off, remaining);
+                full = true;
+                throw BudgetExceededException.INSTANCE;
+            }
+            buffer.append(chars, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            if (full) {
+                throw BudgetExceededException.INSTANCE;
+            }
+            int remaining = maxLength - buffer.length();
+            if (len > remaining) {
+                buffer.append(str, off, off + remaining);
+                full = true;
+                throw BudgetExceededException.INSTANCE;
+            }
+            buffer.append(str, off, off + len);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        boolean isFull() {
+            return full;
+        }
+
+        @Override
+        public String toString() {
+            return buffer.toString();
+        }
+    }
+
+    static final class BudgetExceededException extends RuntimeException {
+
+        static final BudgetExceededException INSTANCE = new BudgetExceededException();
+
+        private BudgetExceededException() {
+            super("log serialization budget exceeded", null, false, false);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    static final class TruncatingCollectionSerializer extends StdSerializer<Collection> {
+
+        private final int maxElements;
+
+        TruncatingCollectionSerializer(int maxElements) {
+            super(Collection.class);
+            this.maxElements = Math.max(0, maxElements);
+        }
+
+        @Override
+        public void serialize(Collection value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeStartArray(value);
+            int written = 0;
+            for (Object element : value) {
+                if (written >= maxElements) {
+                    break;
+                }
+                ctxt.writeValue(gen, element);
+                written++;
+            }
+            int size = value.size();
+            if (size > written) {
+                gen.writeString(TRUNCATED + (size - written) + " more");
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.common.Const;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * 日志表维护（分区 DDL、保留期清理）的跨节点锁，同一时间只有一个节点对日志表执行 ALTER / 清理
+ */
+@Component
+public class LogMaintenanceLock {
+
+    private static final Duration LOCK_TTL = Duration.ofHours(2);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public LogMaintenanceLock(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * @return 未拿到锁（其他节点正在维护）时返回 false，task 不执行
+     */
+    public boolean runExclusively(Runnable task) {
+        String owner = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(Const.CacheKey.LOG_RETENTION_LOCK, owner, LOCK_TTL))) {
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            if (owner.equals(redisTemplate.opsForValue().get(Const.CacheKey.LOG_RETENTION_LOCK))) {
+                redisTemplate.delete(Const.CacheKey.LOG_RETENTION_LOCK);
+            }
+        }
+    }
+}
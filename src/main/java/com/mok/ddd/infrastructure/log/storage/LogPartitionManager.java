@@ -0,0 +1,125 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 日志表按 create_time 逐月 RANGE 分区（MySQL）
+ * <p>
+ * 分区表的唯一键必须包含分区列，转换时主键改为 (id, create_time)；
+ * 之后按月提前切出新分区，过期的分区由 {@link LogRetentionJob} 归档后直接 DROP。
+ * 启动时的维护与保留任务共用 {@link LogMaintenanceLock}，滚动发布时不会多个节点同时 ALTER 同一张表
+ */
+@Slf4j
+@Component
+public class LogPartitionManager {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LogMaintenanceLock maintenanceLock;
+    private final LogStorageProperties properties;
+
+    public LogPartitionManager(JdbcTemplate jdbcTemplate, LogMaintenanceLock maintenanceLock, LogStorageProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintenanceLock = maintenanceLock;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (properties.isPartitioned() && !maintenanceLock.runExclusively(this::ensurePartitions)) {
+            log.info("Log partitions are maintained by another node, skipping on startup");
+        }
+    }
+
+    /**
+     * 调用方需持有 {@link LogMaintenanceLock}
+     */
+    public void ensurePartitions() {
+        if (!properties.isPartitioned()) {
+            return;
+        }
+        for (String table : LogPartitions.TABLES) {
+            try {
+                if (partitions(table).isEmpty()) {
+                    partition(table);
+                } else {
+                    addFuturePartitions(table);
+                }
+            } catch (Exception e) {
+                log.error("Failed to maintain partitions of {}", table, e);
+            }
+        }
+    }
+
+    /**
+     * @return 按月分区的月份，升序；未分区时为空
+     */
+    public List<YearMonth> partitions(String table) {
+        List<String> names = jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL " +
+                "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+        return names.stream().map(LogPartitions::parse).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * 把未分区的表转换为按月分区，从最早一条数据所在月份到当前月份之后 futurePartitions 个月
+     */
+    void partition(String table) {
+        LocalDateTime earliest = jdbcTemplate.queryForObject("SELECT MIN(create_time) FROM " + table, LocalDateTime.class);
+        YearMonth from = earliest != null ? YearMonth.from(earliest) : YearMonth.now();
+        YearMonth to = YearMonth.now().plusMonths(properties.getFuturePartitions());
+
+        List<String> definitions = new ArrayList<>(LogPartitions.definitions(from, to));
+        definitions.add("PARTITION " + LogPartitions.MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+
+        log.warn("Partitioning {} by month from {} to {}, the table is rebuilt", table, from, to);
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, create_time)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " PARTITION BY RANGE COLUMNS(create_time) ("
+                + String.join(", ", definitions) + ")");
+    }
+
+    /**
+     * 从 p_max 中切出缺少的未来月份分区；p_max 中没有这些月份的数据，REORGANIZE 不搬动行
+     */
+    void addFuturePartitions(String table) {
+        List<YearMonth> existing = partitions(table);
+        YearMonth to = YearMonth.now().plusMonths(properties.getFuturePartitions());
+        YearMonth from = existing.isEmpty() ? YearMonth.now() : existing.getLast().plusMonths(1);
+        if (from.isAfter(to)) {
+            return;
+        }
+        List<String> definitions = new ArrayList<>(LogPartitions.definitions(from, to));
+        definitions.add("PARTITION " + LogPartitions.MAX_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + LogPartitions.MAX_PARTITION
+                + " INTO (" + String.join(", ", definitions) + ")");
+        log.info("Added partitions {} to {} for {}", from, to, table);
+    }
+
+    /**
+     * @return cutoff 之前月份的分区名，升序
+     */
+    List<String> partitionsBefore(String table, YearMonth cutoff) {
+        return partitions(table).stream()
+                .filter(month -> month.isBefore(cutoff))
+                .map(LogPartitions::name)
+                .toList();
+    }
+
+    /**
+     * 删除分区及其中的数据，调用方需先完成归档
+     */
+    void dropPartition(String table, String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partition);
+        log.info("Dropped partition {} of {}", partition, table);
+    }
+}
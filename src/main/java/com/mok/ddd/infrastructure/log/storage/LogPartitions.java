@@ -0,0 +1,63 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 日志表按月分区的命名规则：p202601 存放 2026-01 的数据，p_max 兜底
+ */
+public final class LogPartitions {
+
+    public static final List<String> TABLES = List.of("sys_oper_log", "sys_login_log");
+
+    public static final String MAX_PARTITION = "p_max";
+
+    private static final String PREFIX = "p";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private LogPartitions() {
+    }
+
+    public static String name(YearMonth month) {
+        return PREFIX + month.format(NAME_FORMAT);
+    }
+
+    /**
+     * @return 分区对应的月份，不是按月分区时返回 null
+     */
+    public static YearMonth parse(String partitionName) {
+        if (partitionName == null || partitionName.length() != PREFIX.length() + 6 || !partitionName.startsWith(PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PREFIX.length()), NAME_FORMAT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 分区上界（不含）
+     */
+    public static LocalDate upperBound(YearMonth month) {
+        return month.plusMonths(1).atDay(1);
+    }
+
+    /**
+     * VALUES LESS THAN 定义，from 到 to（含）逐月一个分区
+     */
+    public static List<String> definitions(YearMonth from, YearMonth to) {
+        List<String> definitions = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            definitions.add("PARTITION " + name(month) + " VALUES LESS THAN ('" + upperBound(month) + "')");
+        }
+        return definitions;
+    }
+
+    public static String archiveTable(String table) {
+        return table + "_archive";
+    }
+}
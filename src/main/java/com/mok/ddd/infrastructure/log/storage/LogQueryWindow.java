@@ -0,0 +1,28 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.infrastructure.util.QuerydslUtils;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.DateTimePath;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日志列表的默认时间窗口
+ * <p>
+ * 查询条件里没有 create_time 时补上最近 N 天，使 MySQL 只扫描对应月份的分区；
+ * 起点取到当天零点，同一天内相同的查询生成相同的条件，计数缓存才能命中
+ */
+public final class LogQueryWindow {
+
+    private LogQueryWindow() {
+    }
+
+    public static Predicate apply(Predicate predicate, DateTimePath<LocalDateTime> createTime, int days) {
+        if (days <= 0 || QuerydslUtils.references(predicate, createTime)) {
+            return predicate;
+        }
+        return new BooleanBuilder().and(predicate).and(createTime.goe(LocalDate.now().minusDays(days).atStartOfDay()));
+    }
+}
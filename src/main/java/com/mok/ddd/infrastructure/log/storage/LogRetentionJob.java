@@ -0,0 +1,152 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 日志保留任务：分区表把过期月份的分区整体复制到 *_archive 表（或不归档）后 DROP PARTITION；
+ * 未分区的表分批移到 *_archive 表（或直接删除），每批一个事务，避免大事务和长时间锁表
+ * <p>
+ * 多节点通过 {@link LogMaintenanceLock} 保证同一时间只有一个节点执行
+ */
+@Slf4j
+@Component
+public class LogRetentionJob {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogMaintenanceLock maintenanceLock;
+    private final LogPartitionManager partitionManager;
+    private final LogStorageProperties properties;
+
+    public LogRetentionJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                           LogMaintenanceLock maintenanceLock, LogPartitionManager partitionManager,
+                           LogStorageProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maintenanceLock = maintenanceLock;
+        this.partitionManager = partitionManager;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${log.storage.retention-cron:0 30 3 * * *}")
+    public void run() {
+        if (!maintenanceLock.runExclusively(this::retain)) {
+            log.debug("Log retention is running on another node");
+        }
+    }
+
+    private void retain() {
+        if (properties.isPartitioned()) {
+            partitionManager.ensurePartitions();
+        }
+        if (properties.getRetentionMonths() <= 0) {
+            return;
+        }
+        YearMonth cutoff = YearMonth.now().minusMonths(properties.getRetentionMonths());
+        for (String table : LogPartitions.TABLES) {
+            try {
+                long moved = properties.isPartitioned() ? dropPartitions(table, cutoff)
+                        : purge(table, cutoff.atDay(1).atStartOfDay());
+                log.info("Log retention moved {} rows of {} older than {}", moved, table, cutoff);
+            } catch (Exception e) {
+                log.error("Log retention failed for {}", table, e);
+            }
+        }
+    }
+
+    /**
+     * 逐个处理 cutoff 之前月份的分区：归档时先 INSERT ... SELECT ... PARTITION 整体复制，再 DROP PARTITION，
+     * 不逐行删除；某个分区复制失败时不删除该分区
+     *
+     * @return 归档的行数
+     */
+    long dropPartitions(String table, YearMonth cutoff) {
+        List<String> expired = partitionManager.partitionsBefore(table, cutoff);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        String archive = LogPartitions.archiveTable(table);
+        if (properties.isArchive()) {
+            createArchiveTable(table, archive);
+        }
+        long total = 0;
+        for (String partition : expired) {
+            if (properties.isArchive()) {
+                total += jdbcTemplate.update("INSERT IGNORE INTO " + archive + " SELECT * FROM " + table
+                        + " PARTITION (" + partition + ")");
+            }
+            partitionManager.dropPartition(table, partition);
+        }
+        return total;
+    }
+
+    /**
+     * 分批移走 create_time 早于 before 的行，用于未分区的表
+     *
+     * @return 移走的行数
+     */
+    long purge(String table, LocalDateTime before) {
+        String archive = LogPartitions.archiveTable(table);
+        if (properties.isArchive()) {
+            createArchiveTable(table, archive);
+        }
+
+        long total = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM " + table
+                    + " WHERE create_time < ? ORDER BY create_time LIMIT ?", Long.class, before, properties.getChunkSize());
+            if (ids.isEmpty()) {
+                return total;
+            }
+
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+            Object[] args = ids.toArray();
+            transactionTemplate.executeWithoutResult(_ -> {
+                if (properties.isArchive()) {
+                    jdbcTemplate.update("INSERT IGNORE INTO " + archive + " SELECT * FROM " + table
+                            + " WHERE id IN (" + placeholders + ")", args);
+                }
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE id IN (" + placeholders + ")", args);
+            });
+            total += ids.size();
+
+            if (ids.size() < properties.getChunkSize()) {
+                return total;
+            }
+            if (!pause()) {
+                return total;
+            }
+        }
+    }
+
+    private void createArchiveTable(String table, String archive) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + archive + " LIKE " + table);
+        // LIKE 会复制分区定义，归档表不需要分区维护
+        if (!partitionManager.partitions(archive).isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        }
+    }
+
+    private boolean pause() {
+        if (properties.getChunkPauseMs() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.getChunkPauseMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
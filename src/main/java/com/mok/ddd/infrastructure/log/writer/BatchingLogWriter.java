@@ -0,0 +1,176 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+import com.mok.ddd.infrastructure.config.LogWriterProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 有界队列 + 独立写线程的批量写入器
+ * <p>
+ * 凑满 batchSize 或等待超过 flushIntervalMs 即写一批；队列满时调用方最多等待 offerTimeoutMs，仍满则按溢出策略处理。
+ * 关闭时停止接收排队并把剩余数据写完
+ */
+@Slf4j
+public class BatchingLogWriter<T> implements AutoCloseable {
+
+    public enum OverflowPolicy {
+        /**
+         * 丢弃并计数
+         */
+        DROP,
+        /**
+         * 由调用线程直接写入单条
+         */
+        CALLER_RUNS
+    }
+
+    private static final long DROP_WARN_INTERVAL = 1000;
+
+    private final String name;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMs;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Consumer<List<T>> flusher;
+    private final BlockingQueue<T> queue;
+    private final Thread drainer;
+
+    private volatile boolean running = true;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param flusher 写入一批数据，由写线程调用；抛出异常时该批计为失败
+     */
+    public BatchingLogWriter(String name, LogWriterProperties properties, Consumer<List<T>> flusher) {
+        this.name = name;
+        this.capacity = properties.getCapacity();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+        this.offerTimeoutMs = properties.getOfferTimeoutMs();
+        this.shutdownTimeoutMs = properties.getShutdownTimeoutMs();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.flusher = flusher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.drainer = Thread.ofPlatform().name("log-writer-" + name).daemon(true).start(this::drainLoop);
+    }
+
+    /**
+     * @return false 表示被丢弃
+     */
+    public boolean offer(T item) {
+        if (running) {
+            try {
+                if (queue.offer(item, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    enqueued.increment();
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (!running || overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            flush(List.of(item));
+            return true;
+        }
+        dropped.increment();
+        if (dropped.sum() % DROP_WARN_INTERVAL == 1) {
+            log.warn("Log writer [{}] queue is full, {} records dropped so far", name, dropped.sum());
+        }
+        return false;
+    }
+
+    public LogWriterStats getStats() {
+        return new LogWriterStats(name, queue.size(), capacity, enqueued.sum(), dropped.sum(), written.sum(),
+                failed.sum(), flushCount.sum(), flushNanos.sum(), maxFlushNanos.get());
+    }
+
+    @Override
+    public void close() {
+        // 不中断写线程，避免打断进行中的 JDBC 调用；写线程最迟 flushIntervalMs 后发现关闭
+        running = false;
+        try {
+            drainer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainer.isAlive()) {
+            log.warn("Log writer [{}] did not finish within {} ms, {} records left", name, shutdownTimeoutMs, queue.size());
+        } else {
+            log.info("Log writer [{}] stopped: {}", name, getStats());
+        }
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    T first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                fill(batch);
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch);
+        }
+    }
+
+    private void fill(List<T> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        long start = System.nanoTime();
+        try {
+            flusher.accept(batch);
+            written.add(batch.size());
+        } catch (Exception e) {
+            failed.add(batch.size());
+            log.error("Log writer [{}] failed to write {} records", name, batch.size(), e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushCount.increment();
+            flushNanos.add(elapsed);
+            maxFlushNanos.accumulate(elapsed);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+/**
+ * 批量日志写入器运行指标快照
+ *
+ * @param queueDepth      当前排队条数
+ * @param enqueued        累计入队
+ * @param dropped         队列满被丢弃
+ * @param written         写入成功
+ * @param failed          写入失败
+ * @param flushCount      批次数
+ * @param totalFlushNanos 批次写入累计耗时
+ * @param maxFlushNanos   单批次最大耗时
+ */
+public record LogWriterStats(String name, int queueDepth, int capacity, long enqueued, long dropped, long written,
+                             long failed, long flushCount, long totalFlushNanos, long maxFlushNanos) {
+
+    public double averageFlushMillis() {
+        return flushCount == 0 ? 0 : totalFlushNanos / 1_000_000.0 / flushCount;
+    }
+}
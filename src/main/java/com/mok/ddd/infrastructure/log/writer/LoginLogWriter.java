@@ -0,0 +1,107 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+import com.mok.ddd.domain.sys.model.LoginLog;
+import com.mok.ddd.infrastructure.config.LogWriterProperties;
+import com.mok.ddd.infrastructure.config.LoginLogProperties;
+import com.mok.ddd.infrastructure.util.SnowFlakeIdGenerator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登录日志批量写入 sys_login_log
+ * <p>
+ * 开启失败合并时，同一租户/用户/IP 的失败在窗口内只保留首条并累计次数，窗口结束后写入一条
+ */
+@Component
+public class LoginLogWriter implements DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO sys_login_log (id, tenant_id, username, ip_address, status, " +
+            "message, attempt_count, create_time, update_time, create_by, update_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LoginLogProperties properties;
+    private final BatchingLogWriter<Pending> writer;
+    private final Map<FailureKey, Pending> failures = new ConcurrentHashMap<>();
+    /**
+     * 只在开启失败合并时创建
+     */
+    private final ScheduledExecutorService sweeper;
+
+    public LoginLogWriter(JdbcTemplate jdbcTemplate, LogWriterProperties writerProperties, LoginLogProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.writer = new BatchingLogWriter<>("login-log", writerProperties, this::insert);
+        if (properties.isAggregateFailures()) {
+            this.sweeper = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("login-log-aggregator").daemon(true).factory());
+            long period = Math.max(1, properties.getAggregateWindowMs() / 2);
+            sweeper.scheduleAtFixedRate(() -> sweep(false), period, period, TimeUnit.MILLISECONDS);
+        } else {
+            this.sweeper = null;
+        }
+    }
+
+    public boolean write(LoginLog loginLog) {
+        return writer.offer(new Pending(loginLog, LocalDateTime.now(), 1));
+    }
+
+    public boolean writeFailure(LoginLog loginLog) {
+        if (!properties.isAggregateFailures() || failures.size() >= properties.getMaxAggregates()) {
+            return write(loginLog);
+        }
+        FailureKey key = new FailureKey(loginLog.getTenantId(), loginLog.getUsername(), loginLog.getIpAddress());
+        failures.merge(key, new Pending(loginLog, LocalDateTime.now(), 1),
+                (existing, _) -> new Pending(existing.loginLog(), existing.time(), existing.count() + 1));
+        return true;
+    }
+
+    public LogWriterStats getStats() {
+        return writer.getStats();
+    }
+
+    @Override
+    public void destroy() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        sweep(true);
+        writer.close();
+    }
+
+    /**
+     * 写出窗口已结束的合并记录
+     */
+    void sweep(boolean all) {
+        LocalDateTime deadline = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getAggregateWindowMs()));
+        failures.forEach((key, pending) -> {
+            if ((all || !pending.time().isAfter(deadline)) && failures.remove(key, pending)) {
+                writer.offer(pending);
+            }
+        });
+    }
+
+    private void insert(List<Pending> batch) {
+        List<Object[]> rows = batch.stream().map(pending -> {
+            LoginLog log = pending.loginLog();
+            return new Object[]{
+                    SnowFlakeIdGenerator.nextId(), log.getTenantId(), log.getUsername(), log.getIpAddress(), log.getStatus(),
+                    log.getMessage(), pending.count(), pending.time(), pending.time(), log.getUsername(), log.getUsername()
+            };
+        }).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private record Pending(LoginLog loginLog, LocalDateTime time, int count) {
+    }
+
+    private record FailureKey(String tenantId, String username, String ipAddress) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+import com.mok.ddd.domain.sys.model.OperLog;
+import com.mok.ddd.infrastructure.config.LogWriterProperties;
+import com.mok.ddd.infrastructure.util.SnowFlakeIdGenerator;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 操作日志批量写入 sys_oper_log，绕过 JPA 使用 JDBC batch
+ */
+@Component
+public class OperLogWriter implements DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO sys_oper_log (id, tenant_id, title, business_type, method, " +
+            "request_method, oper_name, oper_url, oper_ip, oper_param, json_result, status, error_msg, cost_time, " +
+            "create_time, update_time, create_by, update_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BatchingLogWriter<Pending> writer;
+
+    public OperLogWriter(JdbcTemplate jdbcTemplate, LogWriterProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writer = new BatchingLogWriter<>("oper-log", properties, this::insert);
+    }
+
+    public boolean write(OperLog operLog) {
+        return writer.offer(new Pending(operLog, LocalDateTime.now()));
+    }
+
+    public LogWriterStats getStats() {
+        return writer.getStats();
+    }
+
+    @Override
+    public void destroy() {
+        writer.close();
+    }
+
+    private void insert(List<Pending> batch) {
+        List<Object[]> rows = batch.stream().map(pending -> {
+            OperLog log = pending.operLog();
+            return new Object[]{
+                    SnowFlakeIdGenerator.nextId(), log.getTenantId(), log.getTitle(), log.getBusinessType(), log.getMethod(),
+                    log.getRequestMethod(), log.getOperName(), log.getOperUrl(), log.getOperIp(), log.getOperParam(),
+                    log.getJsonResult(), log.getStatus(), log.getErrorMsg(), log.getCostTime(),
+                    pending.time(), pending.time(), log.getCreateBy(), log.getUpdateBy()
+            };
+        }).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private record Pending(OperLog operLog, LocalDateTime time) {
+    }
+}
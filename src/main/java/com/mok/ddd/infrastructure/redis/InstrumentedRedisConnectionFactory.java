@@ -0,0 +1,187 @@
+package com.mok.ddd.infrastructure.redis;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 包装连接工厂，记录获取连接的耗时和每条命令的延迟
+ * <p>
+ * 连接和各 *Commands 接口以 JDK 代理包装；管道和事务排队期间的命令不单独计时，管道整体记为 PIPELINE。
+ * 订阅连接不经过这里，消息监听容器使用原始工厂
+ */
+public class InstrumentedRedisConnectionFactory implements RedisConnectionFactory {
+
+    static final String PIPELINE = "PIPELINE";
+
+    /**
+     * 连接上不计为命令的方法
+     */
+    private static final Set<String> UNTIMED = Set.of("close", "isClosed", "getNativeConnection", "isQueueing",
+            "isPipelined", "openPipeline", "getSentinelConnection", "isSubscribed", "getSubscription",
+            "subscribe", "pSubscribe");
+
+    private final RedisConnectionFactory delegate;
+    private final RedisMetrics metrics;
+
+    public InstrumentedRedisConnectionFactory(RedisConnectionFactory delegate, RedisMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public RedisConnection getConnection() {
+        return instrument(RedisConnection.class, acquire(false));
+    }
+
+    @Override
+    public RedisClusterConnection getClusterConnection() {
+        return instrument(RedisClusterConnection.class, (RedisClusterConnection) acquire(true));
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    public RedisConnectionFactory getDelegate() {
+        return delegate;
+    }
+
+    private RedisConnection acquire(boolean cluster) {
+        long start = System.nanoTime();
+        try {
+            RedisConnection connection = cluster ? delegate.getClusterConnection() : delegate.getConnection();
+            metrics.connectionAcquired(System.nanoTime() - start);
+            return connection;
+        } catch (RuntimeException e) {
+            metrics.connectionFailed(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private <T extends RedisConnection> T instrument(Class<T> type, T connection) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new ConnectionHandler(connection)));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static boolean isCommandsAccessor(Method method) {
+        return method.getParameterCount() == 0 && method.getReturnType().isInterface()
+                && (method.getName().endsWith("Commands") || method.getName().equals("commands"));
+    }
+
+    private static String commandName(Method method) {
+        return method.getName().toUpperCase(Locale.ROOT);
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final RedisConnection target;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        ConnectionHandler(RedisConnection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return handleObjectMethod(proxy, method, args);
+            }
+            String name = method.getName();
+            if (name.equals("close")) {
+                if (closed.compareAndSet(false, true)) {
+                    metrics.connectionClosed();
+                }
+                return InstrumentedRedisConnectionFactory.invoke(method, target, args);
+            }
+            if (UNTIMED.contains(name)) {
+                return InstrumentedRedisConnectionFactory.invoke(method, target, args);
+            }
+            if (isCommandsAccessor(method)) {
+                Object commands = InstrumentedRedisConnectionFactory.invoke(method, target, args);
+                return commands == null ? null : Proxy.newProxyInstance(method.getReturnType().getClassLoader(),
+                        new Class<?>[]{method.getReturnType()}, new CommandsHandler(this, commands));
+            }
+            if (name.equals("closePipeline")) {
+                return timed(PIPELINE, method, target, args);
+            }
+            return isBatching() ? InstrumentedRedisConnectionFactory.invoke(method, target, args)
+                    : timed(commandName(method), method, target, args);
+        }
+
+        private boolean isBatching() {
+            return target.isPipelined() || target.isQueueing();
+        }
+
+        private Object handleObjectMethod(Object proxy, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> "Instrumented[" + target + "]";
+                default -> InstrumentedRedisConnectionFactory.invoke(method, target, args);
+            };
+        }
+    }
+
+    private class CommandsHandler implements InvocationHandler {
+
+        private final ConnectionHandler connection;
+        private final Object target;
+
+        CommandsHandler(ConnectionHandler connection, Object target) {
+            this.connection = connection;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class || connection.isBatching()) {
+                return InstrumentedRedisConnectionFactory.invoke(method, target, args);
+            }
+            return timed(commandName(method), method, target, args);
+        }
+    }
+
+    private Object timed(String command, Method method, Object target, Object[] args) throws Throwable {
+        long start = System.nanoTime();
+        boolean error = false;
+        try {
+            return invoke(method, target, args);
+        } catch (Throwable e) {
+            error = true;
+            throw e;
+        } finally {
+            metrics.recordCommand(command, System.nanoTime() - start, error);
+        }
+    }
+}
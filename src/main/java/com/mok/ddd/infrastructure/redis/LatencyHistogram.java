@@ -0,0 +1,94 @@
+package com.mok.ddd.infrastructure.redis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定分桶的延迟直方图，记录无锁，分位数按桶上界估算
+ */
+public class LatencyHistogram {
+
+    /**
+     * 桶上界（微秒），最后一个桶无上界
+     */
+    private static final long[] BOUNDS_MICROS = {50, 100, 250, 500, 1000, 2500, 5000, 10000, 25000, 50000, 100000,
+            250000, 500000, 1000000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_MICROS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos, boolean error) {
+        long micros = nanos / 1000;
+        int index = 0;
+        while (index < BOUNDS_MICROS.length && micros > BOUNDS_MICROS[index]) {
+            index++;
+        }
+        buckets[index].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        long total = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        double maxMs = maxNanos.get() / 1e6;
+
+        Map<String, Long> distribution = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                distribution.put(i < BOUNDS_MICROS.length ? "<=" + BOUNDS_MICROS[i] + "us" : ">" + BOUNDS_MICROS[i - 1] + "us", counts[i]);
+            }
+        }
+        return new Snapshot(total, errors.sum(), total == 0 ? 0 : totalNanos.sum() / 1e6 / total,
+                percentile(counts, total, 0.50, maxMs), percentile(counts, total, 0.95, maxMs),
+                percentile(counts, total, 0.99, maxMs), maxMs, distribution);
+    }
+
+    /**
+     * 取累计数达到 q 的桶上界，不超过最大值
+     */
+    private static double percentile(long[] counts, long total, double q, double maxMs) {
+        if (total == 0) {
+            return 0;
+        }
+        long threshold = (long) Math.ceil(total * q);
+        long cumulative = 0;
+        for (int i = 0; i < BOUNDS_MICROS.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= threshold) {
+                return Math.min(BOUNDS_MICROS[i] / 1000.0, maxMs);
+            }
+        }
+        return maxMs;
+    }
+
+    /**
+     * @param buckets 桶上界 -> 次数，省略为 0 的桶
+     */
+    public record Snapshot(long count, long errors, double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs,
+                           Map<String, Long> buckets) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.mok.ddd.infrastructure.redis;
+
+import com.mok.ddd.infrastructure.config.RedisMetricsProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Redis 访问统计：按命令、按调用方的延迟直方图，获取连接的耗时（启用连接池时即等待时间），在用连接数和错误数
+ * <p>
+ * 在用连接数长期接近连接池上限且获取连接耗时上升时，说明连接池是瓶颈
+ */
+@Slf4j
+@Component
+public class RedisMetrics {
+
+    private static final String APP_PACKAGE = "com.mok.ddd.";
+    private static final String UNKNOWN = "unknown";
+    private static final String OTHER = "other";
+    private static final int TOP = 10;
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    /**
+     * 统计自身的类，查找调用方时跳过
+     */
+    private static final Set<String> INSTRUMENTATION = Set.of(RedisMetrics.class.getName(),
+            InstrumentedRedisConnectionFactory.class.getName());
+
+    private final RedisMetricsProperties properties;
+
+    private final Map<String, LatencyHistogram> commands = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> callers = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram acquire = new LatencyHistogram();
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final LongAccumulator peakConnections = new LongAccumulator(Long::max, 0);
+    private final LongAdder acquireFailures = new LongAdder();
+
+    public RedisMetrics(RedisMetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    public void recordCommand(String command, long nanos, boolean error) {
+        commands.computeIfAbsent(command, _ -> new LatencyHistogram()).record(nanos, error);
+        if (properties.isCallerTracking() && sampled()) {
+            callerHistogram(resolveCaller()).record(nanos, error);
+        }
+    }
+
+    void connectionAcquired(long nanos) {
+        acquire.record(nanos, false);
+        peakConnections.accumulate(openConnections.incrementAndGet());
+    }
+
+    void connectionFailed(long nanos) {
+        acquire.record(nanos, true);
+        acquireFailures.increment();
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    public RedisMetricsSnapshot snapshot() {
+        return new RedisMetricsSnapshot(openConnections.get(), peakConnections.get(), acquireFailures.sum(),
+                acquire.snapshot(), snapshot(commands), snapshot(callers));
+    }
+
+    /**
+     * 清空统计，在用连接数保留
+     */
+    public void reset() {
+        commands.clear();
+        callers.clear();
+        acquire = new LatencyHistogram();
+        acquireFailures.reset();
+        peakConnections.reset();
+        peakConnections.accumulate(openConnections.get());
+    }
+
+    @Scheduled(fixedDelayString = "${redis.metrics.log-interval-ms:60000}")
+    public void logSummary() {
+        if (!properties.isLogSummary() || commands.isEmpty()) {
+            return;
+        }
+        RedisMetricsSnapshot snapshot = snapshot();
+        log.info("Redis stats: open={} peak={} acquire(p99={}ms, max={}ms, failures={}), commands={}, callers={}",
+                snapshot.openConnections(), snapshot.peakConnections(), snapshot.acquire().p99Ms(),
+                snapshot.acquire().maxMs(), snapshot.acquireFailures(), summary(snapshot.commands()), summary(snapshot.callers()));
+    }
+
+    /**
+     * 按 caller-sample-rate 抽样，只有抽中的命令做栈遍历
+     */
+    private boolean sampled() {
+        int rate = properties.getCallerSampleRate();
+        return rate <= 1 || ThreadLocalRandom.current().nextInt(rate) == 0;
+    }
+
+    private LatencyHistogram callerHistogram(String caller) {
+        LatencyHistogram histogram = callers.get(caller);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (callers.size() >= properties.getMaxCallers()) {
+            caller = OTHER;
+        }
+        return callers.computeIfAbsent(caller, _ -> new LatencyHistogram());
+    }
+
+    /**
+     * 调用栈中最近的一个本应用的类
+     */
+    private static String resolveCaller() {
+        return STACK_WALKER.walk(frames -> frames
+                .map(frame -> outerClassName(frame.getClassName()))
+                .filter(name -> name.startsWith(APP_PACKAGE) && !INSTRUMENTATION.contains(name))
+                .findFirst()
+                .map(name -> name.substring(name.lastIndexOf('.') + 1))
+                .orElse(UNKNOWN));
+    }
+
+    /**
+     * 内部类、CGLIB 代理类取外层类名
+     */
+    private static String outerClassName(String className) {
+        int inner = className.indexOf('$');
+        return inner > 0 ? className.substring(0, inner) : className;
+    }
+
+    /**
+     * 按总耗时倒序
+     */
+    private static Map<String, LatencyHistogram.Snapshot> snapshot(Map<String, LatencyHistogram> histograms) {
+        return histograms.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().snapshot()))
+                .sorted(Comparator.comparingDouble((Map.Entry<String, LatencyHistogram.Snapshot> e) ->
+                        e.getValue().meanMs() * e.getValue().count()).reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, _) -> a, LinkedHashMap::new));
+    }
+
+    private static String summary(Map<String, LatencyHistogram.Snapshot> snapshots) {
+        return snapshots.entrySet().stream()
+                .limit(TOP)
+                .map(e -> e.getKey() + "(n=" + e.getValue().count() + ", p99=" + e.getValue().p99Ms() + "ms, err="
+                        + e.getValue().errors() + ")")
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,16 @@
+package com.mok.ddd.infrastructure.redis;
+
+import java.util.Map;
+
+/**
+ * @param openConnections 当前在用的连接数
+ * @param peakConnections 在用连接数峰值
+ * @param acquire         获取连接的耗时，启用连接池时即等待空闲连接的时间
+ * @param commands        命令 -> 延迟，按总耗时倒序
+ * @param callers         调用方 -> 延迟，按总耗时倒序
+ */
+public record RedisMetricsSnapshot(int openConnections, long peakConnections, long acquireFailures,
+                                   LatencyHistogram.Snapshot acquire,
+                                   Map<String, LatencyHistogram.Snapshot> commands,
+                                   Map<String, LatencyHistogram.Snapshot> callers) {
+}
@@ -0,0 +1,27 @@
+package com.mok.ddd.infrastructure.repository;
+
+/**
+ * 分页总数的计算方式
+ */
+public enum CountMode {
+
+    /**
+     * 每次执行 count(*)
+     */
+    EXACT,
+
+    /**
+     * 按表、租户和查询条件缓存 count(*) 结果，短时间内翻页不重复计数
+     */
+    CACHED,
+
+    /**
+     * 无过滤条件时取表统计信息中的行数，有条件时退化为 CACHED
+     */
+    ESTIMATED,
+
+    /**
+     * 不计数，多取一行判断是否有下一页，总数只保证大于当前页
+     */
+    HAS_NEXT
+}
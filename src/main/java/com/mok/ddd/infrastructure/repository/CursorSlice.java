@@ -0,0 +1,13 @@
+package com.mok.ddd.infrastructure.repository;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ *
+ * @param content    当前页数据
+ * @param nextCursor 下一页游标，没有下一页时为 null
+ * @param hasNext    是否还有下一页
+ */
+public record CursorSlice<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
@@ -1,17 +1,15 @@
 package com.mok.ddd.infrastructure.repository;
 
-import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.mok.ddd.infrastructure.tenant.TenantIsolation;
 import jakarta.annotation.Nonnull;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
-import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Session;
 import org.springframework.orm.jpa.JpaTransactionManager;
 
 /**
  * 不要加@Component 会自动成为一个Bean导致 TransactionManager Bean重复
  */
-@Slf4j
 public class CustomJpaTransactionManager extends JpaTransactionManager {
 
     public CustomJpaTransactionManager(EntityManagerFactory emf) {
@@ -22,11 +20,8 @@ public class CustomJpaTransactionManager extends JpaTransactionManager {
     @Nonnull
     protected EntityManager createEntityManagerForTransaction() {
         EntityManager em = super.createEntityManagerForTransaction();
-
-        String tenantId = TenantContextHolder.getTenantId();
-        log.debug("注入tenantId查询条件 {}", tenantId);
-        em.unwrap(Session.class).enableFilter("tenantFilter")
-                .setParameter("tenantId", tenantId);
+        // 会话创建时按当前租户策略配置一次 tenantFilter
+        TenantIsolation.configure(em.unwrap(Session.class));
         return em;
     }
 
@@ -17,6 +17,7 @@ import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.query.FluentQuery;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -40,6 +41,13 @@ public interface CustomRepository<T extends BaseEntity, ID> extends JpaRepositor
 
     Page<T> findAll(Predicate predicate, Pageable pageable);
 
+    /**
+     * 游标分页，见 {@link KeysetPaging}
+     *
+     * @param cursor 上一页返回的游标，为空时取第一页
+     */
+    CursorSlice<T> findSlice(Predicate predicate, List<SortKey> sortKeys, String cursor, int size);
+
     long count(Predicate predicate);
 
     boolean exists(Predicate predicate);
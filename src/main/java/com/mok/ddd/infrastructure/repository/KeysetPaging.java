@@ -0,0 +1,132 @@
+package com.mok.ddd.infrastructure.repository;
+
+import com.mok.ddd.application.exception.BizException;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.*;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 游标（seek）分页
+ * <p>
+ * 按排序键取上一页最后一行之后的数据：WHERE k1 <= ? AND (k1 < ? OR (k1 = ? AND k2 < ?))，
+ * 配合 (k1, k2) 上的索引直接定位，不再像 OFFSET 那样扫描并丢弃前面的行
+ * <p>
+ * 游标是最后一行各排序键的值，逐个 Base64 编码后以 "." 连接，对调用方不透明
+ */
+public final class KeysetPaging {
+
+    public static final int MAX_SIZE = 500;
+
+    private static final String SEPARATOR = ".";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * 在 query 上追加游标条件、排序和 limit(size + 1) 并执行
+     *
+     * @param cursor 上一页返回的游标，为空时取第一页
+     */
+    public static <U> CursorSlice<U> fetch(JPAQuery<U> query, List<SortKey> sortKeys, String cursor, int size) {
+        if (sortKeys.isEmpty()) {
+            throw new IllegalArgumentException("Keyset pagination requires at least one sort key");
+        }
+        int limit = Math.clamp(size, 1, MAX_SIZE);
+        if (cursor != null && !cursor.isBlank()) {
+            query.where(seek(sortKeys, decode(sortKeys, cursor)));
+        }
+        query.orderBy(orderBy(sortKeys)).limit(limit + 1L);
+
+        List<U> rows = query.fetch();
+        boolean hasNext = rows.size() > limit;
+        List<U> content = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? encode(sortKeys, content.getLast()) : null;
+        return new CursorSlice<>(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static OrderSpecifier<?>[] orderBy(List<SortKey> sortKeys) {
+        return sortKeys.stream()
+                .map(key -> new OrderSpecifier(key.order(), key.path()))
+                .toArray(OrderSpecifier[]::new);
+    }
+
+    /**
+     * 展开的行值比较 (k1, k2, ...) > (v1, v2, ...)，每个键按自身方向比较
+     */
+    static Predicate seek(List<SortKey> sortKeys, List<Object> values) {
+        BooleanBuilder after = new BooleanBuilder();
+        for (int i = 0; i < sortKeys.size(); i++) {
+            BooleanBuilder branch = new BooleanBuilder();
+            for (int j = 0; j < i; j++) {
+                branch.and(Expressions.booleanOperation(Ops.EQ, sortKeys.get(j).path(), ConstantImpl.create(values.get(j))));
+            }
+            SortKey key = sortKeys.get(i);
+            branch.and(Expressions.booleanOperation(key.order() == Order.DESC ? Ops.LT : Ops.GT,
+                    key.path(), ConstantImpl.create(values.get(i))));
+            after.or(branch);
+        }
+
+        // 首个键的闭区间条件让优化器直接走范围扫描
+        SortKey first = sortKeys.getFirst();
+        return new BooleanBuilder(Expressions.booleanOperation(first.order() == Order.DESC ? Ops.LOE : Ops.GOE,
+                first.path(), ConstantImpl.create(values.getFirst()))).and(after);
+    }
+
+    static String encode(List<SortKey> sortKeys, Object row) {
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<String> parts = new ArrayList<>(sortKeys.size());
+        for (SortKey key : sortKeys) {
+            Object value = wrapper.getPropertyValue(key.property());
+            if (value == null) {
+                throw new IllegalStateException("Sort key " + key.property() + " must not be null");
+            }
+            parts.add(ENCODER.encodeToString(value.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        return String.join(SEPARATOR, parts);
+    }
+
+    static List<Object> decode(List<SortKey> sortKeys, String cursor) {
+        String[] parts = cursor.split("\\" + SEPARATOR, -1);
+        if (parts.length != sortKeys.size()) {
+            throw new BizException("无效的分页游标");
+        }
+        List<Object> values = new ArrayList<>(parts.length);
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                String text = new String(DECODER.decode(parts[i]), StandardCharsets.UTF_8);
+                values.add(convert(text, sortKeys.get(i).path().getType()));
+            }
+        } catch (RuntimeException e) {
+            throw new BizException("无效的分页游标");
+        }
+        return values;
+    }
+
+    private static Object convert(String text, Class<?> type) {
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.parse(text);
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.parse(text);
+        }
+        if (type == Instant.class) {
+            return Instant.parse(text);
+        }
+        return DefaultConversionService.getSharedInstance().convert(text, type);
+    }
+}
@@ -0,0 +1,137 @@
+package com.mok.ddd.infrastructure.repository;
+
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import com.mok.ddd.infrastructure.config.PageCountProperties;
+import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.mok.ddd.infrastructure.tenant.TenantIsolation;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 分页查询：取当前页数据，并按 {@link CountMode} 计算总数
+ * <p>
+ * 各列表以名称区分，通过 page.count.modes.&lt;listing&gt; 单独配置计数方式
+ */
+@Slf4j
+@Component
+public class PageFetcher {
+
+    private static final String STATS_KEY = "stats";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PageCountProperties properties;
+    private final LocalCache<String, Long> counts;
+
+    public PageFetcher(JdbcTemplate jdbcTemplate, PageCountProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.counts = new LocalCache<>(properties.getCacheMaxEntries(), Duration.ofMillis(properties.getCacheTtlMs()));
+    }
+
+    /**
+     * 计数来源
+     *
+     * @param table     物理表名，用于统计信息和缓存键
+     * @param predicate 查询条件，用于缓存键和判断能否使用统计信息
+     * @param exact     精确计数，需与数据查询使用相同的条件和租户过滤
+     */
+    public record CountSource(String table, Predicate predicate, LongSupplier exact) {
+    }
+
+    public <U> Page<U> fetch(String listing, JPAQuery<U> query, Querydsl querydsl, Pageable pageable, CountSource count) {
+        return fetch(query, querydsl, pageable, modeOf(listing), count);
+    }
+
+    public <U> Page<U> fetch(JPAQuery<U> query, Querydsl querydsl, Pageable pageable, CountMode mode, CountSource count) {
+        JPQLQuery<U> paginated = querydsl.applyPagination(pageable, query);
+
+        if (mode == CountMode.HAS_NEXT && pageable.isPaged()) {
+            int size = pageable.getPageSize();
+            List<U> rows = paginated.limit(size + 1L).fetch();
+            boolean hasNext = rows.size() > size;
+            List<U> content = hasNext ? rows.subList(0, size) : rows;
+            return new PageImpl<>(content, pageable, pageable.getOffset() + content.size() + (hasNext ? 1 : 0));
+        }
+
+        List<U> content = paginated.fetch();
+        long total = switch (mode) {
+            case CACHED -> cachedCount(count);
+            case ESTIMATED -> estimatedCount(count);
+            default -> count.exact().getAsLong();
+        };
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    public CountMode modeOf(String listing) {
+        return properties.getModes().getOrDefault(listing, CountMode.EXACT);
+    }
+
+    private long cachedCount(CountSource count) {
+        String key = cacheKey(count.table(), String.valueOf(count.predicate()));
+        Long cached = counts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long total = count.exact().getAsLong();
+        counts.put(key, total);
+        return total;
+    }
+
+    /**
+     * 只有在没有查询条件且不做租户过滤时，表统计信息的行数才对应列表总数
+     */
+    private long estimatedCount(CountSource count) {
+        if (!isEmpty(count.predicate()) || isTenantFiltered()) {
+            return cachedCount(count);
+        }
+        Long rows = tableRows(count.table());
+        if (rows == null || rows < properties.getEstimateExactBelow()) {
+            return count.exact().getAsLong();
+        }
+        return rows;
+    }
+
+    private Long tableRows(String table) {
+        String key = STATS_KEY + ":" + table;
+        Long cached = counts.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            Long rows = jdbcTemplate.queryForObject("SELECT TABLE_ROWS FROM information_schema.TABLES " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+            counts.put(key, rows);
+            return rows;
+        } catch (DataAccessException e) {
+            log.warn("Failed to read table statistics of {}, falling back to exact count", table, e);
+            return null;
+        }
+    }
+
+    private String cacheKey(String table, String predicate) {
+        String scope = TenantContextHolder.isSuperAdmin() ? "*" : String.valueOf(TenantContextHolder.getTenantId());
+        return table + ":" + scope + ":" + predicate;
+    }
+
+    private static boolean isEmpty(Predicate predicate) {
+        return predicate == null || (predicate instanceof BooleanBuilder builder && !builder.hasValue());
+    }
+
+    private static boolean isTenantFiltered() {
+        return TenantIsolation.currentFilterTenant() != null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.mok.ddd.infrastructure.repository;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.Path;
+
+/**
+ * 游标分页的排序键，多个键组合后必须唯一（最后一个键通常是 id），且值不能为 null
+ *
+ * @param path  实体或 DTO 上的直接属性
+ * @param order 排序方向
+ */
+public record SortKey(Path<? extends Comparable<?>> path, Order order) {
+
+    public static SortKey asc(Path<? extends Comparable<?>> path) {
+        return new SortKey(path, Order.ASC);
+    }
+
+    public static SortKey desc(Path<? extends Comparable<?>> path) {
+        return new SortKey(path, Order.DESC);
+    }
+
+    public String property() {
+        return path.getMetadata().getName();
+    }
+}
@@ -1,12 +1,13 @@
 package com.mok.ddd.infrastructure.repository.impl;
 
-import com.mok.ddd.common.Const;
 import com.mok.ddd.domain.common.model.BaseEntity;
 import com.mok.ddd.domain.common.model.TenantBaseEntity;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
 import com.mok.ddd.infrastructure.repository.CustomRepository;
-import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.mok.ddd.infrastructure.repository.KeysetPaging;
+import com.mok.ddd.infrastructure.repository.SortKey;
+import com.mok.ddd.infrastructure.tenant.TenantIsolation;
 import com.querydsl.core.types.*;
-import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.Expressions;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.core.types.dsl.StringPath;
@@ -14,7 +15,6 @@ import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -25,49 +25,52 @@ import org.springframework.data.repository.query.FluentQuery;
 import org.springframework.data.support.PageableExecutionUtils;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
-@Slf4j
 @SuppressWarnings({"NullableProblems"})
 public class CustomRepositoryImpl<T extends BaseEntity, ID extends Serializable> extends SimpleJpaRepository<T, ID> implements CustomRepository<T, ID> {
 
+    private final EntityManager entityManager;
     private final JPAQueryFactory dslQueryFactory;
     private final Querydsl querydsl;
     private final PathBuilder<T> pathBuilder;
 
+    /**
+     * 实体的 tenantId 路径，非租户实体为 null；构造时解析一次
+     */
+    private final StringPath tenantPath;
+
+    /**
+     * applyTenantFilter 传入的关联实体 -> tenantId 路径，非租户实体映射为 NO_TENANT_PATH
+     */
+    private final ConcurrentHashMap<EntityPath<?>, StringPath> joinedTenantPaths = new ConcurrentHashMap<>();
+
     protected final static String TENANT_VARIABLE = "tenantId";
 
+    private static final StringPath NO_TENANT_PATH = Expressions.stringPath("__no_tenant__");
+
     public CustomRepositoryImpl(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
         super(entityInformation, entityManager);
+        this.entityManager = entityManager;
         this.dslQueryFactory = new JPAQueryFactory(entityManager);
         this.pathBuilder = new PathBuilder<>(entityInformation.getJavaType(), entityInformation.getEntityName());
         this.querydsl = new Querydsl(entityManager, pathBuilder);
+        this.tenantPath = TenantBaseEntity.class.isAssignableFrom(entityInformation.getJavaType())
+                ? pathBuilder.getString(TENANT_VARIABLE) : null;
     }
 
     // --- 核心 QueryDSL 构建和多租户过滤 ---
     protected <U extends T> JPAQuery<U> createQuery(EntityPath<U> entityPath, Predicate... predicates) {
         JPAQuery<U> query = dslQueryFactory.selectFrom(entityPath);
 
-        if (TenantBaseEntity.class.isAssignableFrom(getDomainClass())) {
-            try {
-                StringPath tenantPath = pathBuilder.getString(TENANT_VARIABLE);
-                String currentTenantId = TenantContextHolder.getTenantId();
-                BooleanExpression tenantFilter;
-
-                if (currentTenantId == null
-                        || currentTenantId.isEmpty()
-                        || Const.DEFAULT_TENANT_ID.equals(currentTenantId.trim())
-                        || TenantContextHolder.isSuperAdmin()) {
-
-                    tenantFilter = Expressions.TRUE.isTrue();
-                } else {
-                    tenantFilter = tenantPath.eq(currentTenantId);
-                }
-
-                query.where(tenantFilter);
-            } catch (Exception e) {
-                log.error("Error applying tenant filter using QueryDSL Path API", e);
+        // 是否过滤由当前租户策略决定，事务会话的 tenantFilter 已生效时不再重复追加条件
+        if (tenantPath != null) {
+            String tenantId = filterTenant();
+            if (tenantId != null) {
+                query.where(tenantPath.eq(tenantId));
             }
         }
 
@@ -79,24 +82,33 @@ public class CustomRepositoryImpl<T extends BaseEntity, ID extends Serializable>
 
     @Override
     public <U> JPAQuery<U> applyTenantFilter(JPAQuery<U> query, EntityPath<?>... paths) {
-        if (TenantContextHolder.isSuperAdmin()) {
-            return query;
-        }
-
-        String currentTenantId = TenantContextHolder.getTenantId();
-        if (currentTenantId == null || currentTenantId.isEmpty()) {
+        String currentTenantId = filterTenant();
+        if (currentTenantId == null) {
             return query;
         }
 
         for (EntityPath<?> path : paths) {
-            if (TenantBaseEntity.class.isAssignableFrom(path.getType())) {
-                StringPath tp = Expressions.stringPath(path, "tenantId");
+            StringPath tp = joinedTenantPaths.computeIfAbsent(path, CustomRepositoryImpl::resolveTenantPath);
+            if (tp != NO_TENANT_PATH) {
                 query.where(tp.eq(currentTenantId));
             }
         }
         return query;
     }
 
+    /**
+     * @return 需要以 QueryDSL 条件过滤的租户，不需要过滤或会话过滤器已生效时为 null
+     */
+    private String filterTenant() {
+        String tenantId = TenantIsolation.currentFilterTenant();
+        return tenantId == null || TenantIsolation.isApplied(entityManager, tenantId) ? null : tenantId;
+    }
+
+    private static StringPath resolveTenantPath(EntityPath<?> path) {
+        return TenantBaseEntity.class.isAssignableFrom(path.getType())
+                ? Expressions.stringPath(path, TENANT_VARIABLE) : NO_TENANT_PATH;
+    }
+
     @Override
     public JPAQueryFactory getJPAQueryFactory() {
         return dslQueryFactory;
@@ -150,6 +162,11 @@ public class CustomRepositoryImpl<T extends BaseEntity, ID extends Serializable>
         });
     }
 
+    @Override
+    public CursorSlice<T> findSlice(Predicate predicate, List<SortKey> sortKeys, String cursor, int size) {
+        return KeysetPaging.fetch(createQuery(pathBuilder, predicate), sortKeys, cursor, size);
+    }
+
     @Override
     public long count(Predicate predicate) {
         JPAQuery<Long> countQuery = createQuery(pathBuilder, predicate).select(pathBuilder.count());
@@ -0,0 +1,148 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.infrastructure.config.StatelessTokenProperties;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * 无状态访问令牌：HS256 签名的 JWT，携带租户、用户、角色和所属会话，校验时不访问 Redis
+ * <p>
+ * 只接受本类签发的固定头部，拒绝其他算法；会话被撤销后由 {@link TokenRevocationList} 拦截
+ */
+@Component
+public class AccessTokenCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * 不使用全局 JsonMapper：其 Long 序列化为字符串，而 JWT 的时间字段须为数字
+     */
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+    private final StatelessTokenProperties properties;
+
+    /**
+     * 已初始化密钥的 Mac，签名时克隆使用；未启用时为 null
+     */
+    private final Mac prototype;
+
+    /**
+     * 访问令牌载荷，时间为秒
+     *
+     * @param sid 所属会话，即刷新令牌
+     * @param sub 用户名
+     * @param tid 租户
+     * @param uid 用户 id
+     * @param rol 角色 id
+     * @param adm 是否超级管理员
+     */
+    public record AccessClaims(String sid, String sub, String tid, Long uid, Set<Long> rol, boolean adm, long iat, long exp) {
+
+        public CustomUserDetail toPrincipal() {
+            return new CustomUserDetail(uid, sub, null, tid, rol != null ? rol : Set.of(), adm);
+        }
+    }
+
+    public AccessTokenCodec(StatelessTokenProperties properties) {
+        this.properties = properties;
+        this.prototype = properties.isEnabled() ? newMac(properties.getSecret()) : null;
+    }
+
+    public boolean isEnabled() {
+        return prototype != null;
+    }
+
+    /**
+     * 不透明的会话 token 不含 '.'
+     */
+    public static boolean isSigned(String token) {
+        return token.indexOf('.') > 0;
+    }
+
+    public String issue(String sessionId, CustomUserDetail principal) {
+        long now = System.currentTimeMillis() / 1000;
+        AccessClaims claims = new AccessClaims(sessionId, principal.getUsername(), principal.getTenantId(), principal.getUserId(),
+                principal.getRoleIds(), principal.isSuperAdmin(), now, now + properties.getAccessTtlMs() / 1000);
+        String signingInput = HEADER + "." + ENCODER.encodeToString(JSON_MAPPER.writeValueAsBytes(claims));
+        return signingInput + "." + ENCODER.encodeToString(sign(signingInput));
+    }
+
+    /**
+     * @return 签名有效且未过期时的载荷，否则为 null
+     */
+    public AccessClaims verify(String token) {
+        AccessClaims claims = decode(token);
+        return claims != null && claims.exp() * 1000 > System.currentTimeMillis() ? claims : null;
+    }
+
+    /**
+     * 签名有效时返回所属会话，不检查过期，用于退出登录时撤销会话
+     */
+    public String sessionId(String token) {
+        AccessClaims claims = decode(token);
+        return claims != null ? claims.sid() : null;
+    }
+
+    public long getAccessTtlMs() {
+        return properties.getAccessTtlMs();
+    }
+
+    private AccessClaims decode(String token) {
+        if (prototype == null) {
+            return null;
+        }
+        int payloadStart = token.indexOf('.');
+        int signatureStart = token.lastIndexOf('.');
+        if (payloadStart <= 0 || signatureStart == payloadStart || !HEADER.equals(token.substring(0, payloadStart))) {
+            return null;
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(sign(token.substring(0, signatureStart)), signature)) {
+                return null;
+            }
+            AccessClaims claims = JSON_MAPPER.readValue(DECODER.decode(token.substring(payloadStart + 1, signatureStart)), AccessClaims.class);
+            return claims.sid() != null ? claims : null;
+        } catch (IllegalArgumentException | JacksonException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac(properties.getSecret());
+        }
+        return mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newMac(String secret) {
+        byte[] key = secret != null ? secret.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("auth.stateless.secret must be at least " + MIN_SECRET_BYTES + " bytes");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize access token signing key", e);
+        }
+    }
+}
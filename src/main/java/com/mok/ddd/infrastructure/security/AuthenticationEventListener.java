@@ -1,8 +1,8 @@
 package com.mok.ddd.infrastructure.security;
 
-import com.mok.ddd.application.sys.service.LoginLogService;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.LoginLog;
+import com.mok.ddd.infrastructure.log.writer.LoginLogWriter;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +19,7 @@ import org.springframework.web.context.request.ServletRequestAttributes;
 @RequiredArgsConstructor
 public class AuthenticationEventListener {
 
-    private final LoginLogService loginLogService;
+    private final LoginLogWriter loginLogWriter;
 
     @EventListener
     public void onSuccess(AuthenticationSuccessEvent success) {
@@ -30,7 +30,7 @@ public class AuthenticationEventListener {
 
         LoginLog loginLog = LoginLog.create(username, ipAddress, "SUCCESS", "Login successful");
         loginLog.assignTenant(tenantId);
-        loginLogService.createLoginLog(loginLog);
+        loginLogWriter.write(loginLog);
     }
 
     @EventListener
@@ -47,7 +47,7 @@ public class AuthenticationEventListener {
 
         LoginLog loginLog = LoginLog.create(username, ipAddress, "FAILURE", message);
         loginLog.assignTenant(tenantId);
-        loginLogService.createLoginLog(loginLog);
+        loginLogWriter.writeFailure(loginLog);
     }
 
     private String getIpAddress() {
@@ -0,0 +1,142 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.service.PermissionService;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 按角色组合缓存已构建好的权限列表，同一组角色的请求共享同一个不可变列表
+ * <p>
+ * 授权、删除权限/菜单后按角色失效，并通过 Redis pub/sub 通知其他节点；消息丢失时最迟 ttl 后失效
+ */
+@Slf4j
+@Component
+public class AuthorityCache {
+
+    private static final int MAX_SIZE = 1024;
+    private static final Duration TTL = Duration.ofMinutes(30);
+    private static final List<Long> SUPER_ADMIN_KEY = List.of(Const.SUPER_ADMIN_ROLE_ID);
+
+    private final PermissionService permissionService;
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCache<List<Long>, List<SimpleGrantedAuthority>> cache = new LocalCache<>(MAX_SIZE, TTL);
+
+    /**
+     * 权限码 -> 共享的 authority 实例
+     */
+    private final Map<String, SimpleGrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    /**
+     * 每次失效递增，加载期间发生过失效则不回写，避免旧数据覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthorityCache(PermissionService permissionService, StringRedisTemplate redisTemplate,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.permissionService = permissionService;
+        this.redisTemplate = redisTemplate;
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.AUTHORITY_EVICT));
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities(Set<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> key = fingerprint(roleIds);
+        List<SimpleGrantedAuthority> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long gen = generation.get();
+        List<SimpleGrantedAuthority> loaded = load(key);
+        if (generation.get() == gen) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        Set<Long> roleIds = new HashSet<>(event.getRoleIds());
+        if (event.isAllPermissionsChanged()) {
+            roleIds.add(Const.SUPER_ADMIN_ROLE_ID);
+        }
+        if (roleIds.isEmpty()) {
+            return;
+        }
+        evictLocal(roleIds);
+
+        String message = roleIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(Const.Channel.AUTHORITY_EVICT, message);
+        } catch (Exception e) {
+            log.warn("Failed to publish authority eviction for roles {}, falling back to local ttl", message, e);
+        }
+    }
+
+    private void evictLocal(String message) {
+        Set<Long> roleIds = new HashSet<>();
+        try {
+            for (String id : message.split(",")) {
+                roleIds.add(Long.valueOf(id.trim()));
+            }
+        } catch (NumberFormatException e) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+            return;
+        }
+        evictLocal(roleIds);
+    }
+
+    private void evictLocal(Set<Long> roleIds) {
+        generation.incrementAndGet();
+        cache.invalidateIf(key -> key.stream().anyMatch(roleIds::contains));
+    }
+
+    private List<SimpleGrantedAuthority> load(List<Long> key) {
+        if (SUPER_ADMIN_KEY.equals(key)) {
+            Set<String> codes = permissionService.getAllPermissionCodes();
+            List<SimpleGrantedAuthority> result = new ArrayList<>(codes.size() + 1);
+            result.add(intern(Const.SUPER_ADMIN_ROLE_CODE));
+            codes.stream().sorted().map(this::intern).forEach(result::add);
+            return List.copyOf(result);
+        }
+        return permissionService.getPermissionsByRoleIds(new HashSet<>(key)).stream()
+                .sorted()
+                .map(this::intern)
+                .toList();
+    }
+
+    private SimpleGrantedAuthority intern(String code) {
+        return authorities.computeIfAbsent(code, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * 角色集合的规范化表示：排序后的 id 列表；包含超管虚拟角色时统一为超管
+     */
+    private static List<Long> fingerprint(Set<Long> roleIds) {
+        if (roleIds.contains(Const.SUPER_ADMIN_ROLE_ID)) {
+            return SUPER_ADMIN_KEY;
+        }
+        return roleIds.stream().filter(Objects::nonNull).sorted().toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.mok.ddd.infrastructure.security;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 紧凑二进制格式
+ * <pre>
+ * magic(1) version(1) tenantId username token ip browser loginTime(8) flags(1) [userId(8)] [roleCount(4) roleIds(8*n)]
+ * </pre>
+ * 字符串为 u16 长度前缀 + UTF-8，0xFFFF 表示 null。tenantId、username 固定在最前，续期脚本按偏移读取。
+ * principal 的 username/tenantId 与会话相同不重复存储，密码哈希不写入。
+ */
+public class BinarySessionCodec implements SessionCodec {
+
+    static final byte MAGIC = (byte) 0xD5;
+    static final byte VERSION = 1;
+
+    private static final int NULL_LENGTH = 0xFFFF;
+    private static final int FLAG_PRINCIPAL = 1;
+    private static final int FLAG_SUPER_ADMIN = 1 << 1;
+    private static final int FLAG_USER_ID = 1 << 2;
+    private static final int FLAG_ROLE_IDS = 1 << 3;
+
+    @Override
+    public byte[] encode(TokenSessionDTO session) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(MAGIC);
+            out.writeByte(VERSION);
+            writeString(out, session.getTenantId());
+            writeString(out, session.getUsername());
+            writeString(out, session.getToken());
+            writeString(out, session.getIp());
+            writeString(out, session.getBrowser());
+            out.writeLong(session.getLoginTime());
+
+            CustomUserDetail principal = session.getPrincipal();
+            int flags = 0;
+            if (principal != null) {
+                flags |= FLAG_PRINCIPAL;
+                if (principal.isSuperAdmin()) {
+                    flags |= FLAG_SUPER_ADMIN;
+                }
+                if (principal.getUserId() != null) {
+                    flags |= FLAG_USER_ID;
+                }
+                if (principal.getRoleIds() != null) {
+                    flags |= FLAG_ROLE_IDS;
+                }
+            }
+            out.writeByte(flags);
+            if ((flags & FLAG_USER_ID) != 0) {
+                out.writeLong(principal.getUserId());
+            }
+            if ((flags & FLAG_ROLE_IDS) != 0) {
+                out.writeInt(principal.getRoleIds().size());
+                for (Long roleId : principal.getRoleIds()) {
+                    out.writeLong(roleId);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public TokenSessionDTO decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary session");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported session version: " + version);
+            }
+            String tenantId = readString(in);
+            String username = readString(in);
+            String token = readString(in);
+            String ip = readString(in);
+            String browser = readString(in);
+            long loginTime = in.readLong();
+
+            int flags = in.readUnsignedByte();
+            CustomUserDetail principal = null;
+            if ((flags & FLAG_PRINCIPAL) != 0) {
+                Long userId = (flags & FLAG_USER_ID) != 0 ? in.readLong() : null;
+                Set<Long> roleIds = null;
+                if ((flags & FLAG_ROLE_IDS) != 0) {
+                    int count = in.readInt();
+                    roleIds = HashSet.newHashSet(count);
+                    for (int i = 0; i < count; i++) {
+                        roleIds.add(in.readLong());
+                    }
+                }
+                principal = new CustomUserDetail(userId, username, null, tenantId, roleIds, (flags & FLAG_SUPER_ADMIN) != 0);
+            }
+
+            TokenSessionDTO session = new TokenSessionDTO(username, tenantId, principal, ip, browser, loginTime);
+            session.setToken(token);
+            return session;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean supports(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_LENGTH) {
+            throw new IllegalArgumentException("Session field too long: " + bytes.length);
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readUnsignedShort();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.mok.ddd.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+/**
+ * 按 auth.session-codec 选择写入格式，读取时按首字节识别，切换格式后旧会话仍可正常读取
+ */
+@Component
+public class DelegatingSessionCodec implements SessionCodec {
+
+    private final SessionCodec writer;
+    private final List<SessionCodec> readers;
+
+    public DelegatingSessionCodec(JsonMapper jsonMapper, @Value("${auth.session-codec:json}") String codec) {
+        SessionCodec json = new JsonSessionCodec(jsonMapper);
+        SessionCodec binary = new BinarySessionCodec();
+        this.writer = "binary".equalsIgnoreCase(codec) ? binary : json;
+        this.readers = List.of(binary, json);
+    }
+
+    @Override
+    public byte[] encode(TokenSessionDTO session) {
+        return writer.encode(session);
+    }
+
+    @Override
+    public TokenSessionDTO decode(byte[] data) {
+        for (SessionCodec reader : readers) {
+            if (reader.supports(data)) {
+                return reader.decode(data);
+            }
+        }
+        throw new IllegalArgumentException("Unknown session format");
+    }
+
+    @Override
+    public boolean supports(byte[] data) {
+        return readers.stream().anyMatch(reader -> reader.supports(data));
+    }
+}
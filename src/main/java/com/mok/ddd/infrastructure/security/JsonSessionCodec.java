@@ -0,0 +1,30 @@
+package com.mok.ddd.infrastructure.security;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * 原有 JSON 格式
+ */
+public class JsonSessionCodec implements SessionCodec {
+
+    private final JsonMapper jsonMapper;
+
+    public JsonSessionCodec(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+    }
+
+    @Override
+    public byte[] encode(TokenSessionDTO session) {
+        return jsonMapper.writeValueAsBytes(session);
+    }
+
+    @Override
+    public TokenSessionDTO decode(byte[] data) {
+        return jsonMapper.readValue(data, TokenSessionDTO.class);
+    }
+
+    @Override
+    public boolean supports(byte[] data) {
+        return data != null && data.length > 0 && data[0] == '{';
+    }
+}
@@ -1,9 +1,7 @@
 package com.mok.ddd.infrastructure.security;
 
 import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
-import com.mok.ddd.application.sys.service.PermissionService;
 import com.mok.ddd.application.sys.service.TenantCacheService;
-import com.mok.ddd.common.Const;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
@@ -20,19 +18,25 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.*;
+import java.util.List;
+import java.util.Objects;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final PermissionService permissionService;
+    private final AuthorityCache authorityCache;
     private final TenantCacheService tenantService;
+    private final AccessTokenCodec accessTokenCodec;
+    private final TokenRevocationList revocationList;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, PermissionService permissionService, TenantCacheService tenantService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, AuthorityCache authorityCache, TenantCacheService tenantService,
+                                   AccessTokenCodec accessTokenCodec, TokenRevocationList revocationList) {
         this.tokenProvider = tokenProvider;
-        this.permissionService = permissionService;
+        this.authorityCache = authorityCache;
         this.tenantService = tenantService;
+        this.accessTokenCodec = accessTokenCodec;
+        this.revocationList = revocationList;
     }
 
     @Override
@@ -42,7 +46,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String jwt = getJwtFromRequest(request);
 
         if (StringUtils.hasText(jwt)) {
-            TokenSessionDTO session = tokenProvider.getSession(jwt);
+            TokenSessionDTO session = resolveSession(jwt);
 
             if (session != null) {
                 String tenantId = session.getTenantId();
@@ -55,25 +59,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 CustomUserDetail principal = session.getPrincipal();
                 Long userId = principal.getUserId();
 
-                Set<Long> roleIds = principal.getRoleIds();
-                List<SimpleGrantedAuthority> authorities;
-                if(null == roleIds || roleIds.isEmpty()){
-                    authorities = Collections.emptyList();
-                }
-                // 超管
-                else if(roleIds.contains(0L)){
-                    Set<String> permissionCodes = permissionService.getAllPermissionCodes();
-                    authorities = new ArrayList<>();
-                    authorities.add(new SimpleGrantedAuthority(Const.SUPER_ADMIN_ROLE_CODE));
-                    authorities.addAll(permissionCodes.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .toList());
-                }else{
-                    Set<String> permissionCodes = permissionService.getPermissionsByRoleIds(roleIds);
-                    authorities = permissionCodes.stream()
-                            .map(SimpleGrantedAuthority::new)
-                            .toList();
-                }
+                List<SimpleGrantedAuthority> authorities = authorityCache.getAuthorities(principal.getRoleIds());
 
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         principal, null, authorities);
@@ -99,6 +85,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * 签名的访问令牌在本地校验并检查撤销列表，不访问 Redis；未启用无状态模式时按会话从 Redis 读取
+     * <p>
+     * 无状态模式下会话 token 只是刷新令牌，只能在请求体中提交给 /api/auth/refresh，不能作为访问令牌使用
+     */
+    private TokenSessionDTO resolveSession(String jwt) {
+        if (accessTokenCodec.isEnabled()) {
+            if (!AccessTokenCodec.isSigned(jwt)) {
+                return null;
+            }
+            AccessTokenCodec.AccessClaims claims = accessTokenCodec.verify(jwt);
+            if (claims == null || revocationList.isRevoked(claims.sid())) {
+                return null;
+            }
+            return new TokenSessionDTO(claims.sub(), claims.tid(), claims.toPrincipal(), null, null, claims.iat() * 1000);
+        }
+        return tokenProvider.getSession(jwt);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,42 +1,251 @@
 package com.mok.ddd.infrastructure.security;
 
 import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
 import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-import tools.jackson.databind.json.JsonMapper;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+/**
+ * 会话 token 的创建、读取续期、索引与撤销
+ * <p>
+ * 只支持单节点 Redis（含哨兵），不支持 Redis Cluster：会话索引读取和撤销对多个 token key 做 MGET / 批量 DEL，
+ * Lua 脚本中 user:tokens、租户会话索引和 token key 由会话数据或索引成员拼出，无法事先在 KEYS 中声明。
+ * 能事先确定的 key 都通过 KEYS 传入
+ */
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
+    /**
+     * 剩余时间小于10分钟时续期
+     */
+    private static final long RENEW_THRESHOLD_MS = 600000;
+
+    /**
+     * 读取会话索引时每批的 token 数
+     */
+    private static final int SESSION_BATCH_SIZE = 500;
+
+    /**
+     * 游标分页每页上限，以及带会话条件时单次请求最多扫描的批数
+     */
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SCAN_ROUNDS = 20;
+
+    /**
+     * 每次清理会话索引时最多处理的过期 token 数
+     */
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    /**
+     * KEYS[1] token key; KEYS[2] 全局会话索引; KEYS[3] 会话过期索引;
+     * ARGV[1] 有效期(ms); ARGV[2] 续期阈值(ms); ARGV[3] user:tokens 前缀; ARGV[4] 租户会话索引前缀;
+     * ARGV[5] 续期后的过期时间(ms); ARGV[6] token
+     * <p>
+     * user:tokens 和租户会话索引取决于会话内容，在脚本内拼出（仅单节点 Redis）。返回 {会话数据, 剩余有效期(ms)}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SESSION_RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local data = redis.call('GET', KEYS[1])
+            if not data then
+                return nil
+            end
+            local ttl = redis.call('PTTL', KEYS[1])
+            if ttl > 0 and ttl < tonumber(ARGV[2]) then
+                redis.call('PEXPIRE', KEYS[1], ARGV[1])
+                local tenantId, username
+                if string.byte(data, 1) == 123 then
+                    local session = cjson.decode(data)
+                    tenantId = session['tenantId']
+                    username = session['username']
+                else
+                    local len = string.byte(data, 3) * 256 + string.byte(data, 4)
+                    tenantId = string.sub(data, 5, 4 + len)
+                    local pos = 5 + len
+                    len = string.byte(data, pos) * 256 + string.byte(data, pos + 1)
+                    username = string.sub(data, pos + 2, pos + 1 + len)
+                end
+                redis.call('PEXPIRE', ARGV[3] .. tenantId .. ':' .. username, ARGV[1])
+                redis.call('PEXPIRE', ARGV[4] .. tenantId, ARGV[1])
+                redis.call('PEXPIRE', KEYS[2], ARGV[1])
+                redis.call('ZADD', KEYS[3], ARGV[5], ARGV[6] .. ':' .. tenantId)
+                redis.call('PEXPIRE', KEYS[3], ARGV[1])
+                ttl = tonumber(ARGV[1])
+            end
+            return {data, ttl}
+            """, List.class);
+
+    /**
+     * KEYS[1] user:tokens key; KEYS[2] 租户会话索引; KEYS[3] 全局会话索引; ARGV[1] token key 前缀
+     * <p>
+     * token key 来自 user:tokens 的成员，在脚本内拼出（仅单节点 Redis）。
+     * 多端登录时 user:tokens 是 set，单端登录时是 string；返回被撤销的 token
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE_USER_SCRIPT = new DefaultRedisScript<>("""
+            local tokens
+            if redis.call('TYPE', KEYS[1])['ok'] == 'set' then
+                tokens = redis.call('SMEMBERS', KEYS[1])
+            else
+                local token = redis.call('GET', KEYS[1])
+                tokens = token and {token} or {}
+            end
+            for _, token in ipairs(tokens) do
+                redis.call('DEL', ARGV[1] .. token)
+                redis.call('ZREM', KEYS[2], token)
+                redis.call('ZREM', KEYS[3], token)
+            end
+            redis.call('DEL', KEYS[1])
+            return tokens
+            """, List.class);
+
+    /**
+     * KEYS[1] 会话过期索引; KEYS[2] 全局会话索引; ARGV[1] 当前时间(ms); ARGV[2] 批大小; ARGV[3] token key 前缀;
+     * ARGV[4] 租户会话索引前缀
+     * <p>
+     * token key 和租户会话索引来自过期索引的成员，在脚本内拼出（仅单节点 Redis）。
+     * 过期时间已到且 token 已不存在的从会话索引中移除；token 仍存在（续期与清理交错）的按实际剩余时间重新登记。
+     * 返回 {处理数, 移除数}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SESSION_SWEEP_SCRIPT = new DefaultRedisScript<>("""
+            local members = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+            local removed = 0
+            for _, member in ipairs(members) do
+                local sep = string.find(member, ':', 1, true)
+                local token = string.sub(member, 1, sep - 1)
+                local ttl = redis.call('PTTL', ARGV[3] .. token)
+                if ttl > 0 then
+                    redis.call('ZADD', KEYS[1], tonumber(ARGV[1]) + ttl, member)
+                else
+                    redis.call('ZREM', KEYS[1], member)
+                    redis.call('ZREM', KEYS[2], token)
+                    redis.call('ZREM', ARGV[4] .. string.sub(member, sep + 1), token)
+                    removed = removed + 1
+                end
+            end
+            return {#members, removed}
+            """, List.class);
+
+    /**
+     * 脚本返回的会话数据可能是二进制，按原始字节返回
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> RAW_RESULT_SERIALIZER = (RedisSerializer) RedisSerializer.byteArray();
+
     @Value("${auth.expiration-ms}")
     private long jwtExpirationInMs;
 
     @Value("${auth.allow-multi-device:true}")
     private boolean allowMultiDevice;
 
+    @Value("${auth.script-renewal:true}")
+    private boolean scriptRenewal;
+
     private final StringRedisTemplate redisTemplate;
-    private final JsonMapper jsonMapper;
+    private final SessionCodec sessionCodec;
+    private final SessionNearCache sessionNearCache;
+    private final TokenRevocationList revocationList;
 
-    public JwtTokenProvider(StringRedisTemplate redisTemplate, JsonMapper jsonMapper) {
+    public JwtTokenProvider(StringRedisTemplate redisTemplate, SessionCodec sessionCodec, SessionNearCache sessionNearCache,
+                            TokenRevocationList revocationList) {
         this.redisTemplate = redisTemplate;
-        this.jsonMapper = jsonMapper;
+        this.sessionCodec = sessionCodec;
+        this.sessionNearCache = sessionNearCache;
+        this.revocationList = revocationList;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadScripts() {
+        if (!scriptRenewal) {
+            return;
+        }
+        try {
+            String sha = redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptingCommands()
+                    .scriptLoad(SESSION_RENEW_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8)));
+            log.info("Session renew script loaded: {}", sha);
+        } catch (Exception e) {
+            log.warn("Failed to preload session renew script, it will be loaded on first use", e);
+        }
+    }
+
+    /**
+     * 会话索引不存在时（首次部署或 Redis 被清空）扫描一次现有会话重建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSessionIndex() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(Const.CacheKey.SESSION_INDEX))) {
+                return;
+            }
+            Integer indexed = redisTemplate.execute((RedisCallback<Integer>) connection -> {
+                int count = 0;
+                List<byte[]> batch = new ArrayList<>(SESSION_BATCH_SIZE);
+                ScanOptions options = ScanOptions.scanOptions().match(Const.CacheKey.AUTH_TOKEN + "*").count(1000).build();
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    while (cursor.hasNext()) {
+                        batch.add(cursor.next());
+                        if (batch.size() == SESSION_BATCH_SIZE) {
+                            count += indexBatch(connection, batch);
+                            batch.clear();
+                        }
+                    }
+                }
+                return batch.isEmpty() ? count : count + indexBatch(connection, batch);
+            });
+            if (indexed != null && indexed > 0) {
+                log.info("Rebuilt session index with {} sessions", indexed);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to rebuild session index, sessions created before this start will not be listed", e);
+        }
+    }
+
+    private int indexBatch(RedisConnection connection, List<byte[]> tokenKeys) {
+        List<byte[]> values = connection.stringCommands().mGet(tokenKeys.toArray(byte[][]::new));
+        int count = 0;
+        for (int i = 0; values != null && i < tokenKeys.size(); i++) {
+            byte[] data = values.get(i);
+            TokenSessionDTO session = data != null && data.length > 0 ? sessionCodec.decode(data) : null;
+            if (session != null) {
+                String token = new String(tokenKeys.get(i), StandardCharsets.UTF_8).substring(Const.CacheKey.AUTH_TOKEN.length());
+                addToIndex(connection, session.getTenantId(), token, session.getLoginTime());
+                count++;
+            }
+        }
+        return count;
     }
 
     public String createToken(String username, String tenantId, CustomUserDetail principal, String ipAddress, String browser) {
-        String userKey = Const.CacheKey.USER_TOKENS + tenantId + ":" + username;
+        String userKey = userKey(tenantId, username);
         if (!allowMultiDevice) {
             Object oldToken = redisTemplate.opsForValue().get(userKey);
             if (oldToken != null) {
                 redisTemplate.delete(Const.CacheKey.AUTH_TOKEN + oldToken);
+                sessionNearCache.evict(oldToken.toString());
+                revocationList.revoke(List.of(oldToken.toString()));
+                removeFromIndex(tenantId, List.of(oldToken.toString()));
             }
         }
 
@@ -44,9 +253,14 @@ public class JwtTokenProvider {
         String tokenKey = Const.CacheKey.AUTH_TOKEN + token;
         TokenSessionDTO session = new TokenSessionDTO(username, tenantId, principal, ipAddress, browser, System.currentTimeMillis());
         session.setToken(token);
-        String sessionJson = jsonMapper.writeValueAsString(session);
+        byte[] sessionData = sessionCodec.encode(session);
 
-        redisTemplate.opsForValue().set(tokenKey, sessionJson, jwtExpirationInMs, TimeUnit.MILLISECONDS);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(tokenKey.getBytes(StandardCharsets.UTF_8), sessionData,
+                    Expiration.milliseconds(jwtExpirationInMs), RedisStringCommands.SetOption.upsert());
+            addToIndex(connection, tenantId, token, session.getLoginTime());
+            return null;
+        });
         if (allowMultiDevice) {
             redisTemplate.opsForSet().add(userKey, token);
         } else {
@@ -58,61 +272,215 @@ public class JwtTokenProvider {
     }
 
     public TokenSessionDTO getSession(String token) {
+        TokenSessionDTO cached = sessionNearCache.get(token, RENEW_THRESHOLD_MS);
+        if (cached != null) {
+            return cached;
+        }
+
         String tokenKey = Const.CacheKey.AUTH_TOKEN + token;
-        String data = redisTemplate.opsForValue().get(tokenKey);
-        if (StringUtils.hasText(data)) {
-            try {
-                TokenSessionDTO session = jsonMapper.readValue(data, TokenSessionDTO.class);
-                if(session == null){
-                    return null;
-                }
+        try {
+            return scriptRenewal ? getSessionByScript(token, tokenKey) : getSessionByCommands(token, tokenKey);
+        } catch (Exception e) {
+            return null;
+        }
+    }
 
-                Long expire = redisTemplate.getExpire(tokenKey, TimeUnit.MILLISECONDS);
+    private TokenSessionDTO getSessionByCommands(String token, String tokenKey) {
+        byte[] data = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(tokenKey.getBytes(StandardCharsets.UTF_8)));
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        TokenSessionDTO session = sessionCodec.decode(data);
+        if (session == null) {
+            return null;
+        }
+
+        Long expire = redisTemplate.getExpire(tokenKey, TimeUnit.MILLISECONDS);
 
-                // 剩余时间小于10分钟，刷新
-                if (expire != null && expire > 0 && expire < 600000) {
-                    redisTemplate.expire(tokenKey, jwtExpirationInMs, TimeUnit.MILLISECONDS);
-                    String userKey = Const.CacheKey.USER_TOKENS + session.getTenantId() + ":" + session.getUsername();
-                    redisTemplate.expire(userKey, jwtExpirationInMs, TimeUnit.MILLISECONDS);
+        // 剩余时间小于10分钟，刷新
+        if (expire != null && expire > 0 && expire < RENEW_THRESHOLD_MS) {
+            redisTemplate.expire(tokenKey, jwtExpirationInMs, TimeUnit.MILLISECONDS);
+            redisTemplate.expire(userKey(session.getTenantId(), session.getUsername()), jwtExpirationInMs, TimeUnit.MILLISECONDS);
+            redisTemplate.expire(Const.CacheKey.TENANT_SESSION_INDEX + session.getTenantId(), jwtExpirationInMs, TimeUnit.MILLISECONDS);
+            redisTemplate.expire(Const.CacheKey.SESSION_INDEX, jwtExpirationInMs, TimeUnit.MILLISECONDS);
+            redisTemplate.opsForZSet().add(Const.CacheKey.SESSION_EXPIRY_INDEX, expiryMember(token, session.getTenantId()),
+                    System.currentTimeMillis() + jwtExpirationInMs);
+            redisTemplate.expire(Const.CacheKey.SESSION_EXPIRY_INDEX, jwtExpirationInMs, TimeUnit.MILLISECONDS);
+            expire = jwtExpirationInMs;
+        }
+        if (expire != null) {
+            sessionNearCache.put(token, session, expire);
+        }
+        return session;
+    }
+
+    /**
+     * 读取、检查剩余时间、续期 token 及 user:tokens 在一次 EVALSHA 内完成
+     */
+    private TokenSessionDTO getSessionByScript(String token, String tokenKey) {
+        List<?> result = redisTemplate.execute(SESSION_RENEW_SCRIPT, RedisSerializer.string(), RAW_RESULT_SERIALIZER,
+                List.of(tokenKey, Const.CacheKey.SESSION_INDEX, Const.CacheKey.SESSION_EXPIRY_INDEX),
+                String.valueOf(jwtExpirationInMs), String.valueOf(RENEW_THRESHOLD_MS), Const.CacheKey.USER_TOKENS,
+                Const.CacheKey.TENANT_SESSION_INDEX, String.valueOf(System.currentTimeMillis() + jwtExpirationInMs), token);
+        if (result == null || result.size() < 2 || !(result.get(0) instanceof byte[] data) || data.length == 0) {
+            return null;
+        }
+        TokenSessionDTO session = sessionCodec.decode(data);
+        if (session != null && result.get(1) instanceof Number expire) {
+            sessionNearCache.put(token, session, expire.longValue());
+        }
+        return session;
+    }
+
+    /**
+     * 按登录时间倒序读取会话索引的一段，会话数据一次 MGET 取回
+     * <p>
+     * 只读：不续期、不经过近端缓存；已过期的 token 顺带从索引中移除
+     *
+     * @param tenantId 租户，为 null 时读取所有租户
+     */
+    @SuppressWarnings("unchecked")
+    public SessionSlice findSessions(String tenantId, long offset, int count) {
+        byte[] indexKey = sessionIndexKey(tenantId);
+        List<Object> head = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRevRange(indexKey, offset, offset + count - 1);
+            connection.zSetCommands().zCard(indexKey);
+            return null;
+        });
+        List<String> tokens = head.size() > 0 && head.get(0) instanceof Collection<?> members
+                ? List.copyOf((Collection<String>) members) : List.of();
+        long total = head.size() > 1 && head.get(1) instanceof Number size ? size.longValue() : 0;
+        if (tokens.isEmpty()) {
+            return new SessionSlice(List.of(), total, offset, false);
+        }
+
+        List<String> expired = new ArrayList<>();
+        List<TokenSessionDTO> sessions = readSessions(tokens, tenantId, expired).stream().filter(Objects::nonNull).toList();
+        return new SessionSlice(sessions, total - expired.size(), offset + tokens.size() - expired.size(),
+                tokens.size() == count);
+    }
+
+    /**
+     * 按登录时间倒序游标分页读取会话
+     * <p>
+     * 游标是上一页最后扫描到的 (登录时间, token)，新登录的会话不会使后续页错位；
+     * 有用户名或 IP 条件时逐批扫描索引直到凑满一页，单次请求最多扫描 {@link #MAX_SCAN_ROUNDS} 批，
+     * 未凑满时返回当前位置的游标由调用方继续
+     */
+    public CursorSlice<TokenSessionDTO> findSessions(OnlineSessionQuery query, String cursor, int size) {
+        int limit = Math.clamp(size, 1, MAX_PAGE_SIZE);
+        int batchSize = query.hasSessionFilter() ? SESSION_BATCH_SIZE : limit + 1;
+        byte[] indexKey = sessionIndexKey(query.getTenantId());
+        SessionCursor position = SessionCursor.decode(cursor);
+
+        List<TokenSessionDTO> content = new ArrayList<>(limit);
+        boolean exhausted = false;
+        for (int round = 0; round < MAX_SCAN_ROUNDS && content.size() < limit && !exhausted; round++) {
+            List<SessionCursor> entries = readIndex(indexKey, query, position, batchSize);
+            List<TokenSessionDTO> sessions = readSessions(entries.stream().map(SessionCursor::token).toList(),
+                    query.getTenantId(), new ArrayList<>());
+            int consumed = 0;
+            while (consumed < entries.size() && content.size() < limit) {
+                position = entries.get(consumed);
+                TokenSessionDTO session = sessions.get(consumed++);
+                if (session != null && query.matches(session)) {
+                    content.add(session);
                 }
-                return session;
-            } catch (Exception e) {
-                return null;
             }
+            exhausted = entries.size() < batchSize && consumed == entries.size();
         }
-        return null;
+        return new CursorSlice<>(List.copyOf(content), exhausted || position == null ? null : position.encode(), !exhausted);
     }
 
-    public List<OnlineUserDTO> getAllOnlineUsers(Map<String, String> tenantMap, String currentTenantId, boolean isSuper) {
-        Set<String> keys = redisTemplate.execute((RedisCallback<Set<String>>) connection -> {
-            Set<String> keySet = new HashSet<>();
-            ScanOptions options = ScanOptions.scanOptions().match(Const.CacheKey.AUTH_TOKEN+"*").count(1000).build();
-            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
-                while (cursor.hasNext()) {
-                    keySet.add(new String(cursor.next()));
-                }
-            } catch (Exception e) {
-                return keySet;
+    /**
+     * 索引中 position 之后（更早登录）的至多 count 个 token，按登录时间倒序，同一时间按 token 倒序
+     */
+    private List<SessionCursor> readIndex(byte[] indexKey, OnlineSessionQuery query, SessionCursor position, int count) {
+        double min = query.getLoginTimeFrom() != null ? query.getLoginTimeFrom() : Double.NEGATIVE_INFINITY;
+        double max = query.getLoginTimeTo() != null ? query.getLoginTimeTo() : Double.POSITIVE_INFINITY;
+        boolean ties = position != null && position.loginTime() >= min && position.loginTime() <= max;
+        if (position != null) {
+            // 登录时间是整数毫秒，与游标同一毫秒的 token 单独取出按 token 比较
+            max = Math.min(max, position.loginTime() - 1);
+        }
+        double restMax = max;
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (ties) {
+                connection.zSetCommands().zRevRangeByScoreWithScores(indexKey, position.loginTime(), position.loginTime());
             }
-            return keySet;
+            if (restMax >= min) {
+                connection.zSetCommands().zRevRangeByScoreWithScores(indexKey, min, restMax, 0, count);
+            }
+            return null;
         });
 
-        List<TokenSessionDTO> sessions = new ArrayList<>();
-        if (keys != null) {
-            for (String fullKey : keys) {
-                String token = fullKey.replace(Const.CacheKey.AUTH_TOKEN, "");
-                TokenSessionDTO session = getSession(token);
-                if (session != null) {
-                    session.setToken(token);
-                    sessions.add(session);
+        List<SessionCursor> entries = new ArrayList<>(count);
+        for (Object result : results) {
+            if (result instanceof Collection<?> tuples) {
+                for (Object tuple : tuples) {
+                    if (tuple instanceof ZSetOperations.TypedTuple<?> typed && typed.getValue() != null && typed.getScore() != null) {
+                        SessionCursor entry = new SessionCursor(typed.getScore().longValue(), typed.getValue().toString());
+                        if (position == null || entry.isAfter(position)) {
+                            entries.add(entry);
+                        }
+                    }
                 }
             }
         }
+        return entries.size() > count ? entries.subList(0, count) : entries;
+    }
+
+    /**
+     * 一次 MGET 取回会话，返回与 tokens 一一对应，已过期或无法解码的为 null；已过期的从索引中移除并记入 expired
+     */
+    private List<TokenSessionDTO> readSessions(List<String> tokens, String tenantId, List<String> expired) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(tokens.stream().map(JwtTokenProvider::tokenKey).toArray(byte[][]::new)));
+
+        List<TokenSessionDTO> sessions = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            byte[] data = values != null && i < values.size() ? values.get(i) : null;
+            if (data == null || data.length == 0) {
+                expired.add(tokens.get(i));
+                sessions.add(null);
+                continue;
+            }
+            TokenSessionDTO session = sessionCodec.decode(data);
+            if (session != null) {
+                session.setToken(tokens.get(i));
+            }
+            sessions.add(session);
+        }
+        if (!expired.isEmpty()) {
+            removeFromIndex(tenantId, expired);
+        }
+        return sessions;
+    }
+
+    /**
+     * 超级租户列出所有租户的在线用户，其他租户只读取本租户的会话索引
+     *
+     * @param tenantNames 租户编码 -> 租户名称，没有名称时返回 null
+     */
+    public List<OnlineUserDTO> getAllOnlineUsers(Function<String, String> tenantNames, String currentTenantId, boolean isSuper) {
+        String tenantId = isSuper ? null : currentTenantId;
+        List<TokenSessionDTO> sessions = new ArrayList<>();
+        SessionSlice slice;
+        long offset = 0;
+        do {
+            slice = findSessions(tenantId, offset, SESSION_BATCH_SIZE);
+            sessions.addAll(slice.sessions());
+            offset = slice.nextOffset();
+        } while (slice.hasMore());
 
         Map<String, List<TokenSessionDTO>> grouped = sessions.stream()
                 .filter(s -> s.getPrincipal() != null)
-                .filter(s -> isSuper || s.getTenantId().equals(currentTenantId))
-                .collect(Collectors.groupingBy(s -> s.getTenantId() + ":" + s.getPrincipal().getUserId()));
+                .collect(Collectors.groupingBy(s -> s.getTenantId() + ":" + s.getPrincipal().getUserId(),
+                        LinkedHashMap::new, Collectors.toList()));
 
         return grouped.values().stream().map(userSessions -> {
             TokenSessionDTO first = userSessions.getFirst();
@@ -128,25 +496,194 @@ public class JwtTokenProvider {
                     first.getPrincipal().getUserId(),
                     first.getUsername(),
                     first.getTenantId(),
-                    tenantMap.getOrDefault(first.getTenantId(), first.getTenantId()),
+                    Objects.requireNonNullElse(tenantNames.apply(first.getTenantId()), first.getTenantId()),
                     details
             );
         }).toList();
     }
 
     public void removeToken(String token) {
-        TokenSessionDTO session = getSession(token);
-        if (session != null) {
-            String tokenKey = Const.CacheKey.AUTH_TOKEN + token;
-            String userKey = Const.CacheKey.USER_TOKENS + session.getTenantId() + ":" + session.getUsername();
+        revokeTokens(List.of(token));
+    }
+
+    /**
+     * 批量撤销 token：一次 MGET 取会话定位 user:tokens 和租户索引，删除在一个 pipeline 内完成，不续期
+     *
+     * @return 撤销的在线会话数
+     */
+    public int revokeTokens(Collection<String> tokens) {
+        return revoke(List.copyOf(new LinkedHashSet<>(tokens)), null);
+    }
+
+    /**
+     * 批量撤销 token，只撤销会话属于指定租户的，其他租户的 token 原样保留
+     *
+     * @return 撤销的在线会话数
+     */
+    public int revokeTenantTokens(Collection<String> tokens, String tenantId) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(tokens));
+        List<TokenSessionDTO> sessions = readSessions(distinct, null, new ArrayList<>());
+        List<String> owned = new ArrayList<>();
+        List<TokenSessionDTO> ownedSessions = new ArrayList<>();
+        for (int i = 0; i < sessions.size(); i++) {
+            TokenSessionDTO session = sessions.get(i);
+            if (session != null && Objects.equals(tenantId, session.getTenantId())) {
+                owned.add(distinct.get(i));
+                ownedSessions.add(session);
+            }
+        }
+        return revoke(owned, ownedSessions, tenantId);
+    }
+
+    /**
+     * 撤销用户的全部会话，按 user:tokens 在一次脚本调用内完成
+     *
+     * @return 撤销的 token 数
+     */
+    @SuppressWarnings("unchecked")
+    public int revokeUser(String tenantId, String username) {
+        List<String> tokens = redisTemplate.execute(REVOKE_USER_SCRIPT, List.of(userKey(tenantId, username),
+                Const.CacheKey.TENANT_SESSION_INDEX + tenantId, Const.CacheKey.SESSION_INDEX), Const.CacheKey.AUTH_TOKEN);
+        if (tokens == null || tokens.isEmpty()) {
+            return 0;
+        }
+        sessionNearCache.evict(tokens);
+        revocationList.revoke(tokens);
+        return tokens.size();
+    }
+
+    /**
+     * 撤销租户的全部会话，按租户会话索引逐批撤销
+     *
+     * @return 撤销的在线会话数
+     */
+    @SuppressWarnings("unchecked")
+    public int revokeTenant(String tenantId) {
+        byte[] indexKey = sessionIndexKey(tenantId);
+        int revoked = 0;
+        while (true) {
+            Set<byte[]> members = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection ->
+                    connection.zSetCommands().zRange(indexKey, 0, SESSION_BATCH_SIZE - 1));
+            if (members == null || members.isEmpty()) {
+                return revoked;
+            }
+            // 撤销和读取时的过期清理都会把这批 token 移出租户索引
+            revoked += revoke(members.stream().map(m -> new String(m, StandardCharsets.UTF_8)).toList(), tenantId);
+        }
+    }
+
+    /**
+     * @param tenantId 已知 token 同属一个租户时传入，全部从该租户索引中移除，包括已过期和无法解码的
+     */
+    private int revoke(List<String> tokens, String tenantId) {
+        return revoke(tokens, readSessions(tokens, tenantId, new ArrayList<>()), tenantId);
+    }
 
-            redisTemplate.delete(tokenKey);
+    /**
+     * @param sessions 与 tokens 一一对应的会话，已过期或无法解码的为 null
+     */
+    private int revoke(List<String> tokens, List<TokenSessionDTO> sessions, String tenantId) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        byte[][] tokenKeys = tokens.stream().map(JwtTokenProvider::tokenKey).toArray(byte[][]::new);
+        byte[][] members = tokens.stream().map(t -> t.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(tokenKeys);
+            connection.zSetCommands().zRem(sessionIndexKey(null), members);
+            if (tenantId != null) {
+                connection.zSetCommands().zRem(sessionIndexKey(tenantId), members);
+            }
+            for (int i = 0; i < sessions.size(); i++) {
+                TokenSessionDTO session = sessions.get(i);
+                if (session == null) {
+                    continue;
+                }
+                if (tenantId == null) {
+                    connection.zSetCommands().zRem(sessionIndexKey(session.getTenantId()), members[i]);
+                }
+                byte[] userKey = userKey(session.getTenantId(), session.getUsername()).getBytes(StandardCharsets.UTF_8);
+                if (allowMultiDevice) {
+                    connection.setCommands().sRem(userKey, members[i]);
+                } else {
+                    connection.keyCommands().del(userKey);
+                }
+            }
+            return null;
+        });
+        sessionNearCache.evict(tokens);
+        revocationList.revoke(tokens);
+        return (int) sessions.stream().filter(Objects::nonNull).count();
+    }
+
+    private void addToIndex(RedisConnection connection, String tenantId, String token, long loginTime) {
+        byte[] member = token.getBytes(StandardCharsets.UTF_8);
+        for (byte[] indexKey : List.of(sessionIndexKey(null), sessionIndexKey(tenantId))) {
+            connection.zSetCommands().zAdd(indexKey, loginTime, member);
+            // 与 user:tokens 一样在登录和续期时延长，不早于其中任一会话过期；过期的成员由 sweepSessionIndex 清理
+            connection.keyCommands().pExpire(indexKey, jwtExpirationInMs);
+        }
+        byte[] expiryKey = Const.CacheKey.SESSION_EXPIRY_INDEX.getBytes(StandardCharsets.UTF_8);
+        connection.zSetCommands().zAdd(expiryKey, System.currentTimeMillis() + jwtExpirationInMs,
+                expiryMember(token, tenantId).getBytes(StandardCharsets.UTF_8));
+        connection.keyCommands().pExpire(expiryKey, jwtExpirationInMs);
+    }
 
-            if (allowMultiDevice) {
-                redisTemplate.opsForSet().remove(userKey, token);
-            } else {
-                redisTemplate.delete(userKey);
+    /**
+     * 按过期时间清理会话索引，只处理已到期的 token，不随在线会话数增长
+     * <p>
+     * 各节点都会执行，脚本幂等
+     */
+    @Scheduled(fixedDelayString = "${auth.session-index-sweep-ms:60000}")
+    public void sweepSessionIndex() {
+        try {
+            int removed = 0;
+            List<?> result;
+            do {
+                result = redisTemplate.execute(SESSION_SWEEP_SCRIPT, List.of(Const.CacheKey.SESSION_EXPIRY_INDEX, Const.CacheKey.SESSION_INDEX),
+                        String.valueOf(System.currentTimeMillis()), String.valueOf(SWEEP_BATCH_SIZE), Const.CacheKey.AUTH_TOKEN,
+                        Const.CacheKey.TENANT_SESSION_INDEX);
+                if (result != null && result.size() > 1 && result.get(1) instanceof Number count) {
+                    removed += count.intValue();
+                }
+            } while (result != null && !result.isEmpty() && result.getFirst() instanceof Number scanned
+                    && scanned.intValue() == SWEEP_BATCH_SIZE);
+            if (removed > 0) {
+                log.debug("Removed {} expired sessions from the session index", removed);
             }
+        } catch (Exception e) {
+            log.warn("Failed to sweep expired sessions from the session index", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @param tenantId 为 null 时只从全局索引中移除，租户索引中的成员在读取该租户时清理
+     */
+    private void removeFromIndex(String tenantId, List<String> tokens) {
+        byte[][] members = tokens.stream().map(t -> t.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.zSetCommands().zRem(sessionIndexKey(null), members);
+            if (tenantId != null) {
+                connection.zSetCommands().zRem(sessionIndexKey(tenantId), members);
+            }
+            return null;
+        });
+    }
+
+    private static byte[] sessionIndexKey(String tenantId) {
+        String key = tenantId == null ? Const.CacheKey.SESSION_INDEX : Const.CacheKey.TENANT_SESSION_INDEX + tenantId;
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String expiryMember(String token, String tenantId) {
+        return token + ":" + tenantId;
+    }
+
+    private static String userKey(String tenantId, String username) {
+        return Const.CacheKey.USER_TOKENS + tenantId + ":" + username;
+    }
+
+    private static byte[] tokenKey(String token) {
+        return (Const.CacheKey.AUTH_TOKEN + token).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,28 @@
+package com.mok.ddd.infrastructure.security;
+
+/**
+ * 在线会话，游标分页和流式导出按会话逐条返回
+ */
+public record OnlineSessionDTO(
+        String token,
+        Long userId,
+        String username,
+        String tenantId,
+        String tenantName,
+        String ip,
+        String browser,
+        long loginTime
+) {
+    public static OnlineSessionDTO of(TokenSessionDTO session, String tenantName) {
+        return new OnlineSessionDTO(
+                session.getToken(),
+                session.getPrincipal() != null ? session.getPrincipal().getUserId() : null,
+                session.getUsername(),
+                session.getTenantId(),
+                tenantName,
+                session.getIp(),
+                session.getBrowser(),
+                session.getLoginTime()
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.mok.ddd.infrastructure.security;
+
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+/**
+ * 在线会话查询条件
+ * <p>
+ * 租户和登录时间在 Redis 会话索引上过滤，用户名前缀和 IP 在取回会话数据后过滤
+ */
+@Data
+public class OnlineSessionQuery {
+
+    /**
+     * 为空时查询所有租户，仅超级租户可用
+     */
+    private String tenantId;
+
+    /**
+     * 用户名前缀
+     */
+    private String username;
+
+    private String ip;
+
+    /**
+     * 登录时间范围（毫秒时间戳），两端都包含
+     */
+    private Long loginTimeFrom;
+    private Long loginTimeTo;
+
+    public boolean hasSessionFilter() {
+        return StringUtils.hasText(username) || StringUtils.hasText(ip);
+    }
+
+    public boolean matches(TokenSessionDTO session) {
+        if (StringUtils.hasText(username) && (session.getUsername() == null || !session.getUsername().startsWith(username))) {
+            return false;
+        }
+        return !StringUtils.hasText(ip) || ip.equals(session.getIp());
+    }
+}
@@ -0,0 +1,16 @@
+package com.mok.ddd.infrastructure.security;
+
+/**
+ * auth:token 会话的存储编码
+ */
+public interface SessionCodec {
+
+    byte[] encode(TokenSessionDTO session);
+
+    TokenSessionDTO decode(byte[] data);
+
+    /**
+     * 是否能识别该格式，用于新旧格式共存期间的读取
+     */
+    boolean supports(byte[] data);
+}
@@ -0,0 +1,42 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.exception.BizException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 会话索引中的位置：(登录时间, token)，对调用方不透明
+ */
+record SessionCursor(long loginTime, String token) {
+
+    private static final String SEPARATOR = ":";
+
+    /**
+     * 按索引的倒序，当前位置是否在 other 之后
+     */
+    boolean isAfter(SessionCursor other) {
+        return loginTime < other.loginTime || (loginTime == other.loginTime && token.compareTo(other.token) < 0);
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((loginTime + SEPARATOR + token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return 游标为空时为 null，表示从头读取
+     */
+    static SessionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = text.indexOf(SEPARATOR);
+            return new SessionCursor(Long.parseLong(text.substring(0, separator)), text.substring(separator + 1));
+        } catch (RuntimeException e) {
+            throw new BizException("无效的分页游标");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.cache.LocalCache;
+import com.mok.ddd.infrastructure.config.SessionCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * 会话近端缓存，热点 token 不再访问 Redis
+ * <p>
+ * 踢出/重新登录时通过 Redis pub/sub 通知所有节点失效，消息丢失时最迟 ttl 后失效
+ */
+@Slf4j
+@Component
+public class SessionNearCache {
+
+    private static final String SEPARATOR = ",";
+
+    private final SessionCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final LocalCache<String, CachedSession> cache;
+
+    public SessionNearCache(SessionCacheProperties properties, StringRedisTemplate redisTemplate,
+                            RedisMessageListenerContainer listenerContainer) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.cache = new LocalCache<>(properties.getMaxSize(), Duration.ofMillis(properties.getTtlMs()));
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.SESSION_EVICT));
+    }
+
+    /**
+     * @param renewThresholdMs Redis 剩余有效期低于该值时返回 null，交由调用方回源续期
+     */
+    public TokenSessionDTO get(String token, long renewThresholdMs) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        CachedSession cached = cache.get(token);
+        if (cached == null || cached.expireAt() - System.currentTimeMillis() < renewThresholdMs) {
+            return null;
+        }
+        return cached.session();
+    }
+
+    /**
+     * @param remoteTtlMs Redis 中 token 的剩余有效期
+     */
+    public void put(String token, TokenSessionDTO session, long remoteTtlMs) {
+        if (!properties.isEnabled() || remoteTtlMs <= 0) {
+            return;
+        }
+        long ttl = Math.min(properties.getTtlMs(), remoteTtlMs);
+        cache.put(token, new CachedSession(session, System.currentTimeMillis() + remoteTtlMs), Duration.ofMillis(ttl));
+    }
+
+    /**
+     * 本节点立即失效，并广播给其他节点
+     */
+    public void evict(String token) {
+        cache.invalidate(token);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(Const.Channel.SESSION_EVICT, token);
+        } catch (Exception e) {
+            log.warn("Failed to publish session eviction for token, falling back to local ttl", e);
+        }
+    }
+
+    /**
+     * 批量失效，多个 token 合并为一条消息广播
+     */
+    public void evict(Collection<String> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        tokens.forEach(cache::invalidate);
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(Const.Channel.SESSION_EVICT, String.join(SEPARATOR, tokens));
+        } catch (Exception e) {
+            log.warn("Failed to publish session eviction for {} tokens, falling back to local ttl", tokens.size(), e);
+        }
+    }
+
+    /**
+     * 消息为单个 token 或以逗号分隔的多个 token
+     */
+    void evictLocal(String message) {
+        for (String token : message.split(SEPARATOR)) {
+            cache.invalidate(token);
+        }
+    }
+
+    private record CachedSession(TokenSessionDTO session, long expireAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.sys.event.SessionRevokeEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 用户或租户禁用、删除提交后立即撤销其在线会话，不必等待 token 过期
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SessionRevocationListener {
+
+    private final JwtTokenProvider tokenProvider;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionRevoke(SessionRevokeEvent event) {
+        if (event.getTenantId() == null) {
+            return;
+        }
+        try {
+            int revoked = event.getUsername() != null
+                    ? tokenProvider.revokeUser(event.getTenantId(), event.getUsername())
+                    : tokenProvider.revokeTenant(event.getTenantId());
+            if (revoked > 0) {
+                log.info("Revoked {} sessions of {}:{}", revoked, event.getTenantId(),
+                        event.getUsername() != null ? event.getUsername() : "*");
+            }
+        } catch (Exception e) {
+            log.warn("Failed to revoke sessions of {}:{}, they will expire by ttl", event.getTenantId(), event.getUsername(), e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.mok.ddd.infrastructure.security;
+
+import java.util.List;
+
+/**
+ * 会话索引的一段
+ *
+ * @param sessions   仍有效的会话，按登录时间倒序
+ * @param total      索引中的会话数，可能包含尚未清理的过期会话
+ * @param nextOffset 下一段的起始位置，已扣除本次从索引中移除的过期会话
+ * @param hasMore    是否可能还有下一段
+ */
+public record SessionSlice(List<TokenSessionDTO> sessions, long total, long nextOffset, boolean hasMore) {
+}
@@ -0,0 +1,147 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.cache.BloomFilter;
+import com.mok.ddd.infrastructure.config.StatelessTokenProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 无状态模式下已撤销的会话，每个节点在内存中保存，校验访问令牌时不访问 Redis
+ * <p>
+ * 布隆过滤器排除绝大多数未撤销的会话，命中时再查精确集合；撤销通过 Redis pub/sub 同步到所有节点，
+ * 同时写入 Redis 供新启动的节点加载。只需记住一个访问令牌有效期，之后令牌本身已过期
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final String SEPARATOR = ",";
+
+    private final StatelessTokenProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * 会话 -> 可以忘记的时间（毫秒）
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationList(StatelessTokenProperties properties, StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.bloomFilter = newBloomFilter();
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.SESSION_REVOKED));
+    }
+
+    public boolean isRevoked(String sessionId) {
+        return bloomFilter.mightContain(sessionId) && revoked.containsKey(sessionId);
+    }
+
+    /**
+     * 本节点立即生效，写入 Redis 并广播给其他节点
+     */
+    public void revoke(Collection<String> sessionIds) {
+        if (!properties.isEnabled() || sessionIds.isEmpty()) {
+            return;
+        }
+        long forgetAt = System.currentTimeMillis() + properties.getAccessTtlMs();
+        addLocal(sessionIds, forgetAt);
+        try {
+            byte[] key = Const.CacheKey.REVOKED_SESSIONS.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String sessionId : sessionIds) {
+                    connection.zSetCommands().zAdd(key, forgetAt, sessionId.getBytes(StandardCharsets.UTF_8));
+                }
+                connection.zSetCommands().zRemRangeByScore(key, Double.NEGATIVE_INFINITY, System.currentTimeMillis());
+                connection.keyCommands().pExpire(key, properties.getAccessTtlMs());
+                return null;
+            });
+            redisTemplate.convertAndSend(Const.Channel.SESSION_REVOKED, String.join(SEPARATOR, sessionIds));
+        } catch (Exception e) {
+            log.warn("Failed to publish revocation of {} sessions, other nodes accept their access tokens until expiry",
+                    sessionIds.size(), e);
+        }
+    }
+
+    /**
+     * 启动时加载仍在访问令牌有效期内的撤销记录
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            Set<ZSetOperations.TypedTuple<String>> entries = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(Const.CacheKey.REVOKED_SESSIONS, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            if (entries == null) {
+                return;
+            }
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null && entry.getScore() != null) {
+                    addLocal(List.of(entry.getValue()), entry.getScore().longValue());
+                }
+            }
+            log.info("Loaded {} revoked sessions", entries.size());
+        } catch (Exception e) {
+            log.warn("Failed to load revoked sessions, tokens revoked before this start are accepted until expiry", e);
+        }
+    }
+
+    /**
+     * 清理已过期的记录，布隆过滤器不支持删除，整体重建
+     */
+    @Scheduled(fixedDelayString = "${auth.stateless.access-ttl-ms:300000}")
+    public synchronized void prune() {
+        long now = System.currentTimeMillis();
+        if (!revoked.values().removeIf(forgetAt -> forgetAt < now)) {
+            return;
+        }
+        BloomFilter rebuilt = newBloomFilter();
+        revoked.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+    }
+
+    int size() {
+        return revoked.size();
+    }
+
+    void onMessage(String message) {
+        addLocal(List.of(message.split(SEPARATOR)), System.currentTimeMillis() + properties.getAccessTtlMs());
+    }
+
+    /**
+     * 与 prune 互斥，保证重建期间加入的会话不会只落在被替换的过滤器里
+     */
+    private synchronized void addLocal(Collection<String> sessionIds, long forgetAt) {
+        BloomFilter filter = bloomFilter;
+        for (String sessionId : sessionIds) {
+            revoked.merge(sessionId, forgetAt, Math::max);
+            filter.put(sessionId);
+        }
+    }
+
+    private BloomFilter newBloomFilter() {
+        return new BloomFilter(Math.max(1, properties.getRevocationExpectedSize()), properties.getRevocationFpp());
+    }
+}
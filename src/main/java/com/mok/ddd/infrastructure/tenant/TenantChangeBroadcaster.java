@@ -0,0 +1,68 @@
+package com.mok.ddd.infrastructure.tenant;
+
+import com.mok.ddd.application.sys.event.TenantChangedEvent;
+import com.mok.ddd.application.sys.event.TenantCreatedEvent;
+import com.mok.ddd.application.sys.service.TenantCacheService;
+import com.mok.ddd.common.Const;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 租户变更提交后刷新本节点租户快照，并通过 Redis pub/sub 通知其他节点刷新
+ * <p>
+ * 消息格式：节点id|tenantId，忽略本节点发出的消息
+ */
+@Slf4j
+@Component
+public class TenantChangeBroadcaster {
+
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final TenantCacheService tenantCacheService;
+    private final StringRedisTemplate redisTemplate;
+
+    public TenantChangeBroadcaster(TenantCacheService tenantCacheService, StringRedisTemplate redisTemplate,
+                                   RedisMessageListenerContainer listenerContainer) {
+        this.tenantCacheService = tenantCacheService;
+        this.redisTemplate = redisTemplate;
+
+        listenerContainer.addMessageListener((message, pattern) ->
+                        onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(Const.Channel.TENANT_CHANGED));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantChanged(TenantChangedEvent event) {
+        publish(event.getTenantId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTenantCreated(TenantCreatedEvent event) {
+        publish(event.getTenant().getTenantId());
+    }
+
+    private void publish(String tenantId) {
+        tenantCacheService.refresh(tenantId);
+        try {
+            redisTemplate.convertAndSend(Const.Channel.TENANT_CHANGED, nodeId + SEPARATOR + tenantId);
+        } catch (Exception e) {
+            log.warn("Failed to publish tenant change for {}", tenantId, e);
+        }
+    }
+
+    void onMessage(String message) {
+        int index = message.indexOf(SEPARATOR);
+        if (index < 0 || message.startsWith(nodeId + SEPARATOR)) {
+            return;
+        }
+        tenantCacheService.refresh(message.substring(index + 1));
+    }
+}
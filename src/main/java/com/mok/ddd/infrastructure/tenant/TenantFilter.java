@@ -2,7 +2,7 @@ package com.mok.ddd.infrastructure.tenant;
 
 import java.lang.annotation.*;
 
-@Target({ElementType.METHOD})
+@Target({ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface TenantFilter {
@@ -0,0 +1,225 @@
+package com.mok.ddd.infrastructure.tenant;
+
+import com.mok.ddd.infrastructure.tenant.TenantFilter.TenantFilterPolicy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.repository.Repository;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 租户隔离：统一决定当前调用是否按租户过滤，并把结果落到 Hibernate tenantFilter 或 QueryDSL 条件上
+ * <p>
+ * 启动时扫描 domain..repository 下的仓储接口预解析各方法的策略，调用时只查一次表；仓储方法的策略通过 ScopedValue 向下传递，
+ * 事务开始时按当前策略配置一次会话过滤器，之后只在策略与会话状态不一致时切换，
+ * QueryDSL 查询在会话过滤器已生效时不再重复追加 tenantId 条件
+ */
+@Slf4j
+@Component
+public class TenantIsolation {
+
+    public static final String FILTER_NAME = "tenantFilter";
+    public static final String FILTER_PARAMETER = "tenantId";
+
+    /**
+     * 会话属性：apply 时记录会话过滤器当前按哪个租户过滤，不读取 Hibernate 内部的过滤器参数
+     */
+    static final String APPLIED_TENANT = TenantIsolation.class.getName() + ".appliedTenant";
+
+    private static final ScopedValue<TenantFilterPolicy> POLICY = ScopedValue.newInstance();
+
+    private static final String REPOSITORY_BASE_PACKAGE = "com.mok.ddd.domain";
+    private static final String REPOSITORY_PACKAGE_SUFFIX = ".repository";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConcurrentHashMap<Method, TenantFilterPolicy> policies = new ConcurrentHashMap<>();
+    private final int indexedMethods;
+
+    private final Map<TenantFilterPolicy, LongAdder> calls = new EnumMap<>(TenantFilterPolicy.class);
+    private final LongAdder filterSwitches = new LongAdder();
+
+    public TenantIsolation(EntityManagerFactory entityManagerFactory) {
+        this(entityManagerFactory, scanRepositories());
+    }
+
+    TenantIsolation(EntityManagerFactory entityManagerFactory, Collection<Class<?>> repositories) {
+        this.entityManagerFactory = entityManagerFactory;
+        for (TenantFilterPolicy policy : TenantFilterPolicy.values()) {
+            calls.put(policy, new LongAdder());
+        }
+        for (Class<?> repository : repositories) {
+            for (Method method : repository.getMethods()) {
+                policies.putIfAbsent(method, resolvePolicy(method));
+            }
+        }
+        this.indexedMethods = policies.size();
+        log.info("Indexed tenant filter policies of {} methods in {} repositories", indexedMethods, repositories.size());
+    }
+
+    /**
+     * 仓储接口方法直接命中启动时建立的索引；其他方法（如代理目标类上的实现方法）首次调用时解析并缓存
+     */
+    public TenantFilterPolicy policyOf(Method method) {
+        TenantFilterPolicy policy = policies.get(method);
+        return policy != null ? policy : policies.computeIfAbsent(method, TenantIsolation::resolvePolicy);
+    }
+
+    /**
+     * 方法上的 @TenantFilter 优先（实现类方法会沿接口查找同签名方法），其次是声明该方法的类或接口，都没有时为 DEFAULT
+     */
+    static TenantFilterPolicy resolvePolicy(Method method) {
+        TenantFilter annotation = AnnotatedElementUtils.findMergedAnnotation(method, TenantFilter.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), TenantFilter.class);
+        }
+        return annotation != null ? annotation.value() : TenantFilterPolicy.DEFAULT;
+    }
+
+    /**
+     * 在 policy 下执行 op：当前事务会话的过滤器状态与 policy 不一致时切换，结束后恢复
+     * <p>
+     * 没有事务会话时只传递策略，由事务管理器创建会话时按该策略配置
+     */
+    public <T, X extends Throwable> T execute(TenantFilterPolicy policy, ScopedValue.CallableOp<T, X> op) throws X {
+        calls.get(policy).increment();
+        if (policy == currentPolicy()) {
+            return op.call();
+        }
+
+        Session session = transactionalSession();
+        String target = filterTenant(policy);
+        String previous = session != null ? appliedTenant(session) : null;
+        boolean switched = session != null && !Objects.equals(previous, target);
+        if (switched) {
+            filterSwitches.increment();
+            apply(session, target);
+        }
+        try {
+            return ScopedValue.where(POLICY, policy).call(op);
+        } finally {
+            if (switched) {
+                apply(session, previous);
+            }
+        }
+    }
+
+    public TenantIsolationStats getStats() {
+        Map<TenantFilterPolicy, Long> snapshot = new EnumMap<>(TenantFilterPolicy.class);
+        calls.forEach((policy, count) -> snapshot.put(policy, count.sum()));
+        return new TenantIsolationStats(snapshot, filterSwitches.sum(), indexedMethods);
+    }
+
+    /**
+     * 扫描 domain 下 *.repository 包中的仓储接口，与 TenantFilterInjectorAspect 的切点范围一致
+     */
+    static List<Class<?>> scanRepositories() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        ClassLoader classLoader = TenantIsolation.class.getClassLoader();
+        List<Class<?>> repositories = new ArrayList<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents(REPOSITORY_BASE_PACKAGE)) {
+            String className = candidate.getBeanClassName();
+            if (className != null && ClassUtils.getPackageName(className).endsWith(REPOSITORY_PACKAGE_SUFFIX)) {
+                repositories.add(ClassUtils.resolveClassName(className, classLoader));
+            }
+        }
+        return repositories;
+    }
+
+    private Session transactionalSession() {
+        EntityManager em = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        return em != null ? em.unwrap(Session.class) : null;
+    }
+
+    /**
+     * @return 当前仓储调用的策略，不在仓储调用中时为 DEFAULT
+     */
+    public static TenantFilterPolicy currentPolicy() {
+        return POLICY.isBound() ? POLICY.get() : TenantFilterPolicy.DEFAULT;
+    }
+
+    /**
+     * 按 policy 需要过滤的租户，为 null 时不过滤
+     * <p>
+     * DEFAULT 下超级管理员和没有租户上下文（系统任务）不过滤；FORCE 始终按当前租户过滤
+     */
+    public static String filterTenant(TenantFilterPolicy policy) {
+        return switch (policy) {
+            case SKIP -> null;
+            case FORCE -> TenantContextHolder.getTenantId();
+            case DEFAULT -> {
+                String tenantId = TenantContextHolder.getTenantId();
+                yield !StringUtils.hasText(tenantId) || TenantContextHolder.isSuperAdmin() ? null : tenantId;
+            }
+        };
+    }
+
+    /**
+     * 当前调用需要过滤的租户，为 null 时不过滤
+     */
+    public static String currentFilterTenant() {
+        return filterTenant(currentPolicy());
+    }
+
+    /**
+     * 事务创建会话时调用，按当前策略配置一次过滤器
+     */
+    public static void configure(Session session) {
+        apply(session, currentFilterTenant());
+    }
+
+    /**
+     * 当前事务会话是否已按 tenantId 过滤，是则 QueryDSL 查询无需再追加条件
+     */
+    public static boolean isApplied(EntityManager entityManager, String tenantId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        return session != null && tenantId.equals(appliedTenant(session));
+    }
+
+    /**
+     * @return 会话过滤器当前过滤的租户，未过滤（或从未经过 apply）时为 null
+     */
+    static String appliedTenant(Session session) {
+        return session.getProperties().get(APPLIED_TENANT) instanceof AppliedTenant applied ? applied.tenantId() : null;
+    }
+
+    static void apply(Session session, String tenantId) {
+        if (tenantId == null) {
+            session.disableFilter(FILTER_NAME);
+        } else {
+            session.enableFilter(FILTER_NAME).setParameter(FILTER_PARAMETER, tenantId);
+        }
+        session.setProperty(APPLIED_TENANT, new AppliedTenant(tenantId));
+    }
+
+    /**
+     * 会话属性值需要可序列化，且不能为 null，未过滤时 tenantId 为 null
+     */
+    record AppliedTenant(String tenantId) implements Serializable {
+    }
+}
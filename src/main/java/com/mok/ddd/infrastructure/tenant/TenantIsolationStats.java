@@ -0,0 +1,15 @@
+package com.mok.ddd.infrastructure.tenant;
+
+import com.mok.ddd.infrastructure.tenant.TenantFilter.TenantFilterPolicy;
+
+import java.util.Map;
+
+/**
+ * 租户隔离运行指标快照
+ *
+ * @param calls          各策略下的仓储调用次数
+ * @param filterSwitches 因策略与会话状态不一致而切换过滤器的次数
+ * @param indexedMethods 启动时预解析策略的仓储方法数
+ */
+public record TenantIsolationStats(Map<TenantFilterPolicy, Long> calls, long filterSwitches, int indexedMethods) {
+}
@@ -1,7 +1,11 @@
 package com.mok.ddd.infrastructure.util;
 
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Operation;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Path;
 import com.querydsl.core.types.dsl.PathBuilder;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,4 +35,20 @@ public final class QuerydslUtils {
 
         return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), new QSort(specifiers.toArray(new OrderSpecifier[0])));
     }
+
+    /**
+     * 条件中是否引用了指定字段
+     */
+    public static boolean references(Expression<?> expression, Path<?> path) {
+        if (expression == null) {
+            return false;
+        }
+        if (expression instanceof BooleanBuilder builder) {
+            return references(builder.getValue(), path);
+        }
+        if (expression instanceof Operation<?> operation) {
+            return operation.getArgs().stream().anyMatch(arg -> references(arg, path));
+        }
+        return expression.equals(path);
+    }
 }
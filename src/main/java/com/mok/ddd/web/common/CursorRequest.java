@@ -0,0 +1,17 @@
+package com.mok.ddd.web.common;
+
+import lombok.Data;
+
+/**
+ * 游标分页参数，列表接口带上 cursor 参数（首页为空串）即切换为游标分页
+ */
+@Data
+public class CursorRequest {
+
+    /**
+     * 上一页返回的 nextCursor
+     */
+    private String cursor;
+
+    private int size = 20;
+}
@@ -2,14 +2,18 @@ package com.mok.ddd.web.sys;
 
 import com.mok.ddd.application.sys.dto.auth.LoginRequest;
 import com.mok.ddd.application.sys.dto.auth.LoginResDTO;
+import com.mok.ddd.application.sys.dto.auth.RefreshTokenRequest;
 import com.mok.ddd.common.SysUtil;
+import com.mok.ddd.infrastructure.security.AccessTokenCodec;
 import com.mok.ddd.infrastructure.security.CustomUserDetail;
 import com.mok.ddd.infrastructure.security.JwtTokenProvider;
+import com.mok.ddd.infrastructure.security.TokenSessionDTO;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import com.mok.ddd.web.common.RestResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,10 +28,12 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final AccessTokenCodec accessTokenCodec;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider) {
+    public AuthController(AuthenticationManager authenticationManager, JwtTokenProvider tokenProvider, AccessTokenCodec accessTokenCodec) {
             this.authenticationManager = authenticationManager;
             this.tokenProvider = tokenProvider;
+            this.accessTokenCodec = accessTokenCodec;
     }
 
     @PostMapping("/login")
@@ -47,10 +53,19 @@ public class AuthController {
 
                     SecurityContextHolder.getContext().setAuthentication(authentication);
 
+                    CustomUserDetail principal = (CustomUserDetail) authentication.getPrincipal();
                     String jwt = tokenProvider.createToken(
                             username,
-                            tenantId, (CustomUserDetail)authentication.getPrincipal(), ipAddress, SysUtil.getBrowser(request.getHeader("User-Agent")));
+                            tenantId, principal, ipAddress, SysUtil.getBrowser(request.getHeader("User-Agent")));
 
+                    // 无状态模式：会话 token 作为刷新令牌，请求携带签名的访问令牌
+                    if (accessTokenCodec.isEnabled()) {
+                        return RestResponse.success(new LoginResDTO(
+                                accessTokenCodec.issue(jwt, principal),
+                                username,
+                                tenantId, SysUtil.isSuperTenant(tenantId),
+                                jwt, accessTokenCodec.getAccessTtlMs()));
+                    }
                     return RestResponse.success(new LoginResDTO(
                             jwt,
                             username,
@@ -58,12 +73,37 @@ public class AuthController {
                 });
     }
 
+    /**
+     * 无状态模式下用刷新令牌换取新的访问令牌，刷新令牌即 Redis 会话，被踢出或过期后失效
+     */
+    @PostMapping("/refresh")
+    public RestResponse<LoginResDTO> refresh(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        if (!accessTokenCodec.isEnabled()) {
+            throw new BadCredentialsException("未启用刷新令牌");
+        }
+        String refreshToken = refreshRequest.getRefreshToken();
+        TokenSessionDTO session = tokenProvider.getSession(refreshToken);
+        if (session == null || session.getPrincipal() == null) {
+            throw new BadCredentialsException("刷新令牌无效或已过期");
+        }
+        return RestResponse.success(new LoginResDTO(
+                accessTokenCodec.issue(refreshToken, session.getPrincipal()),
+                session.getUsername(),
+                session.getTenantId(), SysUtil.isSuperTenant(session.getTenantId()),
+                refreshToken, accessTokenCodec.getAccessTtlMs()));
+    }
+
     @PostMapping("/logout")
     public RestResponse<Void> logout(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (org.springframework.util.StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             String jwt = bearerToken.substring(7);
-            tokenProvider.removeToken(jwt);
+            if (accessTokenCodec.isEnabled() && AccessTokenCodec.isSigned(jwt)) {
+                jwt = accessTokenCodec.sessionId(jwt);
+            }
+            if (jwt != null) {
+                tokenProvider.removeToken(jwt);
+            }
         }
         SecurityContextHolder.clearContext();
         return RestResponse.success();
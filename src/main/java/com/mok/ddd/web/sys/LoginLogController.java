@@ -3,6 +3,8 @@ package com.mok.ddd.web.sys;
 import com.mok.ddd.application.sys.dto.log.LoginLogDTO;
 import com.mok.ddd.application.sys.dto.log.LoginLogQuery;
 import com.mok.ddd.application.sys.service.LoginLogService;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.web.common.CursorRequest;
 import com.mok.ddd.web.common.RestResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -25,4 +27,10 @@ public class LoginLogController {
         Page<LoginLogDTO> page = loginLogService.findPage(query.toPredicate(), pageable);
         return RestResponse.success(page);
     }
+
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAuthority('log:login:list')")
+    public RestResponse<CursorSlice<LoginLogDTO>> findSlice(LoginLogQuery query, CursorRequest cursorRequest) {
+        return RestResponse.success(loginLogService.findSlice(query.toPredicate(), cursorRequest.getCursor(), cursorRequest.getSize()));
+    }
 }
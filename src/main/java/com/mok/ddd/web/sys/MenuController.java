@@ -3,6 +3,7 @@ package com.mok.ddd.web.sys;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
 import com.mok.ddd.application.sys.service.MenuService;
+import com.mok.ddd.application.sys.service.MenuTreeCache;
 import com.mok.ddd.web.common.RestResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,11 +17,12 @@ import java.util.List;
 public class MenuController {
 
     private final MenuService menuService;
+    private final MenuTreeCache menuTreeCache;
 
     @GetMapping("/tree")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     public RestResponse<List<MenuDTO>> getTree() {
-        return RestResponse.success(menuService.buildMenuTree(menuService.findAll()));
+        return RestResponse.success(menuTreeCache.globalMenus());
     }
 
     @PostMapping
@@ -45,6 +47,6 @@ public class MenuController {
 
     @GetMapping("/tree-options")
     public RestResponse<List<MenuOptionDTO>> getMenuTreeOptions() {
-        return RestResponse.success(menuService.buildMenuAndPermissionTree());
+        return RestResponse.success(menuTreeCache.menuOptions());
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.mok.ddd.web.sys;
+
+import com.mok.ddd.application.sys.service.TenantCacheService;
+import com.mok.ddd.infrastructure.cache.CacheStats;
+import com.mok.ddd.infrastructure.log.writer.LogWriterStats;
+import com.mok.ddd.infrastructure.log.writer.LoginLogWriter;
+import com.mok.ddd.infrastructure.log.writer.OperLogWriter;
+import com.mok.ddd.infrastructure.redis.RedisMetrics;
+import com.mok.ddd.infrastructure.redis.RedisMetricsSnapshot;
+import com.mok.ddd.infrastructure.tenant.TenantIsolation;
+import com.mok.ddd.infrastructure.tenant.TenantIsolationStats;
+import com.mok.ddd.web.common.RestResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 进程内运行统计，每个节点各自统计
+ */
+@RestController
+@RequestMapping("/api/monitor")
+@RequiredArgsConstructor
+public class MonitorController {
+
+    private final TenantCacheService tenantCacheService;
+    private final OperLogWriter operLogWriter;
+    private final LoginLogWriter loginLogWriter;
+    private final TenantIsolation tenantIsolation;
+    private final RedisMetrics redisMetrics;
+
+    @GetMapping("/tenant-cache")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public RestResponse<CacheStats> tenantCache() {
+        return RestResponse.success(tenantCacheService.getStats());
+    }
+
+    /**
+     * 日志写入队列深度、丢弃数和批次耗时
+     */
+    @GetMapping("/log-writers")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public RestResponse<List<LogWriterStats>> logWriters() {
+        return RestResponse.success(List.of(operLogWriter.getStats(), loginLogWriter.getStats()));
+    }
+
+    /**
+     * 各租户过滤策略下的仓储调用次数和过滤器切换次数
+     */
+    @GetMapping("/tenant-isolation")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public RestResponse<TenantIsolationStats> tenantIsolation() {
+        return RestResponse.success(tenantIsolation.getStats());
+    }
+
+    /**
+     * Redis 访问统计，用于判断连接池或某个调用方是否是瓶颈
+     */
+    @GetMapping("/redis")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public RestResponse<RedisMetricsSnapshot> redis() {
+        return RestResponse.success(redisMetrics.snapshot());
+    }
+
+    /**
+     * 清空 Redis 访问统计，便于观察一段时间内的情况
+     */
+    @DeleteMapping("/redis")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public RestResponse<Void> resetRedis() {
+        redisMetrics.reset();
+        return RestResponse.success();
+    }
+}
@@ -1,41 +1,88 @@
 package com.mok.ddd.web.sys;
 
-import com.mok.ddd.application.sys.dto.tenant.TenantOptionDTO;
-import com.mok.ddd.application.sys.service.TenantService;
+import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
+import com.mok.ddd.application.sys.service.TenantCacheService;
 import com.mok.ddd.infrastructure.log.annotation.OperLog;
 import com.mok.ddd.infrastructure.log.enums.BusinessType;
-import com.mok.ddd.infrastructure.security.JwtTokenProvider;
-import com.mok.ddd.infrastructure.security.OnlineUserDTO;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.infrastructure.security.*;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.mok.ddd.web.common.CursorRequest;
 import com.mok.ddd.web.common.RestResponse;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/online-user")
 public class OnlineUserController {
 
+    /**
+     * 流式导出每批读取的会话数
+     */
+    private static final int STREAM_BATCH_SIZE = 500;
+
     private final JwtTokenProvider tokenProvider;
-    private final TenantService tenantService;
+    private final TenantCacheService tenantCacheService;
+    private final JsonMapper jsonMapper;
 
-    public OnlineUserController(JwtTokenProvider tokenProvider, TenantService tenantService) {
+    public OnlineUserController(JwtTokenProvider tokenProvider, TenantCacheService tenantCacheService, JsonMapper jsonMapper) {
         this.tokenProvider = tokenProvider;
-        this.tenantService = tenantService;
+        this.tenantCacheService = tenantCacheService;
+        this.jsonMapper = jsonMapper;
     }
 
     @GetMapping("/list")
     @PreAuthorize("hasAuthority('admin:online-user')")
     public RestResponse<List<OnlineUserDTO>> list() {
-        Map<String, String> tenantMap = tenantService.findOptions(null).stream()
-                .collect(Collectors.toMap(TenantOptionDTO::getTenantId, TenantOptionDTO::getName, (a, b) -> a));
         String currentTenantId = TenantContextHolder.getTenantId();
         boolean isSuper = TenantContextHolder.isSuperTenant();
 
-        return RestResponse.success(tokenProvider.getAllOnlineUsers(tenantMap, currentTenantId, isSuper));
+        return RestResponse.success(tokenProvider.getAllOnlineUsers(this::tenantName, currentTenantId, isSuper));
+    }
+
+    /**
+     * 按会话游标分页，支持租户、用户名前缀、IP、登录时间范围过滤
+     */
+    @GetMapping(value = "/list", params = "cursor")
+    @PreAuthorize("hasAuthority('admin:online-user')")
+    public RestResponse<CursorSlice<OnlineSessionDTO>> findSlice(OnlineSessionQuery query, CursorRequest cursorRequest) {
+        CursorSlice<TokenSessionDTO> slice = tokenProvider.findSessions(scoped(query), cursorRequest.getCursor(),
+                cursorRequest.getSize());
+        List<OnlineSessionDTO> content = slice.content().stream()
+                .map(session -> OnlineSessionDTO.of(session, tenantName(session.getTenantId())))
+                .toList();
+        return RestResponse.success(new CursorSlice<>(content, slice.nextCursor(), slice.hasNext()));
+    }
+
+    /**
+     * 以 NDJSON 逐批写出全部匹配的会话，每行一个会话，不在内存中汇总
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAuthority('admin:online-user')")
+    public ResponseEntity<StreamingResponseBody> stream(OnlineSessionQuery query) {
+        // 写出在异步线程中进行，租户上下文需要在这里确定
+        OnlineSessionQuery scoped = scoped(query);
+        StreamingResponseBody body = out -> {
+            String cursor = null;
+            CursorSlice<TokenSessionDTO> slice;
+            do {
+                slice = tokenProvider.findSessions(scoped, cursor, STREAM_BATCH_SIZE);
+                for (TokenSessionDTO session : slice.content()) {
+                    out.write(jsonMapper.writeValueAsBytes(OnlineSessionDTO.of(session, tenantName(session.getTenantId()))));
+                    out.write('\n');
+                }
+                out.flush();
+                cursor = slice.nextCursor();
+            } while (slice.hasNext());
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PostMapping("/kickout")
@@ -44,8 +91,45 @@ public class OnlineUserController {
     public RestResponse<Void> kickout(@RequestBody Map<String, String> body) {
         String token = body.get("token");
         if (token != null) {
-            tokenProvider.removeToken(token);
+            revoke(List.of(token));
         }
         return RestResponse.success();
     }
-}
\ No newline at end of file
+
+    /**
+     * 批量踢出，返回实际下线的会话数
+     */
+    @PostMapping("/kickout/batch")
+    @PreAuthorize("hasAuthority('admin:online-user:kickout')")
+    @OperLog(title = "在线用户", businessType = BusinessType.FORCE)
+    public RestResponse<Integer> kickoutBatch(@RequestBody List<String> tokens) {
+        return RestResponse.success(revoke(tokens));
+    }
+
+    /**
+     * 非超级租户只能踢出本租户的会话
+     */
+    private int revoke(List<String> tokens) {
+        if (TenantContextHolder.isSuperTenant()) {
+            return tokenProvider.revokeTokens(tokens);
+        }
+        return tokenProvider.revokeTenantTokens(tokens, TenantContextHolder.getTenantId());
+    }
+
+    /**
+     * 非超级租户只能查询本租户
+     */
+    private static OnlineSessionQuery scoped(OnlineSessionQuery query) {
+        if (!TenantContextHolder.isSuperTenant()) {
+            query.setTenantId(TenantContextHolder.getTenantId());
+        } else if (query.getTenantId() != null && query.getTenantId().isBlank()) {
+            query.setTenantId(null);
+        }
+        return query;
+    }
+
+    private String tenantName(String tenantId) {
+        TenantDTO tenant = tenantId != null ? tenantCacheService.findByTenantId(tenantId) : null;
+        return tenant != null ? tenant.getName() : null;
+    }
+}
@@ -3,6 +3,8 @@ package com.mok.ddd.web.sys;
 import com.mok.ddd.application.sys.dto.log.OperLogDTO;
 import com.mok.ddd.application.sys.dto.log.OperLogQuery;
 import com.mok.ddd.application.sys.service.OperLogService;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.web.common.CursorRequest;
 import com.mok.ddd.web.common.RestResponse;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
@@ -26,4 +28,10 @@ public class OperLogController {
         Page<@NonNull OperLogDTO> page = operLogService.findPage(query.toPredicate(), pageable);
         return RestResponse.success(page);
     }
+
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAuthority('log:oper:list')")
+    public RestResponse<CursorSlice<OperLogDTO>> findSlice(OperLogQuery query, CursorRequest cursorRequest) {
+        return RestResponse.success(operLogService.findSlice(query.toPredicate(), cursorRequest.getCursor(), cursorRequest.getSize()));
+    }
 }
@@ -6,7 +6,9 @@ import com.mok.ddd.common.Const;
 import com.mok.ddd.common.PasswordGenerator;
 import com.mok.ddd.infrastructure.log.annotation.OperLog;
 import com.mok.ddd.infrastructure.log.enums.BusinessType;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.mok.ddd.web.common.CursorRequest;
 import com.mok.ddd.web.common.RestResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -33,6 +35,12 @@ public class UserController {
         return RestResponse.success(page);
     }
 
+    @GetMapping(params = "cursor")
+    @PreAuthorize("hasAuthority('user:list')")
+    public RestResponse<CursorSlice<UserDTO>> findSlice(UserQuery query, CursorRequest cursorRequest) {
+        return RestResponse.success(userService.findSlice(query.toPredicate(), cursorRequest.getCursor(), cursorRequest.getSize()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('user:list')")
     public RestResponse<UserDTO> getById(@PathVariable Long id) {
@@ -0,0 +1,180 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.application.sys.dto.menu.MenuDTO;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
+import com.mok.ddd.application.sys.event.UserRolesChangedEvent;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.domain.sys.model.Tenant;
+import com.mok.ddd.domain.sys.model.User;
+import com.mok.ddd.domain.sys.repository.PermissionRepository;
+import com.mok.ddd.domain.sys.repository.TenantRepository;
+import com.mok.ddd.domain.sys.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountAccessService 账户菜单权限读模型测试")
+class AccountAccessServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PermissionRepository permissionRepository;
+    @Mock
+    private TenantRepository tenantRepository;
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private MenuTreeCache menuTreeCache;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private AccountAccessService accountAccessService;
+
+    @BeforeEach
+    void setUp() {
+        accountAccessService = new AccountAccessService(userRepository, permissionRepository, tenantRepository,
+                permissionService, menuTreeCache, redisTemplate, listenerContainer);
+    }
+
+    private User user(Long id, String tenantId, String username, boolean tenantAdmin) {
+        User user = mock(User.class);
+        lenient().when(user.getId()).thenReturn(id);
+        lenient().when(user.getTenantId()).thenReturn(tenantId);
+        lenient().when(user.getUsername()).thenReturn(username);
+        lenient().when(user.getIsTenantAdmin()).thenReturn(tenantAdmin);
+        return user;
+    }
+
+    @Test
+    @DisplayName("普通用户的查询次数与角色数量无关")
+    void normalUser_fixedQueries() {
+        User user = user(1L, "t1", "user", false);
+        Set<Long> roleIds = Set.of(1L, 2L, 3L);
+        when(userRepository.findRoleIdsByUserId(1L)).thenReturn(List.copyOf(roleIds));
+        when(menuTreeCache.roleMenus(roleIds)).thenReturn(List.of(new MenuDTO()));
+        when(permissionService.getPermissionsByRoleIds(roleIds)).thenReturn(Set.of("user:list"));
+
+        AccountAccessService.AccountAccess access = accountAccessService.getAccess(user);
+
+        assertEquals(Set.of("user:list"), access.permissions());
+        assertEquals(1, access.menus().size());
+        assertEquals(roleIds, access.roleIds());
+        verify(userRepository, times(1)).findRoleIdsByUserId(1L);
+        verify(menuTreeCache, times(1)).roleMenus(roleIds);
+        verify(permissionService, times(1)).getPermissionsByRoleIds(roleIds);
+    }
+
+    @Test
+    @DisplayName("命中缓存不再查询，用户角色变更后重新加载")
+    void cachedUntilUserRolesChanged() {
+        User user = user(1L, "t1", "user", false);
+        when(userRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(1L));
+
+        accountAccessService.getAccess(user);
+        accountAccessService.getAccess(user);
+        verify(userRepository, times(1)).findRoleIdsByUserId(1L);
+
+        accountAccessService.onUserRolesChanged(new UserRolesChangedEvent(this, 1L));
+        accountAccessService.getAccess(user);
+
+        verify(userRepository, times(2)).findRoleIdsByUserId(1L);
+        verify(redisTemplate).convertAndSend(Const.Channel.ACCOUNT_ACCESS_EVICT, "user:1");
+    }
+
+    @Test
+    @DisplayName("角色授权只失效拥有该角色的用户")
+    void roleGrant_evictsAffectedUsers() {
+        User user1 = user(1L, "t1", "user1", false);
+        User user2 = user(2L, "t1", "user2", false);
+        when(userRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(10L));
+        when(userRepository.findRoleIdsByUserId(2L)).thenReturn(List.of(20L));
+        accountAccessService.getAccess(user1);
+        accountAccessService.getAccess(user2);
+
+        accountAccessService.onPermissionChanged(new PermissionChangedEvent(this, Set.of(10L), false));
+        accountAccessService.getAccess(user1);
+        accountAccessService.getAccess(user2);
+
+        verify(userRepository, times(2)).findRoleIdsByUserId(1L);
+        verify(userRepository, times(1)).findRoleIdsByUserId(2L);
+    }
+
+    @Test
+    @DisplayName("租户管理员按套餐加载，套餐授权后失效")
+    void tenantAdmin_packageChanged() {
+        User admin = user(1L, "t1", "admin", true);
+        Tenant tenant = mock(Tenant.class);
+        when(tenant.getPackageId()).thenReturn(5L);
+        when(tenantRepository.findByTenantId("t1")).thenReturn(Optional.of(tenant));
+        when(permissionRepository.findCodesByPackageId(5L)).thenReturn(List.of("role:list"));
+
+        AccountAccessService.AccountAccess access = accountAccessService.getAccess(admin);
+        assertEquals(Set.of("role:list"), access.permissions());
+        assertEquals(5L, access.packageId());
+
+        accountAccessService.onTenantPackageChanged(new TenantPackageChangedEvent(this, 5L));
+        accountAccessService.getAccess(admin);
+
+        verify(permissionRepository, times(2)).findCodesByPackageId(5L);
+        verify(menuTreeCache, times(2)).packageMenus(5L);
+        verify(userRepository, never()).findRoleIdsByUserId(any());
+    }
+
+    @Test
+    @DisplayName("租户没有套餐时菜单和权限为空")
+    void tenantAdmin_noPackage() {
+        User admin = user(1L, "t1", "admin", true);
+        when(tenantRepository.findByTenantId("t1")).thenReturn(Optional.empty());
+
+        AccountAccessService.AccountAccess access = accountAccessService.getAccess(admin);
+
+        assertTrue(access.menus().isEmpty());
+        assertTrue(access.permissions().isEmpty());
+        verify(menuTreeCache, never()).packageMenus(any());
+    }
+
+    @Test
+    @DisplayName("超级管理员拥有全部权限")
+    void superAdmin() {
+        User root = user(1L, Const.DEFAULT_TENANT_ID, Const.SUPER_ADMIN_USERNAME, false);
+        when(permissionService.getAllPermissionCodes()).thenReturn(Set.of("perm1"));
+
+        AccountAccessService.AccountAccess access = accountAccessService.getAccess(root);
+
+        assertTrue(access.permissions().contains(Const.SUPER_ADMIN_ROLE_CODE));
+        assertTrue(access.permissions().contains("perm1"));
+        verify(menuTreeCache).globalMenus();
+    }
+
+    @Test
+    @DisplayName("菜单树按作用域取自 MenuTreeCache，不随用户缓存")
+    void menusServedFromTreeCache() {
+        User user = user(1L, "t1", "user", false);
+        when(userRepository.findRoleIdsByUserId(1L)).thenReturn(List.of(1L));
+        List<MenuDTO> before = List.of(new MenuDTO());
+        List<MenuDTO> after = List.of(new MenuDTO(), new MenuDTO());
+        when(menuTreeCache.roleMenus(Set.of(1L))).thenReturn(before, after);
+
+        assertSame(before, accountAccessService.getAccess(user).menus());
+        assertSame(after, accountAccessService.getAccess(user).menus());
+        verify(userRepository, times(1)).findRoleIdsByUserId(1L);
+    }
+}
@@ -2,8 +2,11 @@ package com.mok.ddd.application.sys.service;
 
 import com.mok.ddd.application.sys.dto.log.LoginLogDTO;
 import com.mok.ddd.application.sys.dto.log.LoginLogQuery;
-import com.mok.ddd.domain.sys.model.LoginLog;
+import com.mok.ddd.domain.sys.model.QLoginLog;
 import com.mok.ddd.domain.sys.repository.LoginLogRepository;
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import com.mok.ddd.infrastructure.config.PageCountProperties;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -11,9 +14,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.List;
 
@@ -31,16 +36,14 @@ class LoginLogServiceTest {
     @InjectMocks
     private LoginLogService loginLogService;
 
+    @Spy
+    private PageFetcher pageFetcher = new PageFetcher(mock(JdbcTemplate.class), new PageCountProperties());
+
     @Mock
     private LoginLogRepository loginLogRepository;
 
-    @Test
-    @DisplayName("创建登录日志成功")
-    void createLoginLog_Success() {
-        LoginLog log = mock(LoginLog.class);
-        loginLogService.createLoginLog(log);
-        verify(loginLogRepository, times(1)).save(log);
-    }
+    @Spy
+    private LogStorageProperties logStorageProperties = new LogStorageProperties();
 
     @Nested
     @DisplayName("findPage 分页查询测试")
@@ -91,6 +94,8 @@ class LoginLogServiceTest {
             // Assert
             assertNotNull(result);
             assertEquals(1, result.getTotalElements());
+            // 总数按登录日志表计算
+            verify(countQuery).from(QLoginLog.loginLog);
         }
     }
 }
@@ -1,10 +1,12 @@
 package com.mok.ddd.application.sys.service;
 
+import com.mok.ddd.application.exception.BizException;
 import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
-import com.mok.ddd.common.Const;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.Menu;
 import com.mok.ddd.domain.sys.model.Permission;
@@ -19,6 +21,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.util.*;
@@ -45,6 +49,10 @@ class MenuServiceTest {
     private TenantRepository tenantRepository;
     @Mock
     private TenantPackageService tenantPackageService;
+    @Mock
+    private MenuSubtreeResolver subtreeResolver;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private MockedStatic<Menu> mockedMenu;
     private MockedStatic<TenantContextHolder> mockedTenantContext;
@@ -76,9 +84,12 @@ class MenuServiceTest {
             when(menuRepository.findById(1L)).thenReturn(Optional.of(parent));
             mockedMenu.when(() -> Menu.create(any(), any(), any(), any(), any(), any(), any())).thenReturn(mockEntity);
             when(menuRepository.save(mockEntity)).thenReturn(mockEntity);
+            when(mockEntity.getId()).thenReturn(5L);
 
             menuService.createMenu(dto);
             verify(menuRepository).save(mockEntity);
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof MenuChangedEvent changed
+                    && changed.getMenuIds().equals(Set.of(5L))));
         }
         
         @Test
@@ -125,6 +136,18 @@ class MenuServiceTest {
             verify(menuRepository).save(mockEntity);
         }
         
+        @Test
+        void updateMenu_MoveIntoOwnSubtree_ThrowsException() {
+            MenuDTO dto = new MenuDTO();
+            dto.setId(1L);
+            dto.setParentId(3L);
+            when(menuRepository.findById(1L)).thenReturn(Optional.of(mock(Menu.class)));
+            when(subtreeResolver.isInSubtree(1L, 3L)).thenReturn(true);
+
+            assertThrows(BizException.class, () -> menuService.updateMenu(dto));
+            verify(menuRepository, never()).save(any());
+        }
+
         @Test
         void updateMenu_NotFound_ThrowsException() {
             MenuDTO dto = new MenuDTO();
@@ -171,32 +194,31 @@ class MenuServiceTest {
         @Test
         void deleteById_Success() {
             Long menuId = 1L;
-            Menu childMenu = mock(Menu.class);
-            when(childMenu.getId()).thenReturn(2L);
-            when(menuRepository.findByParentId(menuId)).thenReturn(List.of(childMenu));
-            when(menuRepository.findByParentId(2L)).thenReturn(Collections.emptyList());
-            when(menuRepository.findRoleIdsByMenuIds(anyList())).thenReturn(List.of(10L));
+            when(subtreeResolver.subtreeIds(menuId)).thenReturn(List.of(1L, 2L));
+            when(menuRepository.findRoleIdsByMenuIds(List.of(1L, 2L))).thenReturn(List.of(10L));
 
             menuService.deleteById(menuId);
 
             verify(permissionRepository).deleteRolePermissionsByMenuIds(anyList());
             verify(permissionRepository).deleteByMenuIds(anyList());
             verify(menuRepository).deleteRoleMenuByMenuIds(anyList());
-            verify(menuRepository).deleteAllById(anyList());
-            verify(redisTemplate).delete(Const.CacheKey.MENU_TREE);
+            verify(menuRepository).deleteAllById(List.of(1L, 2L));
             verify(redisTemplate).delete(anyList());
+            verify(eventPublisher).publishEvent(any(PermissionChangedEvent.class));
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) -> event instanceof MenuChangedEvent changed
+                    && changed.getMenuIds().equals(Set.of(1L, 2L))));
         }
         
         @Test
         void deleteById_NoRoles_Success() {
             Long menuId = 1L;
-            when(menuRepository.findByParentId(menuId)).thenReturn(Collections.emptyList());
+            when(subtreeResolver.subtreeIds(menuId)).thenReturn(List.of(menuId));
             when(menuRepository.findRoleIdsByMenuIds(anyList())).thenReturn(Collections.emptyList());
 
             menuService.deleteById(menuId);
 
-            verify(redisTemplate).delete(Const.CacheKey.MENU_TREE);
-            verify(redisTemplate, times(1)).delete(anyString());
+            verify(redisTemplate, never()).delete(anyList());
+            verify(eventPublisher).publishEvent(any(MenuChangedEvent.class));
         }
     }
 
@@ -327,7 +349,7 @@ class MenuServiceTest {
             when(mockMenu.getPath()).thenReturn("/path");
             when(mockMenu.getPermissions()).thenReturn(Set.of(mock(Permission.class)));
             
-            when(menuRepository.findAll()).thenReturn(List.of(mockMenu));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(mockMenu));
 
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertNotNull(result);
@@ -348,7 +370,7 @@ class MenuServiceTest {
             when(mockMenu.getPath()).thenReturn("/path");
             when(mockMenu.getParent()).thenReturn(parent);
             
-            when(menuRepository.findAll()).thenReturn(List.of(parent, mockMenu));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(parent, mockMenu));
 
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertFalse(result.isEmpty());
@@ -378,7 +400,7 @@ class MenuServiceTest {
             when(child.getPath()).thenReturn("/child");
             when(child.getParent()).thenReturn(parent);
             
-            when(menuRepository.findAll()).thenReturn(List.of(parent, child));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(parent, child));
             
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             
@@ -403,7 +425,7 @@ class MenuServiceTest {
             when(mockMenu.getPath()).thenReturn("/path");
             when(mockMenu.getPermissions()).thenReturn(null);
             
-            when(menuRepository.findAll()).thenReturn(List.of(mockMenu));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(mockMenu));
 
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertNotNull(result);
@@ -429,7 +451,7 @@ class MenuServiceTest {
             Permission mockPermission = mock(Permission.class);
             when(mockPermission.getId()).thenReturn(100L);
             when(mockMenu.getPermissions()).thenReturn(Set.of(mockPermission));
-            when(menuRepository.findAll()).thenReturn(List.of(mockMenu));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(mockMenu));
 
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertNotNull(result);
@@ -452,7 +474,7 @@ class MenuServiceTest {
             when(mockMenu.getId()).thenReturn(1L);
             when(mockMenu.getPath()).thenReturn("/path");
             when(mockMenu.getPermissions()).thenReturn(null);
-            when(menuRepository.findAll()).thenReturn(List.of(mockMenu));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(mockMenu));
 
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertNotNull(result);
@@ -508,7 +530,7 @@ class MenuServiceTest {
             when(menuChild.getPath()).thenReturn("/child");
             when(menuChild.getParent()).thenReturn(menuWithChildrenNoPath);
             
-            when(menuRepository.findAll()).thenReturn(List.of(menuWithChildrenNoPath, menuChild));
+            when(menuRepository.findAllWithPermissions()).thenReturn(List.of(menuWithChildrenNoPath, menuChild));
             
             List<MenuOptionDTO> result = menuService.buildMenuAndPermissionTree();
             assertEquals(1, result.size());
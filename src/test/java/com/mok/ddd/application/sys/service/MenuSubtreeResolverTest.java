@@ -0,0 +1,68 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.domain.sys.repository.MenuRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MenuSubtreeResolver 菜单子树解析测试")
+class MenuSubtreeResolverTest {
+
+    @InjectMocks
+    private MenuSubtreeResolver resolver;
+
+    @Mock
+    private MenuRepository menuRepository;
+
+    private static Object[] row(Long id, Long parentId) {
+        return new Object[]{id, parentId};
+    }
+
+    @Test
+    @DisplayName("一次查询解析任意深度的子树，根节点在首位")
+    void subtreeIds_singleQuery() {
+        when(menuRepository.findAllIdAndParentId()).thenReturn(List.of(
+                row(1L, null), row(2L, 1L), row(3L, 2L), row(4L, 3L), row(5L, 1L), row(6L, null), row(7L, 6L)));
+
+        List<Long> ids = resolver.subtreeIds(1L);
+
+        assertEquals(1L, ids.getFirst());
+        assertEquals(List.of(1L, 2L, 5L, 3L, 4L), ids);
+        verify(menuRepository, times(1)).findAllIdAndParentId();
+    }
+
+    @Test
+    @DisplayName("叶子或不存在的菜单只返回自身")
+    void subtreeIds_leaf() {
+        when(menuRepository.findAllIdAndParentId()).thenReturn(List.<Object[]>of(row(1L, null)));
+
+        assertEquals(List.of(99L), resolver.subtreeIds(99L));
+    }
+
+    @Test
+    @DisplayName("父子关系成环时不会死循环")
+    void walk_cycle() {
+        assertEquals(List.of(1L, 2L), MenuSubtreeResolver.walk(Map.of(1L, List.of(2L), 2L, List.of(1L)), 1L));
+    }
+
+    @Test
+    @DisplayName("判断是否为自身或后代")
+    void isInSubtree() {
+        when(menuRepository.findAllIdAndParentId()).thenReturn(List.of(row(1L, null), row(2L, 1L), row(3L, 2L)));
+
+        assertTrue(resolver.isInSubtree(1L, 3L));
+        assertTrue(resolver.isInSubtree(1L, 1L));
+        assertFalse(resolver.isInSubtree(3L, 1L));
+        assertFalse(resolver.isInSubtree(1L, null));
+    }
+}
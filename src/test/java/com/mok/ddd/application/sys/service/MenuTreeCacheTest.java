@@ -0,0 +1,205 @@
+package com.mok.ddd.application.sys.service;
+
+import com.mok.ddd.application.sys.dto.menu.MenuDTO;
+import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
+import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
+import com.mok.ddd.application.sys.mapper.MenuMapper;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.domain.sys.model.Menu;
+import com.mok.ddd.domain.sys.repository.MenuRepository;
+import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MenuTreeCache 菜单树缓存测试")
+class MenuTreeCacheTest {
+
+    @Mock
+    private MenuRepository menuRepository;
+    @Mock
+    private MenuService menuService;
+    @Mock
+    private MenuMapper menuMapper;
+    @Mock
+    private TenantCacheService tenantCacheService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private MenuTreeCache menuTreeCache;
+
+    @BeforeEach
+    void setUp() {
+        menuTreeCache = new MenuTreeCache(menuRepository, menuService, menuMapper, tenantCacheService, jsonMapper,
+                redisTemplate, listenerContainer);
+        lenient().when(menuService.buildMenuTree(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static MenuDTO menu(Long id, String name) {
+        MenuDTO dto = new MenuDTO();
+        dto.setId(id);
+        dto.setName(name);
+        return dto;
+    }
+
+    private void stubMenus(List<Menu> entities, MenuDTO... menus) {
+        when(menuMapper.toDtoList(entities)).thenAnswer(_ -> new ArrayList<>(List.of(menus)));
+    }
+
+    @Test
+    @DisplayName("全局菜单树只构建一次，序列化时输出缓存的 JSON")
+    void globalMenus_cachedAndSerialized() {
+        List<Menu> entities = List.of(mock(Menu.class));
+        when(menuRepository.findAllWithPermissions()).thenReturn(entities);
+        MenuDTO menu = menu(1L, "系统管理");
+        stubMenus(entities, menu);
+
+        List<MenuDTO> tree = menuTreeCache.globalMenus();
+        String expected = jsonMapper.writeValueAsString(List.of(menu));
+        menu.setName("已修改");
+
+        assertEquals(1, menuTreeCache.globalMenus().size());
+        assertEquals(expected, jsonMapper.writeValueAsString(tree));
+        verify(menuRepository, times(1)).findAllWithPermissions();
+        assertEquals(1, menuTreeCache.getStats().loadCount());
+    }
+
+    @Test
+    @DisplayName("相同角色集合共享同一棵树，与角色顺序无关")
+    void roleMenus_sharedByFingerprint() {
+        List<Menu> entities = List.of(mock(Menu.class));
+        when(menuRepository.findWithPermissionsByRoleIds(any())).thenReturn(entities);
+        stubMenus(entities, menu(1L, "用户管理"));
+
+        List<MenuDTO> first = menuTreeCache.roleMenus(Set.of(1L, 2L));
+        List<MenuDTO> second = menuTreeCache.roleMenus(Set.of(2L, 1L));
+
+        assertSame(first, second);
+        verify(menuRepository, times(1)).findWithPermissionsByRoleIds(any());
+        assertTrue(menuTreeCache.roleMenus(Set.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("角色授权只失效包含该角色的树")
+    void roleGrant_evictsMatchingRoleSets() {
+        List<Menu> entities = List.of(mock(Menu.class));
+        when(menuRepository.findWithPermissionsByRoleIds(any())).thenReturn(entities);
+        stubMenus(entities, menu(1L, "用户管理"));
+        menuTreeCache.roleMenus(Set.of(1L));
+        menuTreeCache.roleMenus(Set.of(2L));
+
+        menuTreeCache.onPermissionChanged(new PermissionChangedEvent(this, Set.of(1L), false));
+        menuTreeCache.roleMenus(Set.of(1L));
+        menuTreeCache.roleMenus(Set.of(2L));
+
+        verify(menuRepository, times(2)).findWithPermissionsByRoleIds(Set.of(1L));
+        verify(menuRepository, times(1)).findWithPermissionsByRoleIds(Set.of(2L));
+        verify(redisTemplate).convertAndSend(Const.Channel.MENU_TREE_EVICT, "role:1");
+    }
+
+    @Test
+    @DisplayName("菜单变更失效全局树和包含该菜单的树")
+    void menuChanged_evictsGlobalAndContainingTrees() {
+        List<Menu> global = List.of(mock(Menu.class));
+        List<Menu> role1 = List.of(mock(Menu.class));
+        List<Menu> role2 = List.of(mock(Menu.class));
+        when(menuRepository.findAllWithPermissions()).thenReturn(global);
+        when(menuRepository.findWithPermissionsByRoleIds(Set.of(1L))).thenReturn(role1);
+        when(menuRepository.findWithPermissionsByRoleIds(Set.of(2L))).thenReturn(role2);
+        stubMenus(global, menu(10L, "a"), menu(20L, "b"));
+        stubMenus(role1, menu(10L, "a"));
+        stubMenus(role2, menu(20L, "b"));
+        menuTreeCache.globalMenus();
+        menuTreeCache.roleMenus(Set.of(1L));
+        menuTreeCache.roleMenus(Set.of(2L));
+
+        menuTreeCache.onMenuChanged(new MenuChangedEvent(this, Set.of(10L)));
+        menuTreeCache.globalMenus();
+        menuTreeCache.roleMenus(Set.of(1L));
+        menuTreeCache.roleMenus(Set.of(2L));
+
+        verify(menuRepository, times(2)).findAllWithPermissions();
+        verify(menuRepository, times(2)).findWithPermissionsByRoleIds(Set.of(1L));
+        verify(menuRepository, times(1)).findWithPermissionsByRoleIds(Set.of(2L));
+    }
+
+    @Test
+    @DisplayName("套餐授权失效该套餐的菜单树和可分配树")
+    void packageChanged_evictsPackageTrees() {
+        List<Menu> entities = List.of(mock(Menu.class));
+        when(menuRepository.findWithPermissionsByPackageId(5L)).thenReturn(entities);
+        stubMenus(entities, menu(1L, "用户管理"));
+        menuTreeCache.packageMenus(5L);
+        menuTreeCache.packageMenus(5L);
+
+        menuTreeCache.onTenantPackageChanged(new TenantPackageChangedEvent(this, 5L));
+        menuTreeCache.packageMenus(5L);
+
+        verify(menuRepository, times(2)).findWithPermissionsByPackageId(5L);
+    }
+
+    @Test
+    @DisplayName("可分配树按租户套餐取，没有套餐时为空数组")
+    void menuOptions_byTenantPackage() {
+        MenuOptionDTO option = new MenuOptionDTO();
+        option.setId(1L);
+        option.setName("用户管理");
+        when(menuService.buildMenuAndPermissionTree(5L)).thenReturn(List.of(option));
+        TenantDTO withPackage = new TenantDTO();
+        withPackage.setPackageId(5L);
+        when(tenantCacheService.findByTenantId("t1")).thenReturn(withPackage);
+        when(tenantCacheService.findByTenantId("t2")).thenReturn(new TenantDTO());
+
+        try (MockedStatic<TenantContextHolder> context = mockStatic(TenantContextHolder.class)) {
+            context.when(TenantContextHolder::getTenantId).thenReturn("t1");
+            List<MenuOptionDTO> options = menuTreeCache.menuOptions();
+            menuTreeCache.menuOptions();
+            assertEquals(List.of(option), options);
+            assertEquals(jsonMapper.writeValueAsString(List.of(option)), jsonMapper.writeValueAsString(options));
+
+            context.when(TenantContextHolder::getTenantId).thenReturn("t2");
+            assertEquals("[]", jsonMapper.writeValueAsString(menuTreeCache.menuOptions()));
+        }
+        verify(menuService, times(1)).buildMenuAndPermissionTree(5L);
+    }
+
+    @Test
+    @DisplayName("加载期间发生失效不回写缓存")
+    void invalidatedDuringLoad_notCached() {
+        List<Menu> entities = List.of(mock(Menu.class));
+        when(menuRepository.findAllWithPermissions()).thenReturn(entities);
+        when(menuMapper.toDtoList(entities)).thenAnswer(_ -> {
+            menuTreeCache.evictLocal("menu:1");
+            return new ArrayList<>(List.of(menu(1L, "系统管理")));
+        });
+
+        menuTreeCache.globalMenus();
+        menuTreeCache.globalMenus();
+
+        verify(menuRepository, times(2)).findAllWithPermissions();
+    }
+}
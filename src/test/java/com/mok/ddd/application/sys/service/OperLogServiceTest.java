@@ -3,6 +3,9 @@ package com.mok.ddd.application.sys.service;
 import com.mok.ddd.application.sys.dto.log.OperLogDTO;
 import com.mok.ddd.application.sys.dto.log.OperLogQuery;
 import com.mok.ddd.domain.sys.repository.OperLogRepository;
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import com.mok.ddd.infrastructure.config.PageCountProperties;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -10,8 +13,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.util.List;
 
@@ -28,9 +33,15 @@ class OperLogServiceTest {
     @InjectMocks
     private OperLogService operLogService;
 
+    @Spy
+    private PageFetcher pageFetcher = new PageFetcher(mock(JdbcTemplate.class), new PageCountProperties());
+
     @Mock
     private OperLogRepository operLogRepository;
 
+    @Spy
+    private LogStorageProperties logStorageProperties = new LogStorageProperties();
+
     @Nested
     @DisplayName("findPage 分页查询测试")
     class FindPageTests {
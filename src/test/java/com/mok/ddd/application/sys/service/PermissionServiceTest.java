@@ -2,6 +2,8 @@ package com.mok.ddd.application.sys.service;
 
 import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.permission.PermissionDTO;
+import com.mok.ddd.application.sys.event.MenuChangedEvent;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.domain.sys.model.Menu;
@@ -10,17 +12,25 @@ import com.mok.ddd.domain.sys.repository.MenuRepository;
 import com.mok.ddd.domain.sys.repository.PermissionRepository;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.ListOperations;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisListCommands;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -42,7 +52,7 @@ class PermissionServiceTest {
     @Mock
     private StringRedisTemplate redisTemplate;
     @Mock
-    private ListOperations<String, String> listOperations;
+    private ApplicationEventPublisher eventPublisher;
 
     private MockedStatic<Permission> mockedPermission;
 
@@ -119,6 +129,50 @@ class PermissionServiceTest {
             verify(permissionRepository).save(mockEntity);
         }
 
+        @Test
+        @DisplayName("更新权限所属菜单 - 新旧菜单树都失效")
+        void updatePermission_MoveMenu_PublishesMenuChanged() {
+            PermissionDTO dto = new PermissionDTO();
+            dto.setId(1L);
+            dto.setMenuId(2L);
+            Permission mockEntity = mock(Permission.class);
+            Menu oldMenu = mock(Menu.class);
+            Menu newMenu = mock(Menu.class);
+            when(oldMenu.getId()).thenReturn(3L);
+            when(newMenu.getId()).thenReturn(2L);
+            when(mockEntity.getMenu()).thenReturn(oldMenu);
+
+            when(permissionRepository.findById(1L)).thenReturn(Optional.of(mockEntity));
+            when(menuRepository.findById(2L)).thenReturn(Optional.of(newMenu));
+
+            permissionService.updatePermission(dto);
+
+            ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+            verify(eventPublisher, times(2)).publishEvent(captor.capture());
+            MenuChangedEvent event = (MenuChangedEvent) captor.getAllValues().get(1);
+            assertEquals(Set.of(2L, 3L), event.getMenuIds());
+        }
+
+        @Test
+        @DisplayName("更新权限 - 失效拥有该权限的角色缓存和超管权限")
+        void updatePermission_PublishesPermissionChanged() {
+            PermissionDTO dto = new PermissionDTO();
+            dto.setId(1L);
+            Permission mockEntity = mock(Permission.class);
+
+            when(permissionRepository.findById(1L)).thenReturn(Optional.of(mockEntity));
+            when(permissionRepository.findRoleIdsByPermissionId(1L)).thenReturn(List.of(10L, 20L));
+
+            permissionService.updatePermission(dto);
+
+            verify(redisTemplate).delete(List.of(Const.CacheKey.ROLE_PERMS + ":10", Const.CacheKey.ROLE_PERMS + ":20"));
+            ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+            verify(eventPublisher, times(2)).publishEvent(captor.capture());
+            PermissionChangedEvent event = (PermissionChangedEvent) captor.getAllValues().getFirst();
+            assertEquals(Set.of(10L, 20L), event.getRoleIds());
+            assertTrue(event.isAllPermissionsChanged());
+        }
+
         @Test
         @DisplayName("更新权限成功 - 不关联菜单")
         void updatePermission_WithoutMenu_Success() {
@@ -199,88 +253,107 @@ class PermissionServiceTest {
     @DisplayName("getPermissionsByRoleIds")
     class GetPermissionsByRoleIdsTests {
 
+        @SuppressWarnings("unchecked")
+        private List<RedisCallback<Object>> capturePipelines(int times) {
+            ArgumentCaptor<RedisCallback<Object>> captor = ArgumentCaptor.forClass(RedisCallback.class);
+            verify(redisTemplate, times(times)).executePipelined(captor.capture());
+            return captor.getAllValues();
+        }
+
+        private static byte[] key(long roleId) {
+            return (Const.CacheKey.ROLE_PERMS + ":" + roleId).getBytes(StandardCharsets.UTF_8);
+        }
+
         @Test
         @DisplayName("通过角色ID获取权限 - 缓存命中")
         void getPermissionsByRoleIds_CacheHit() {
-            when(redisTemplate.opsForList()).thenReturn(listOperations);
-            Set<Long> roleIds = Set.of(1L);
-            String cacheKey = Const.CacheKey.ROLE_PERMS + ":1";
-            when(listOperations.range(cacheKey, 0, -1)).thenReturn(List.of("perm1", "perm2"));
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(List.of("perm1", "perm2")));
 
-            Set<String> result = permissionService.getPermissionsByRoleIds(roleIds);
+            Set<String> result = permissionService.getPermissionsByRoleIds(Set.of(1L));
 
-            assertEquals(2, result.size());
-            assertTrue(result.contains("perm1"));
-            verify(permissionRepository, never()).findCodesByRoleId(anyLong());
+            assertEquals(Set.of("perm1", "perm2"), result);
+            verify(permissionRepository, never()).findCodesByRoleIds(anyCollection());
+            capturePipelines(1);
         }
 
         @Test
-        @DisplayName("通过角色ID获取权限 - 缓存未命中，数据库命中")
-        void getPermissionsByRoleIds_CacheMiss_DbHit() {
-            when(redisTemplate.opsForList()).thenReturn(listOperations);
-            Set<Long> roleIds = Set.of(1L);
-            String cacheKey = Const.CacheKey.ROLE_PERMS + ":1";
-            when(listOperations.range(cacheKey, 0, -1)).thenReturn(Collections.emptyList());
-            when(permissionRepository.findCodesByRoleId(1L)).thenReturn(List.of("perm1_db"));
+        @DisplayName("通过角色ID获取权限 - 缓存未命中，数据库命中并回写")
+        void getPermissionsByRoleIds_CacheMiss_DbHit() throws Exception {
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(Collections.emptyList()), List.of());
+            when(permissionRepository.findCodesByRoleIds(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, "perm1_db"}));
 
-            Set<String> result = permissionService.getPermissionsByRoleIds(roleIds);
+            Set<String> result = permissionService.getPermissionsByRoleIds(Set.of(1L));
+
+            assertEquals(Set.of("perm1_db"), result);
+
+            List<RedisCallback<Object>> pipelines = capturePipelines(2);
+            RedisConnection connection = mock(RedisConnection.class);
+            RedisListCommands listCommands = mock(RedisListCommands.class);
+            RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+            when(connection.listCommands()).thenReturn(listCommands);
+            when(connection.keyCommands()).thenReturn(keyCommands);
 
-            assertEquals(1, result.size());
-            assertTrue(result.contains("perm1_db"));
-            verify(listOperations).rightPushAll(cacheKey, List.of("perm1_db"));
+            pipelines.get(0).doInRedis(connection);
+            verify(listCommands).lRange(key(1L), 0, -1);
+
+            pipelines.get(1).doInRedis(connection);
+            verify(keyCommands).del(key(1L));
+            verify(listCommands).rPush(eq(key(1L)), eq("perm1_db".getBytes(StandardCharsets.UTF_8)));
+            verify(keyCommands).pExpire(eq(key(1L)), longThat(ttl -> ttl > 0));
         }
 
         @Test
-        @DisplayName("通过角色ID获取权限 - 多个角色ID，部分缓存命中，部分DB命中")
+        @SuppressWarnings("unchecked")
+        @DisplayName("通过角色ID获取权限 - 多个角色ID，未命中的角色合并为一次查询")
         void getPermissionsByRoleIds_MultipleIds_MixedHit() {
-            when(redisTemplate.opsForList()).thenReturn(listOperations);
-            Set<Long> roleIds = Set.of(1L, 2L, 3L, 4L);
-            String cacheKey1 = Const.CacheKey.ROLE_PERMS + ":1";
-            String cacheKey2 = Const.CacheKey.ROLE_PERMS + ":2";
-            String cacheKey3 = Const.CacheKey.ROLE_PERMS + ":3";
-            String cacheKey4 = Const.CacheKey.ROLE_PERMS + ":4";
-
-            // Role 1: Cache hit
-            when(listOperations.range(cacheKey1, 0, -1)).thenReturn(List.of("perm_cache1", "perm_common"));
-            // Role 2: Cache miss, DB hit
-            when(listOperations.range(cacheKey2, 0, -1)).thenReturn(Collections.emptyList());
-            when(permissionRepository.findCodesByRoleId(2L)).thenReturn(List.of("perm_db2", "perm_common"));
-            // Role 3: Cache miss, DB miss
-            when(listOperations.range(cacheKey3, 0, -1)).thenReturn(Collections.emptyList());
-            when(permissionRepository.findCodesByRoleId(3L)).thenReturn(Collections.emptyList());
-             // Role 4: Cache returns null
-            when(listOperations.range(cacheKey4, 0, -1)).thenReturn(null);
-            when(permissionRepository.findCodesByRoleId(4L)).thenReturn(List.of("perm_db4"));
-
+            Set<Long> roleIds = new LinkedHashSet<>(List.of(1L, 2L, 3L, 4L));
+            List<Object> cached = new ArrayList<>();
+            cached.add(List.of("perm_cache1", "perm_common"));
+            cached.add(Collections.emptyList());
+            cached.add(Collections.emptyList());
+            cached.add(null);
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(cached, List.of());
+            when(permissionRepository.findCodesByRoleIds(anyCollection())).thenReturn(List.of(
+                    new Object[]{2L, "perm_db2"},
+                    new Object[]{2L, "perm_common"},
+                    new Object[]{4L, "perm_db4"}));
 
             Set<String> result = permissionService.getPermissionsByRoleIds(roleIds);
 
-            assertEquals(4, result.size());
-            assertTrue(result.containsAll(Set.of("perm_cache1", "perm_common", "perm_db2", "perm_db4")));
-            // 验证DB查询被调用的次数
-            verify(permissionRepository, times(1)).findCodesByRoleId(2L);
-            verify(permissionRepository, times(1)).findCodesByRoleId(3L);
-            verify(permissionRepository, times(1)).findCodesByRoleId(4L);
-            verify(permissionRepository, never()).findCodesByRoleId(1L);
-            // 验证缓存被写入的次数
-            verify(listOperations, times(1)).rightPushAll(cacheKey2, List.of("perm_db2", "perm_common"));
-            verify(listOperations, times(1)).rightPushAll(cacheKey4, List.of("perm_db4"));
-            verify(listOperations, never()).rightPushAll(eq(cacheKey3), anyList());
+            assertEquals(Set.of("perm_cache1", "perm_common", "perm_db2", "perm_db4"), result);
+            ArgumentCaptor<Collection<Long>> missing = ArgumentCaptor.forClass(Collection.class);
+            verify(permissionRepository, times(1)).findCodesByRoleIds(missing.capture());
+            assertEquals(Set.of(2L, 3L, 4L), new HashSet<>(missing.getValue()));
+            capturePipelines(2);
         }
 
         @Test
         @DisplayName("通过角色ID获取权限 - 缓存和数据库均未命中")
         void getPermissionsByRoleIds_CacheMiss_DbMiss() {
-            when(redisTemplate.opsForList()).thenReturn(listOperations);
-            Set<Long> roleIds = Set.of(1L);
-            String cacheKey = Const.CacheKey.ROLE_PERMS + ":1";
-            when(listOperations.range(cacheKey, 0, -1)).thenReturn(Collections.emptyList());
-            when(permissionRepository.findCodesByRoleId(1L)).thenReturn(Collections.emptyList());
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(Collections.emptyList()));
+            when(permissionRepository.findCodesByRoleIds(List.of(1L))).thenReturn(Collections.emptyList());
 
-            Set<String> result = permissionService.getPermissionsByRoleIds(roleIds);
+            Set<String> result = permissionService.getPermissionsByRoleIds(Set.of(1L));
 
             assertTrue(result.isEmpty());
-            verify(listOperations, never()).rightPushAll(anyString(), anyList());
+            capturePipelines(1);
+        }
+
+        @ParameterizedTest(name = "{0} 个角色")
+        @ValueSource(ints = {1, 10, 50})
+        @DisplayName("通过角色ID获取权限 - 往返次数与角色数量无关")
+        void getPermissionsByRoleIds_RoundTripsIndependentOfRoleCount(int roleCount) {
+            Set<Long> roleIds = LongStream.rangeClosed(1, roleCount).boxed().collect(Collectors.toSet());
+            List<Object> cached = new ArrayList<>(Collections.nCopies(roleCount, Collections.emptyList()));
+            List<Object[]> rows = roleIds.stream().map(id -> new Object[]{id, "perm" + id}).toList();
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(cached, List.of());
+            when(permissionRepository.findCodesByRoleIds(anyCollection())).thenReturn(rows);
+
+            Set<String> result = permissionService.getPermissionsByRoleIds(roleIds);
+
+            assertEquals(roleCount, result.size());
+            capturePipelines(2);
+            verify(permissionRepository, times(1)).findCodesByRoleIds(anyCollection());
         }
 
         @Test
@@ -316,6 +389,12 @@ class PermissionServiceTest {
             verify(permissionRepository).deleteRolePermissionsByPermissionId(permissionId);
             verify(permissionRepository).deleteById(permissionId);
             verify(redisTemplate).delete(List.of(Const.CacheKey.ROLE_PERMS + ":10", Const.CacheKey.ROLE_PERMS + ":20"));
+
+            ArgumentCaptor<ApplicationEvent> captor = ArgumentCaptor.forClass(ApplicationEvent.class);
+            verify(eventPublisher, times(2)).publishEvent(captor.capture());
+            PermissionChangedEvent event = (PermissionChangedEvent) captor.getAllValues().getFirst();
+            assertEquals(Set.of(10L, 20L), event.getRoleIds());
+            assertTrue(event.isAllPermissionsChanged());
         }
 
         @Test
@@ -330,6 +409,26 @@ class PermissionServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("onPermissionChanged")
+    class OnPermissionChangedTests {
+        @Test
+        @DisplayName("提交后再次删除受影响角色的权限缓存")
+        void onPermissionChanged_EvictsRolePermissions() {
+            permissionService.onPermissionChanged(new PermissionChangedEvent(this, Set.of(10L), true));
+
+            verify(redisTemplate).delete(List.of(Const.CacheKey.ROLE_PERMS + ":10"));
+        }
+
+        @Test
+        @DisplayName("没有受影响的角色时不访问 Redis")
+        void onPermissionChanged_NoRoles() {
+            permissionService.onPermissionChanged(new PermissionChangedEvent(this, Set.of(), true));
+
+            verifyNoInteractions(redisTemplate);
+        }
+    }
+
     @Test
     void testToDto() {
         Permission entity = mock(Permission.class);
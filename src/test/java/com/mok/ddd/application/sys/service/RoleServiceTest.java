@@ -5,6 +5,7 @@ import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.permission.PermissionDTO;
 import com.mok.ddd.application.sys.dto.role.*;
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.application.sys.mapper.RoleMapper;
@@ -23,10 +24,12 @@ import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -68,6 +71,9 @@ class RoleServiceTest {
     @Mock
     private StringRedisTemplate redisTemplate;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private MockedStatic<Role> mockedRole;
 
     @BeforeEach
@@ -217,6 +223,11 @@ class RoleServiceTest {
             verify(mockRole).changePermissions(anySet());
             verify(roleRepository).save(mockRole);
             verify(redisTemplate).delete(Const.CacheKey.ROLE_PERMS + ":1");
+
+            ArgumentCaptor<PermissionChangedEvent> captor = ArgumentCaptor.forClass(PermissionChangedEvent.class);
+            verify(eventPublisher).publishEvent(captor.capture());
+            assertEquals(Set.of(1L), captor.getValue().getRoleIds());
+            assertFalse(captor.getValue().isAllPermissionsChanged());
         }
 
         @Test
@@ -283,6 +294,7 @@ class RoleServiceTest {
             when(roleRepository.findById(1L)).thenReturn(Optional.empty());
             assertThrows(NotFoundException.class, () -> roleService.grant(1L, dto));
             verify(roleRepository, never()).save(any());
+            verifyNoInteractions(eventPublisher);
         }
     }
 
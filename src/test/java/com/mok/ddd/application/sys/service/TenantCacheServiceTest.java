@@ -5,20 +5,30 @@ import com.mok.ddd.application.sys.mapper.TenantMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.domain.sys.model.Tenant;
 import com.mok.ddd.domain.sys.repository.TenantRepository;
+import com.mok.ddd.infrastructure.cache.CacheStats;
+import com.mok.ddd.infrastructure.config.TenantCacheProperties;
 import com.querydsl.core.types.Predicate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +50,9 @@ class TenantCacheServiceTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Spy
+    private TenantCacheProperties properties = new TenantCacheProperties();
+
     @Test
     @DisplayName("findByTenantId - 缓存命中")
     void findByTenantId_CacheHit() {
@@ -76,7 +89,10 @@ class TenantCacheServiceTest {
 
         assertNotNull(result);
         assertEquals(tenantId, result.getTenantId());
-        verify(valueOperations).set(key, dtoFromDb);
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+        verify(valueOperations).set(eq(key), eq(dtoFromDb), ttl.capture());
+        // 默认 1 小时 ±10%
+        assertTrue(ttl.getValue().toMillis() >= 3240000 && ttl.getValue().toMillis() <= 3960000);
     }
 
     @Test
@@ -92,6 +108,154 @@ class TenantCacheServiceTest {
         TenantDTO result = tenantCacheService.findByTenantId(tenantId);
 
         assertNull(result);
-        verify(valueOperations, never()).set(any(), any());
+        verify(valueOperations).set(key, TenantCacheService.NULL_MARKER, Duration.ofMillis(properties.getNegativeTtlMs()));
+    }
+
+    @Test
+    @DisplayName("findByTenantId - 热点 key 失效后并发请求只查询一次数据库")
+    void findByTenantId_HotKeyInvalidation_SingleDbQuery() throws Exception {
+        String tenantId = "hot-tenant";
+        String key = Const.CacheKey.TENANT + tenantId;
+        Map<String, Object> redis = new ConcurrentHashMap<>();
+        Tenant tenant = mock(Tenant.class);
+        TenantDTO dtoFromDb = new TenantDTO();
+        dtoFromDb.setTenantId(tenantId);
+        CountDownLatch start = new CountDownLatch(1);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(key)).thenAnswer(invocation -> redis.get(key));
+        doAnswer(invocation -> redis.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(eq(key), any(), any(Duration.class));
+        when(tenantRepository.findOne((Predicate) any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return Optional.of(tenant);
+        });
+        when(tenantMapper.toDto(tenant)).thenReturn(dtoFromDb);
+
+        int concurrency = 200;
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            List<Future<TenantDTO>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return tenantCacheService.findByTenantId(tenantId);
+                }));
+            }
+            start.countDown();
+            for (Future<TenantDTO> future : futures) {
+                assertSame(dtoFromDb, future.get(5, TimeUnit.SECONDS));
+            }
+        }
+
+        verify(tenantRepository, times(1)).findOne((Predicate) any());
+        CacheStats stats = tenantCacheService.getStats();
+        assertEquals(1, stats.loadCount());
+        assertEquals(concurrency, stats.hitCount() + stats.missCount());
+    }
+
+    @Test
+    @DisplayName("preload - 预加载后直接从快照返回，不访问 Redis")
+    void findByTenantId_Preloaded_NoRedis() {
+        Tenant tenant = mock(Tenant.class);
+        TenantDTO dto = new TenantDTO();
+        dto.setTenantId("t1");
+        when(tenantRepository.findAll()).thenReturn(List.of(tenant));
+        when(tenantMapper.toDto(tenant)).thenReturn(dto);
+
+        tenantCacheService.preload();
+
+        assertSame(dto, tenantCacheService.findByTenantId("t1"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("findByTenantId - 不存在的租户短时间内不再查询数据库")
+    void findByTenantId_Unknown_NegativeCached() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(tenantRepository.findOne((Predicate) any())).thenReturn(Optional.empty());
+
+        assertNull(tenantCacheService.findByTenantId("bogus"));
+        assertNull(tenantCacheService.findByTenantId("bogus"));
+
+        verify(tenantRepository, times(1)).findOne((Predicate) any());
+    }
+
+    @Test
+    @DisplayName("refresh - 租户变更后替换快照，删除后移除")
+    void refresh_ReplacesAndRemoves() {
+        Tenant tenant = mock(Tenant.class);
+        TenantDTO updated = new TenantDTO();
+        updated.setTenantId("t1");
+        when(tenantRepository.findOne((Predicate) any())).thenReturn(Optional.of(tenant), Optional.empty());
+        when(tenantMapper.toDto(tenant)).thenReturn(updated);
+
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        tenantCacheService.refresh("t1");
+        assertSame(updated, tenantCacheService.findByTenantId("t1"));
+        verify(valueOperations).set(eq(Const.CacheKey.TENANT + "t1"), eq(updated), any(Duration.class));
+
+        tenantCacheService.refresh("t1");
+        assertNull(tenantCacheService.findByTenantId("t1"));
+        verify(valueOperations).set(eq(Const.CacheKey.TENANT + "t1"), eq(TenantCacheService.NULL_MARKER), any(Duration.class));
+        verify(tenantRepository, times(2)).findOne((Predicate) any());
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    @DisplayName("findByTenantId - Redis 中的不存在记录直接返回 null")
+    void findByTenantId_NegativeEntryInRedis() {
+        String key = Const.CacheKey.TENANT + "bogus";
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(key)).thenReturn(TenantCacheService.NULL_MARKER);
+
+        assertNull(tenantCacheService.findByTenantId("bogus"));
+        verify(tenantRepository, never()).findOne((Predicate) any());
+    }
+
+    @Test
+    @DisplayName("findByTenantId - 超过条目上限时不再加入本地快照")
+    void findByTenantId_MaxEntries() {
+        properties.setMaxEntries(1);
+        tenantCacheService = new TenantCacheService(tenantRepository, tenantMapper, redisTemplate, properties);
+        TenantDTO first = new TenantDTO();
+        first.setTenantId("t1");
+        TenantDTO second = new TenantDTO();
+        second.setTenantId("t2");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(Const.CacheKey.TENANT + "t1")).thenReturn(first);
+        when(valueOperations.get(Const.CacheKey.TENANT + "t2")).thenReturn(second);
+
+        tenantCacheService.findByTenantId("t1");
+        tenantCacheService.findByTenantId("t2");
+        tenantCacheService.findByTenantId("t1");
+        tenantCacheService.findByTenantId("t2");
+
+        verify(valueOperations, times(1)).get(Const.CacheKey.TENANT + "t1");
+        verify(valueOperations, times(2)).get(Const.CacheKey.TENANT + "t2");
+        assertEquals(1, tenantCacheService.getStats().size());
+    }
+
+    @Test
+    @DisplayName("reload - 全量重建快照，已删除的租户移出快照并删除 Redis 记录")
+    void reload_RemovesDeletedTenants() {
+        Tenant t1 = mock(Tenant.class);
+        Tenant t2 = mock(Tenant.class);
+        TenantDTO first = new TenantDTO();
+        first.setTenantId("t1");
+        TenantDTO second = new TenantDTO();
+        second.setTenantId("t2");
+        TenantDTO disabled = new TenantDTO();
+        disabled.setTenantId("t1");
+        when(tenantRepository.findAll()).thenReturn(List.of(t1, t2), List.of(t1));
+        when(tenantMapper.toDto(t1)).thenReturn(first, disabled);
+        when(tenantMapper.toDto(t2)).thenReturn(second);
+
+        tenantCacheService.preload();
+        tenantCacheService.scheduledReload();
+
+        assertSame(disabled, tenantCacheService.findByTenantId("t1"));
+        verify(redisTemplate).delete(List.of(Const.CacheKey.TENANT + "t2"));
+        assertEquals(1, tenantCacheService.getStats().size());
     }
 }
@@ -5,6 +5,7 @@ import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageGrantDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageOptionDTO;
 import com.mok.ddd.application.sys.dto.tenantPackage.TenantPackageSaveDTO;
+import com.mok.ddd.application.sys.event.TenantPackageChangedEvent;
 import com.mok.ddd.application.sys.mapper.MenuMapper;
 import com.mok.ddd.application.sys.mapper.PermissionMapper;
 import com.mok.ddd.application.sys.mapper.TenantPackageMapper;
@@ -23,6 +24,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 
@@ -59,6 +61,8 @@ class TenantPackageServiceTest {
     private MenuMapper menuMapper;
     @Mock
     private PermissionMapper permissionMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private MockedStatic<TenantPackage> mockedTenantPackage;
 
@@ -134,6 +138,7 @@ class TenantPackageServiceTest {
             verify(mockEntity).changePermissions(new HashSet<>(permissions));
             verify(packageRepository).save(mockEntity);
             verify(redisTemplate).delete(any(Set.class));
+            verify(eventPublisher).publishEvent(any(TenantPackageChangedEvent.class));
         }
         
         @Test
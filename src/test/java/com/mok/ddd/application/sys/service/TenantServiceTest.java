@@ -5,6 +5,8 @@ import com.mok.ddd.application.sys.dto.tenant.TenantCreateResultDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantOptionDTO;
 import com.mok.ddd.application.sys.dto.tenant.TenantSaveDTO;
+import com.mok.ddd.application.sys.event.SessionRevokeEvent;
+import com.mok.ddd.application.sys.event.TenantChangedEvent;
 import com.mok.ddd.application.sys.event.TenantCreatedEvent;
 import com.mok.ddd.application.sys.mapper.TenantMapper;
 import com.mok.ddd.common.Const;
@@ -24,6 +26,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -197,6 +200,7 @@ class TenantServiceTest {
             verify(existingTenant).changePackage(dto.getPackageId());
             verify(tenantRepository).save(existingTenant);
             verify(redisTemplate).delete(anyString());
+            verify(eventPublisher).publishEvent(any(TenantChangedEvent.class));
         }
     }
 
@@ -226,11 +230,15 @@ class TenantServiceTest {
             when(tenantRepository.save(any(Tenant.class))).thenAnswer(inv -> inv.getArgument(0));
             when(tenantMapper.toDto(any(Tenant.class))).thenReturn(new TenantDTO());
 
+            when(tenant.getTenantId()).thenReturn("T1");
+
             tenantService.updateTenantState(id, newState);
 
             verify(tenant).disable();
             verify(tenant, never()).enable();
             verify(tenantRepository).save(tenant);
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent e) -> e instanceof SessionRevokeEvent event
+                    && "T1".equals(event.getTenantId()) && event.getUsername() == null));
         }
 
         @Test
@@ -249,6 +257,7 @@ class TenantServiceTest {
             verify(tenant).enable();
             verify(tenant, never()).disable();
             verify(tenantRepository).save(tenant);
+            verify(eventPublisher, never()).publishEvent(any(SessionRevokeEvent.class));
         }
 
         @Test
@@ -279,6 +288,8 @@ class TenantServiceTest {
             boolean result = spyService.deleteByVerify(id);
 
             verify(spyService).deleteById(id);
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent e) -> e instanceof SessionRevokeEvent event
+                    && "NORMAL_001".equals(event.getTenantId())));
             assertTrue(result);
         }
 
@@ -6,15 +6,16 @@ import com.mok.ddd.application.sys.dto.user.UserDTO;
 import com.mok.ddd.application.sys.dto.user.UserPasswordDTO;
 import com.mok.ddd.application.sys.dto.user.UserPostDTO;
 import com.mok.ddd.application.sys.dto.user.UserPutDTO;
-import com.mok.ddd.application.sys.mapper.MenuMapper;
+import com.mok.ddd.application.sys.event.SessionRevokeEvent;
+import com.mok.ddd.application.sys.event.UserRolesChangedEvent;
 import com.mok.ddd.application.sys.mapper.UserMapper;
 import com.mok.ddd.common.Const;
 import com.mok.ddd.common.SysUtil;
 import com.mok.ddd.domain.sys.model.*;
 import com.mok.ddd.domain.sys.repository.RoleRepository;
-import com.mok.ddd.domain.sys.repository.TenantPackageRepository;
-import com.mok.ddd.domain.sys.repository.TenantRepository;
 import com.mok.ddd.domain.sys.repository.UserRepository;
+import com.mok.ddd.infrastructure.config.PageCountProperties;
+import com.mok.ddd.infrastructure.repository.PageFetcher;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import com.querydsl.core.types.EntityPath;
 import com.querydsl.core.types.Expression;
@@ -26,11 +27,15 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -48,6 +53,9 @@ class UserServiceTest {
     @InjectMocks
     private UserService userService;
 
+    @Spy
+    private PageFetcher pageFetcher = new PageFetcher(mock(JdbcTemplate.class), new PageCountProperties());
+
     @Mock
     private UserRepository userRepository;
     @Mock
@@ -57,15 +65,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     @Mock
-    private MenuService menuService;
-    @Mock
-    private MenuMapper menuMapper;
-    @Mock
-    private PermissionService permissionService;
-    @Mock
-    private TenantRepository tenantRepository;
+    private AccountAccessService accountAccessService;
     @Mock
-    private TenantPackageRepository tenantPackageRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     private MockedStatic<User> mockedUser;
     private MockedStatic<TenantContextHolder> mockedTenantContext;
@@ -203,6 +205,7 @@ class UserServiceTest {
 
             verify(mockUser).updateInfo("newNick", new HashSet<>(List.of(mockRole)));
             verify(userRepository).save(mockUser);
+            verify(eventPublisher).publishEvent(any(UserRolesChangedEvent.class));
         }
         
         @Test
@@ -244,15 +247,20 @@ class UserServiceTest {
             userService.updateUserState(1L, Const.UserState.NORMAL);
             verify(mockUser).enable();
             verify(userRepository).save(mockUser);
+            verify(eventPublisher, never()).publishEvent(any(SessionRevokeEvent.class));
         }
 
         @Test
         void updateUserState_ToDisabled() {
             User mockUser = mock(User.class);
             when(userRepository.findById(1L)).thenReturn(Optional.of(mockUser));
+            when(mockUser.getTenantId()).thenReturn("tenantA");
+            when(mockUser.getUsername()).thenReturn("userA");
             userService.updateUserState(1L, Const.UserState.DISABLED);
             verify(mockUser).disable();
             verify(userRepository).save(mockUser);
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent e) -> e instanceof SessionRevokeEvent event
+                    && "tenantA".equals(event.getTenantId()) && "userA".equals(event.getUsername())));
         }
         
         @Test
@@ -307,6 +315,9 @@ class UserServiceTest {
             userService.deleteById(1L);
 
             verify(userRepository).deleteById(1L);
+            verify(eventPublisher).publishEvent(any(UserRolesChangedEvent.class));
+            verify(eventPublisher).publishEvent(argThat((ApplicationEvent e) -> e instanceof SessionRevokeEvent event
+                    && "tenantA".equals(event.getTenantId()) && "userA".equals(event.getUsername())));
         }
         
         @Test
@@ -407,91 +418,23 @@ class UserServiceTest {
         }
 
         @Test
-        void findAccountInfoByUsername_SuperAdmin() {
-            String username = "root";
-            User mockUser = mock(User.class);
-            when(mockUser.getTenantId()).thenReturn("000000");
-            when(userRepository.findByUsername(username)).thenReturn(Optional.of(mockUser));
-            mockedSysUtil.when(() -> SysUtil.isSuperAdmin("000000", username)).thenReturn(true);
-
-            when(menuService.findAll()).thenReturn(List.of(new MenuDTO()));
-            when(permissionService.getAllPermissionCodes()).thenReturn(Set.of("perm1"));
-            when(menuService.buildMenuTree(anyList())).thenReturn(List.of(new MenuDTO()));
-
-            AccountInfoDTO result = userService.findAccountInfoByUsername(username);
-
-            assertNotNull(result);
-            assertTrue(result.getPermissions().contains(Const.SUPER_ADMIN_ROLE_CODE));
-        }
-        
-        @Test
-        void findAccountInfoByUsername_TenantAdmin() {
-            String username = "admin";
-            User mockUser = mock(User.class);
-            when(mockUser.getTenantId()).thenReturn("tenant1");
-            when(mockUser.getIsTenantAdmin()).thenReturn(true);
-            when(userRepository.findByUsername(username)).thenReturn(Optional.of(mockUser));
-            mockedSysUtil.when(() -> SysUtil.isSuperAdmin("tenant1", username)).thenReturn(false);
-            
-            Tenant mockTenant = mock(Tenant.class);
-            when(mockTenant.getPackageId()).thenReturn(1L);
-            when(tenantRepository.findByTenantId("tenant1")).thenReturn(Optional.of(mockTenant));
-            
-            TenantPackage mockPackage = mock(TenantPackage.class);
-            when(tenantPackageRepository.findById(1L)).thenReturn(Optional.of(mockPackage));
-            when(mockPackage.getMenus()).thenReturn(Set.of(mock(Menu.class)));
-            when(mockPackage.getPermissions()).thenReturn(Set.of(mock(Permission.class)));
-            
-            when(menuMapper.toDtoList(any())).thenReturn(List.of(new MenuDTO()));
-            when(menuService.buildMenuTree(anyList())).thenReturn(List.of(new MenuDTO()));
-
-            AccountInfoDTO result = userService.findAccountInfoByUsername(username);
-
-            assertNotNull(result);
-        }
-        
-        @Test
-        void findAccountInfoByUsername_TenantAdmin_NoPackage() {
-            String username = "admin";
-            User mockUser = mock(User.class);
-            when(mockUser.getTenantId()).thenReturn("tenant1");
-            when(mockUser.getIsTenantAdmin()).thenReturn(true);
-            when(userRepository.findByUsername(username)).thenReturn(Optional.of(mockUser));
-            mockedSysUtil.when(() -> SysUtil.isSuperAdmin("tenant1", username)).thenReturn(false);
-            
-            Tenant mockTenant = mock(Tenant.class);
-            when(mockTenant.getPackageId()).thenReturn(null);
-            when(tenantRepository.findByTenantId("tenant1")).thenReturn(Optional.of(mockTenant));
-            
-            AccountInfoDTO result = userService.findAccountInfoByUsername(username);
-            
-            assertNotNull(result);
-            assertTrue(result.getMenus().isEmpty());
-            assertTrue(result.getPermissions().isEmpty());
-        }
-        
-        @Test
-        void findAccountInfoByUsername_NormalUser() {
+        void findAccountInfoByUsername_Success() {
             String username = "user";
             User mockUser = mock(User.class);
-            when(mockUser.getTenantId()).thenReturn("tenant1");
-            when(mockUser.getIsTenantAdmin()).thenReturn(false);
+            UserDTO mockDto = new UserDTO();
+            List<MenuDTO> menus = List.of(new MenuDTO());
             when(userRepository.findByUsername(username)).thenReturn(Optional.of(mockUser));
-            mockedSysUtil.when(() -> SysUtil.isSuperAdmin("tenant1", username)).thenReturn(false);
-            
-            Role mockRole = mock(Role.class);
-            when(mockUser.getRoles()).thenReturn(Set.of(mockRole));
-            when(mockRole.getMenus()).thenReturn(Set.of(mock(Menu.class)));
-            when(mockRole.getPermissions()).thenReturn(Set.of(mock(Permission.class)));
-            
-            when(menuMapper.toDtoList(any())).thenReturn(List.of(new MenuDTO()));
-            when(menuService.buildMenuTree(anyList())).thenReturn(List.of(new MenuDTO()));
+            when(userMapper.toDto(mockUser)).thenReturn(mockDto);
+            when(accountAccessService.getAccess(mockUser)).thenReturn(
+                    new AccountAccessService.AccountAccess(menus, Set.of("perm1"), Set.of(1L), "tenant1", null));
 
             AccountInfoDTO result = userService.findAccountInfoByUsername(username);
 
-            assertNotNull(result);
+            assertSame(mockDto, result.getUser());
+            assertSame(menus, result.getMenus());
+            assertEquals(Set.of("perm1"), result.getPermissions());
         }
-        
+
         @Test
         void findAccountInfoByUsername_NotFound_ThrowsException() {
             String username = "test";
@@ -0,0 +1,36 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        var values = IntStream.range(0, 1000).mapToObj(_ -> UUID.randomUUID().toString()).toList();
+        values.forEach(filter::put);
+
+        assertTrue(values.stream().allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_falsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(10000, 0.01);
+        IntStream.range(0, 10000).forEach(i -> filter.put("in-" + i));
+
+        long falsePositives = IntStream.range(0, 10000).filter(i -> filter.mightContain("out-" + i)).count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void constructor_rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+}
@@ -0,0 +1,74 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalCacheTest {
+
+    @Test
+    void get_returnsCachedValue() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+
+        assertEquals("1", cache.get("a"));
+        assertEquals(1, cache.getHitCount());
+        assertNull(cache.get("b"));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void get_expiredEntryIsRemoved() throws InterruptedException {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1", Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_evictsWhenOverCapacity() {
+        LocalCache<Integer, Integer> cache = new LocalCache<>(3, Duration.ofMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    void put_nullValueRemovesEntry() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("a", null);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void invalidate() {
+        LocalCache<String, String> cache = new LocalCache<>(10, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.put("c", "3");
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+
+        cache.invalidateIf("b"::equals);
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new LocalCache<>(0, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreSerializedListTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void serialize_writesCachedJson() {
+        PreSerializedList<String> list = new PreSerializedList<>(List.of("a", "b"), "[\"cached\"]");
+
+        assertEquals("[\"cached\"]", jsonMapper.writeValueAsString(list));
+        assertEquals("{\"data\":[\"cached\"]}", jsonMapper.writeValueAsString(Map.of("data", list)));
+    }
+
+    @Test
+    void list_readOnlyView() {
+        PreSerializedList<String> list = new PreSerializedList<>(List.of("a", "b"), "[\"a\",\"b\"]");
+
+        assertEquals(List.of("a", "b"), list);
+        assertThrows(UnsupportedOperationException.class, () -> list.add("c"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RedisLoadLockTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @Test
+    void load_disabled_loadsDirectly() {
+        assertEquals("v", RedisLoadLock.load(redisTemplate, "k", 0, () -> null, () -> "v"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_lockAcquired_loadsAndReleases() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(true, 1L);
+
+        assertEquals("v", RedisLoadLock.load(redisTemplate, "k", 1000, () -> null, () -> "v"));
+        verify(redisTemplate, times(2)).execute(any(RedisCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_lockHeldElsewhere_waitsForCache() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(false);
+        AtomicInteger polls = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+
+        String value = RedisLoadLock.load(redisTemplate, "k", 1000,
+                () -> polls.incrementAndGet() >= 2 ? "cached" : null,
+                () -> {
+                    loads.incrementAndGet();
+                    return "loaded";
+                });
+
+        assertEquals("cached", value);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_lockHeldElsewhere_loadsAfterTimeout() {
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn(false);
+
+        assertEquals("loaded", RedisLoadLock.load(redisTemplate, "k", 50, () -> null, () -> "loaded"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.mok.ddd.infrastructure.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void load_concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 100;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            List<Future<String>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> singleFlight.load("k", () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "v";
+            })));
+            started.await();
+            for (int i = 1; i < callers; i++) {
+                futures.add(executor.submit(() -> singleFlight.load("k", () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // 等待者都已进入等待后再放行
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> future : futures) {
+                assertEquals("v", future.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void load_failurePropagatesAndAllowsRetry() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.load("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("v", singleFlight.load("k", () -> "v"));
+    }
+
+    @Test
+    void load_nullValueIsShared() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        assertNull(singleFlight.load("k", () -> null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.mok.ddd.infrastructure.config;
 
+import com.mok.ddd.infrastructure.redis.InstrumentedRedisConnectionFactory;
+import com.mok.ddd.infrastructure.redis.RedisMetrics;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJacksonJsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import tools.jackson.databind.json.JsonMapper;
@@ -25,12 +28,19 @@ class RedisConfigTest {
     @Mock
     private JsonMapper redisJsonMapper;
 
+    @Mock
+    private RedisMetrics redisMetrics;
+
     @InjectMocks
     private RedisConfig redisConfig;
 
+    private final RedisMetricsProperties metricsProperties = new RedisMetricsProperties();
+
     @Test
     void redisTemplate() {
-        RedisTemplate<String, Object> redisTemplate = redisConfig.redisTemplate(connectionFactory, redisJsonMapper);
+        metricsProperties.setEnabled(false);
+        RedisTemplate<String, Object> redisTemplate = redisConfig.redisTemplate(connectionFactory, redisJsonMapper,
+                redisMetrics, metricsProperties);
         assertNotNull(redisTemplate);
         assertEquals(connectionFactory, redisTemplate.getConnectionFactory());
         assertInstanceOf(StringRedisSerializer.class, redisTemplate.getKeySerializer());
@@ -40,8 +50,30 @@ class RedisConfigTest {
 
     @Test
     void stringRedisTemplate() {
-        StringRedisTemplate stringRedisTemplate = redisConfig.stringRedisTemplate(connectionFactory);
+        metricsProperties.setEnabled(false);
+        StringRedisTemplate stringRedisTemplate = redisConfig.stringRedisTemplate(connectionFactory, redisMetrics,
+                metricsProperties);
         assertNotNull(stringRedisTemplate);
         assertEquals(connectionFactory, stringRedisTemplate.getConnectionFactory());
     }
-}
\ No newline at end of file
+
+    @Test
+    void templatesUseInstrumentedFactoryWhenMetricsEnabled() {
+        RedisTemplate<String, Object> redisTemplate = redisConfig.redisTemplate(connectionFactory, redisJsonMapper,
+                redisMetrics, metricsProperties);
+        StringRedisTemplate stringRedisTemplate = redisConfig.stringRedisTemplate(connectionFactory, redisMetrics,
+                metricsProperties);
+
+        InstrumentedRedisConnectionFactory instrumented =
+                assertInstanceOf(InstrumentedRedisConnectionFactory.class, redisTemplate.getConnectionFactory());
+        assertEquals(connectionFactory, instrumented.getDelegate());
+        assertInstanceOf(InstrumentedRedisConnectionFactory.class, stringRedisTemplate.getConnectionFactory());
+    }
+
+    @Test
+    void redisMessageListenerContainer() {
+        RedisMessageListenerContainer container = redisConfig.redisMessageListenerContainer(connectionFactory);
+        assertNotNull(container);
+        assertEquals(connectionFactory, container.getConnectionFactory());
+    }
+}
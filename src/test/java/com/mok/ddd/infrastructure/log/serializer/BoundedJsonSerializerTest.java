@@ -0,0 +1,60 @@
+package com.mok.ddd.infrastructure.log.serializer;
+
+import com.mok.ddd.infrastructure.config.OperLogProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedJsonSerializerTest {
+
+    private BoundedJsonSerializer serializer;
+
+    @BeforeEach
+    void setUp() {
+        OperLogProperties properties = new OperLogProperties();
+        properties.setMaxParamLength(50);
+        properties.setMaxResultLength(200);
+        properties.setMaxCollectionElements(3);
+        serializer = new BoundedJsonSerializer(JsonMapper.builder().build(), properties);
+    }
+
+    @Test
+    void serialize_keepsSmallValue() {
+        assertEquals("{\"name\":\"admin\"}", serializer.serializeResult(Map.of("name", "admin")));
+    }
+
+    @Test
+    void serialize_stopsAtBudget() {
+        String result = serializer.serializeParams(List.of("x".repeat(10_000)));
+
+        assertEquals(53, result.length());
+        assertTrue(result.startsWith("[\"xxx"));
+        assertTrue(result.endsWith("..."));
+    }
+
+    @Test
+    void serialize_skipsElementsOverLimit() {
+        List<Integer> list = IntStream.range(0, 100_000).boxed().toList();
+
+        assertEquals("[0,1,2,\"...99997 more\"]", serializer.serializeResult(list));
+    }
+
+    @Test
+    void serialize_limitsNestedCollections() {
+        Map<String, Object> page = Map.of("content", List.of(1, 2, 3, 4, 5));
+
+        assertEquals("{\"content\":[1,2,3,\"...2 more\"]}", serializer.serializeResult(page));
+    }
+
+    @Test
+    void serialize_nullReturnsNull() {
+        assertNull(serializer.serializeParams(null));
+        assertNull(serializer.serializeResult(null));
+    }
+}
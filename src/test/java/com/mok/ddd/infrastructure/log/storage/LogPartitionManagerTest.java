@@ -0,0 +1,57 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private LogMaintenanceLock maintenanceLock;
+
+    private LogStorageProperties properties;
+    private LogPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LogStorageProperties();
+        partitionManager = new LogPartitionManager(jdbcTemplate, maintenanceLock, properties);
+    }
+
+    @Test
+    void onApplicationReady_maintainsUnderLock() {
+        properties.setPartitioned(true);
+
+        partitionManager.onApplicationReady();
+
+        verify(maintenanceLock).runExclusively(any());
+    }
+
+    @Test
+    void onApplicationReady_skipsDdlWhenAnotherNodeHoldsTheLock() {
+        properties.setPartitioned(true);
+        when(maintenanceLock.runExclusively(any())).thenReturn(false);
+
+        partitionManager.onApplicationReady();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void onApplicationReady_noopWhenNotPartitioned() {
+        partitionManager.onApplicationReady();
+
+        verifyNoInteractions(maintenanceLock, jdbcTemplate);
+    }
+}
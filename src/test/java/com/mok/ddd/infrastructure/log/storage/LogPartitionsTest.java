@@ -0,0 +1,39 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPartitionsTest {
+
+    @Test
+    void name_roundTrips() {
+        YearMonth month = YearMonth.of(2026, 1);
+
+        assertEquals("p202601", LogPartitions.name(month));
+        assertEquals(month, LogPartitions.parse("p202601"));
+    }
+
+    @Test
+    void parse_ignoresOtherPartitions() {
+        assertNull(LogPartitions.parse(LogPartitions.MAX_PARTITION));
+        assertNull(LogPartitions.parse("p2026"));
+        assertNull(LogPartitions.parse("p202613"));
+        assertNull(LogPartitions.parse(null));
+    }
+
+    @Test
+    void definitions_crossYear() {
+        List<String> definitions = LogPartitions.definitions(YearMonth.of(2025, 12), YearMonth.of(2026, 1));
+
+        assertEquals(List.of(
+                "PARTITION p202512 VALUES LESS THAN ('2026-01-01')",
+                "PARTITION p202601 VALUES LESS THAN ('2026-02-01')"
+        ), definitions);
+        assertEquals(LocalDate.of(2026, 3, 1), LogPartitions.upperBound(YearMonth.of(2026, 2)));
+    }
+}
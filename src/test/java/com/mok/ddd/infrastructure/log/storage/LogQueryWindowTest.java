@@ -0,0 +1,52 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.application.sys.dto.log.LoginLogQuery;
+import com.mok.ddd.domain.sys.model.QLoginLog;
+import com.mok.ddd.infrastructure.util.QuerydslUtils;
+import com.querydsl.core.types.Predicate;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogQueryWindowTest {
+
+    private final QLoginLog loginLog = QLoginLog.loginLog;
+
+    @Test
+    void apply_addsWindowWithoutTimeFilter() {
+        LoginLogQuery query = new LoginLogQuery();
+        query.setUsername("root");
+
+        Predicate predicate = LogQueryWindow.apply(query.toPredicate(), loginLog.createTime, 30);
+
+        assertTrue(QuerydslUtils.references(predicate, loginLog.createTime));
+        assertTrue(QuerydslUtils.references(predicate, loginLog.username));
+    }
+
+    @Test
+    void apply_keepsExplicitTimeFilter() {
+        LoginLogQuery query = new LoginLogQuery();
+        query.setStartTime(LocalDateTime.now().minusYears(1));
+        Predicate original = query.toPredicate();
+
+        assertSame(original, LogQueryWindow.apply(original, loginLog.createTime, 30));
+    }
+
+    @Test
+    void apply_sameQueryGivesSameWindow() {
+        LoginLogQuery query = new LoginLogQuery();
+        query.setUsername("root");
+
+        assertEquals(String.valueOf(LogQueryWindow.apply(query.toPredicate(), loginLog.createTime, 30)),
+                String.valueOf(LogQueryWindow.apply(query.toPredicate(), loginLog.createTime, 30)));
+    }
+
+    @Test
+    void apply_disabled() {
+        Predicate original = new LoginLogQuery().toPredicate();
+
+        assertSame(original, LogQueryWindow.apply(original, loginLog.createTime, 0));
+    }
+}
@@ -0,0 +1,84 @@
+package com.mok.ddd.infrastructure.log.storage;
+
+import com.mok.ddd.infrastructure.config.LogStorageProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogRetentionJobTest {
+
+    private static final YearMonth CUTOFF = YearMonth.of(2026, 3);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private LogMaintenanceLock maintenanceLock;
+
+    @Mock
+    private LogPartitionManager partitionManager;
+
+    private LogStorageProperties properties;
+    private LogRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LogStorageProperties();
+        properties.setPartitioned(true);
+        job = new LogRetentionJob(jdbcTemplate, transactionTemplate, maintenanceLock, partitionManager, properties);
+    }
+
+    @Test
+    void dropPartitions_archivesWholePartitionsThenDrops() {
+        when(partitionManager.partitionsBefore("sys_oper_log", CUTOFF)).thenReturn(List.of("p202601", "p202602"));
+        when(jdbcTemplate.update("INSERT IGNORE INTO sys_oper_log_archive SELECT * FROM sys_oper_log PARTITION (p202601)"))
+                .thenReturn(10);
+        when(jdbcTemplate.update("INSERT IGNORE INTO sys_oper_log_archive SELECT * FROM sys_oper_log PARTITION (p202602)"))
+                .thenReturn(5);
+
+        assertEquals(15, job.dropPartitions("sys_oper_log", CUTOFF));
+
+        InOrder inOrder = inOrder(jdbcTemplate, partitionManager);
+        inOrder.verify(jdbcTemplate).update("INSERT IGNORE INTO sys_oper_log_archive SELECT * FROM sys_oper_log PARTITION (p202601)");
+        inOrder.verify(partitionManager).dropPartition("sys_oper_log", "p202601");
+        inOrder.verify(jdbcTemplate).update("INSERT IGNORE INTO sys_oper_log_archive SELECT * FROM sys_oper_log PARTITION (p202602)");
+        inOrder.verify(partitionManager).dropPartition("sys_oper_log", "p202602");
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    void dropPartitions_withoutArchiveOnlyDrops() {
+        properties.setArchive(false);
+        when(partitionManager.partitionsBefore("sys_login_log", CUTOFF)).thenReturn(List.of("p202601"));
+
+        assertEquals(0, job.dropPartitions("sys_login_log", CUTOFF));
+
+        verify(partitionManager).dropPartition("sys_login_log", "p202601");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void run_skipsWhenAnotherNodeHoldsTheLock() {
+        when(maintenanceLock.runExclusively(any())).thenReturn(false);
+
+        job.run();
+
+        verifyNoInteractions(partitionManager, jdbcTemplate);
+    }
+}
@@ -0,0 +1,117 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+import com.mok.ddd.infrastructure.config.LogWriterProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingLogWriterTest {
+
+    private static LogWriterProperties properties(int capacity, int batchSize, long flushIntervalMs) {
+        LogWriterProperties properties = new LogWriterProperties();
+        properties.setCapacity(capacity);
+        properties.setBatchSize(batchSize);
+        properties.setFlushIntervalMs(flushIntervalMs);
+        properties.setOfferTimeoutMs(0);
+        properties.setShutdownTimeoutMs(5000);
+        return properties;
+    }
+
+    @Test
+    void offer_flushesBySize() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        try (BatchingLogWriter<Integer> writer = new BatchingLogWriter<>("test", properties(100, 10, 60000), batches::add)) {
+            for (int i = 0; i < 25; i++) {
+                assertTrue(writer.offer(i));
+            }
+        }
+
+        assertEquals(25, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 10));
+    }
+
+    @Test
+    void offer_flushesByTime() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        try (BatchingLogWriter<Integer> writer = new BatchingLogWriter<>("test", properties(100, 100, 50), _ -> flushed.countDown())) {
+            writer.offer(1);
+            assertTrue(flushed.await(2, TimeUnit.SECONDS));
+            assertEquals(1, writer.getStats().written());
+        }
+    }
+
+    @Test
+    void offer_dropsWhenFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BatchingLogWriter<Integer> writer = new BatchingLogWriter<>("test", properties(2, 1, 10), _ -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        writer.offer(0);
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        assertTrue(writer.offer(1));
+        assertTrue(writer.offer(2));
+        assertFalse(writer.offer(3));
+
+        LogWriterStats stats = writer.getStats();
+        assertEquals(1, stats.dropped());
+        assertEquals(2, stats.queueDepth());
+
+        release.countDown();
+        writer.close();
+        assertEquals(3, writer.getStats().written());
+    }
+
+    @Test
+    void offer_callerRunsWhenFull() throws InterruptedException {
+        LogWriterProperties properties = properties(1, 1, 10);
+        properties.setOverflowPolicy(BatchingLogWriter.OverflowPolicy.CALLER_RUNS);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> written = new CopyOnWriteArrayList<>();
+        BatchingLogWriter<Integer> writer = new BatchingLogWriter<>("test", properties, batch -> {
+            if (batch.contains(0)) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            written.addAll(batch);
+        });
+
+        writer.offer(0);
+        assertTrue(blocked.await(2, TimeUnit.SECONDS));
+        writer.offer(1);
+        assertTrue(writer.offer(2));
+        assertTrue(written.contains(2));
+
+        release.countDown();
+        writer.close();
+        assertEquals(0, writer.getStats().dropped());
+        assertEquals(3, written.size());
+    }
+
+    @Test
+    void flush_failureIsCounted() {
+        BatchingLogWriter<Integer> writer = new BatchingLogWriter<>("test", properties(10, 10, 10), _ -> {
+            throw new IllegalStateException("db down");
+        });
+        writer.offer(1);
+        writer.close();
+
+        assertEquals(1, writer.getStats().failed());
+    }
+}
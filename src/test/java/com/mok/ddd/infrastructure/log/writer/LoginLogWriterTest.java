@@ -0,0 +1,91 @@
+package com.mok.ddd.infrastructure.log.writer;
+
+import com.mok.ddd.domain.sys.model.LoginLog;
+import com.mok.ddd.infrastructure.config.LogWriterProperties;
+import com.mok.ddd.infrastructure.config.LoginLogProperties;
+import com.mok.ddd.infrastructure.util.SnowFlakeIdGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LoginLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final LogWriterProperties writerProperties = new LogWriterProperties();
+    private final LoginLogProperties properties = new LoginLogProperties();
+
+    @BeforeEach
+    void setUp() {
+        new SnowFlakeIdGenerator();
+        writerProperties.setFlushIntervalMs(10);
+    }
+
+    private static LoginLog failure(String username, String ip) {
+        LoginLog loginLog = LoginLog.create(username, ip, "FAILURE", "Bad credentials");
+        loginLog.assignTenant("000000");
+        return loginLog;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> writtenRows() {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), captor.capture());
+        List<Object[]> rows = new ArrayList<>();
+        captor.getAllValues().forEach(rows::addAll);
+        return rows;
+    }
+
+    @Test
+    void writeFailure_repeatedFailuresAreCollapsed() {
+        LoginLogWriter writer = new LoginLogWriter(jdbcTemplate, writerProperties, properties);
+        for (int i = 0; i < 5; i++) {
+            writer.writeFailure(failure("admin", "10.0.0.1"));
+        }
+        writer.writeFailure(failure("admin", "10.0.0.2"));
+        writer.destroy();
+
+        List<Object[]> rows = writtenRows();
+        assertEquals(2, rows.size());
+        int total = rows.stream().mapToInt(row -> (Integer) row[6]).sum();
+        assertEquals(6, total);
+    }
+
+    @Test
+    void writeFailure_aggregationDisabled_writesEachFailure() {
+        properties.setAggregateFailures(false);
+        LoginLogWriter writer = new LoginLogWriter(jdbcTemplate, writerProperties, properties);
+        for (int i = 0; i < 3; i++) {
+            writer.writeFailure(failure("admin", "10.0.0.1"));
+        }
+        writer.destroy();
+
+        assertEquals(3, writtenRows().size());
+    }
+
+    @Test
+    void write_successIsBatched() {
+        LoginLogWriter writer = new LoginLogWriter(jdbcTemplate, writerProperties, properties);
+        writer.write(LoginLog.create("admin", "10.0.0.1", "SUCCESS", "Login successful"));
+        writer.destroy();
+
+        List<Object[]> rows = writtenRows();
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.getFirst()[6]);
+        assertEquals(1, writer.getStats().written());
+    }
+}
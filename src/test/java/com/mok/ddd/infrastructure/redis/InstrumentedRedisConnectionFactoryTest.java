@@ -0,0 +1,183 @@
+package com.mok.ddd.infrastructure.redis;
+
+import com.mok.ddd.infrastructure.config.RedisMetricsProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedRedisConnectionFactoryTest {
+
+    private static final byte[] KEY = "k".getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private RedisConnectionFactory delegate;
+
+    @Mock
+    private RedisConnection connection;
+
+    @Mock
+    private RedisStringCommands stringCommands;
+
+    private RedisMetricsProperties properties;
+    private RedisMetrics metrics;
+    private InstrumentedRedisConnectionFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RedisMetricsProperties();
+        metrics = new RedisMetrics(properties);
+        factory = new InstrumentedRedisConnectionFactory(delegate, metrics);
+    }
+
+    @Test
+    void getConnection_recordsAcquireAndOpenConnections() {
+        when(delegate.getConnection()).thenReturn(connection);
+
+        RedisConnection first = factory.getConnection();
+        factory.getConnection();
+        first.close();
+        first.close();
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.acquire().count());
+        assertEquals(1, snapshot.openConnections());
+        assertEquals(2, snapshot.peakConnections());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnection_countsFailures() {
+        when(delegate.getConnection()).thenThrow(new RedisConnectionFailureException("pool exhausted"));
+
+        assertThrows(RedisConnectionFailureException.class, () -> factory.getConnection());
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.acquireFailures());
+        assertEquals(1, snapshot.acquire().errors());
+        assertEquals(0, snapshot.openConnections());
+    }
+
+    @Test
+    void commands_recordedByCommandAndCaller() {
+        properties.setCallerTracking(true);
+        when(delegate.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.get(KEY)).thenReturn("v".getBytes(StandardCharsets.UTF_8));
+
+        RedisConnection instrumented = factory.getConnection();
+        assertArrayEquals("v".getBytes(StandardCharsets.UTF_8), instrumented.stringCommands().get(KEY));
+        instrumented.ping();
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.commands().get("GET").count());
+        assertEquals(1, snapshot.commands().get("PING").count());
+        assertEquals(2, snapshot.callers().get("InstrumentedRedisConnectionFactoryTest").count());
+    }
+
+    @Test
+    void commands_errorsCountedAndRethrownUnwrapped() {
+        when(delegate.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.get(KEY)).thenThrow(new QueryTimeoutException("timeout"));
+
+        RedisStringCommands commands = factory.getConnection().stringCommands();
+
+        assertThrows(QueryTimeoutException.class, () -> commands.get(KEY));
+        assertEquals(1, metrics.snapshot().commands().get("GET").errors());
+    }
+
+    @Test
+    void pipeline_recordedAsOneCommand() {
+        when(delegate.getConnection()).thenReturn(connection);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(connection.isPipelined()).thenReturn(true);
+        when(connection.closePipeline()).thenReturn(List.of());
+
+        RedisConnection instrumented = factory.getConnection();
+        instrumented.openPipeline();
+        instrumented.stringCommands().set(KEY, KEY);
+        instrumented.stringCommands().get(KEY);
+        instrumented.closePipeline();
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.commands().size());
+        assertEquals(1, snapshot.commands().get(InstrumentedRedisConnectionFactory.PIPELINE).count());
+        verify(stringCommands).set(KEY, KEY);
+    }
+
+    @Test
+    void callers_cappedByMaxCallers() {
+        properties.setCallerTracking(true);
+        properties.setMaxCallers(0);
+        when(delegate.getConnection()).thenReturn(connection);
+
+        factory.getConnection().ping();
+
+        assertEquals(List.of("other"), List.copyOf(metrics.snapshot().callers().keySet()));
+    }
+
+    @Test
+    void callers_notTrackedByDefault() {
+        when(delegate.getConnection()).thenReturn(connection);
+
+        factory.getConnection().ping();
+
+        assertEquals(1, metrics.snapshot().commands().get("PING").count());
+        assertTrue(metrics.snapshot().callers().isEmpty());
+    }
+
+    @Test
+    void callers_sampledByRate() {
+        properties.setCallerTracking(true);
+        properties.setCallerSampleRate(1_000_000);
+        when(delegate.getConnection()).thenReturn(connection);
+
+        RedisConnection instrumented = factory.getConnection();
+        for (int i = 0; i < 100; i++) {
+            instrumented.ping();
+        }
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(100, snapshot.commands().get("PING").count());
+        LatencyHistogram.Snapshot callers = snapshot.callers().get("InstrumentedRedisConnectionFactoryTest");
+        assertTrue(callers == null || callers.count() < 100);
+    }
+
+    @Test
+    void reset_keepsOpenConnections() {
+        when(delegate.getConnection()).thenReturn(connection);
+        factory.getConnection().ping();
+
+        metrics.reset();
+
+        RedisMetricsSnapshot snapshot = metrics.snapshot();
+        assertTrue(snapshot.commands().isEmpty());
+        assertEquals(0, snapshot.acquire().count());
+        assertEquals(1, snapshot.openConnections());
+        assertEquals(1, snapshot.peakConnections());
+    }
+
+    @Test
+    void translateException_delegates() {
+        RuntimeException ex = new IllegalStateException();
+        when(delegate.translateExceptionIfPossible(any())).thenReturn(null);
+
+        assertNull(factory.translateExceptionIfPossible(ex));
+        verify(delegate).translateExceptionIfPossible(ex);
+    }
+}
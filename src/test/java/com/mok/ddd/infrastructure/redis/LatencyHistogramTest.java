@@ -0,0 +1,57 @@
+package com.mok.ddd.infrastructure.redis;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyHistogramTest {
+
+    @Test
+    void snapshot_percentilesFromBucketBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        IntStream.range(0, 98).forEach(_ -> histogram.record(80_000, false));
+        histogram.record(3_000_000, false);
+        histogram.record(40_000_000, true);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.count());
+        assertEquals(1, snapshot.errors());
+        assertEquals(0.1, snapshot.p50Ms());
+        assertEquals(0.1, snapshot.p95Ms());
+        assertEquals(5.0, snapshot.p99Ms());
+        assertEquals(40.0, snapshot.maxMs());
+        assertEquals(98L, snapshot.buckets().get("<=100us"));
+        assertEquals(1L, snapshot.buckets().get("<=50000us"));
+    }
+
+    @Test
+    void snapshot_percentileCappedByMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_200_000, false);
+
+        assertEquals(1.2, histogram.snapshot().p99Ms());
+    }
+
+    @Test
+    void snapshot_overflowBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000_000_000L, false);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(2000.0, snapshot.p99Ms());
+        assertEquals(1L, snapshot.buckets().get(">1000000us"));
+    }
+
+    @Test
+    void snapshot_empty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertEquals(0, snapshot.count());
+        assertEquals(0.0, snapshot.meanMs());
+        assertEquals(0.0, snapshot.p99Ms());
+    }
+}
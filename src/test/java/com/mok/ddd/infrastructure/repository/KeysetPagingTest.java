@@ -0,0 +1,96 @@
+package com.mok.ddd.infrastructure.repository;
+
+import com.mok.ddd.application.exception.BizException;
+import com.mok.ddd.application.sys.dto.log.OperLogDTO;
+import com.mok.ddd.domain.sys.model.QOperLog;
+import com.mok.ddd.infrastructure.util.QuerydslUtils;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("KeysetPaging 游标分页测试")
+class KeysetPagingTest {
+
+    private final QOperLog operLog = QOperLog.operLog;
+    private final List<SortKey> keys = List.of(SortKey.desc(operLog.createTime), SortKey.desc(operLog.id));
+
+    private OperLogDTO row(long id, LocalDateTime time) {
+        OperLogDTO dto = new OperLogDTO();
+        dto.setId(id);
+        dto.setCreateTime(time);
+        return dto;
+    }
+
+    @Test
+    @DisplayName("游标编码后可还原排序键的值")
+    void cursor_roundTrip() {
+        LocalDateTime time = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+
+        String cursor = KeysetPaging.encode(keys, row(42L, time));
+
+        assertEquals(List.of(time, 42L), KeysetPaging.decode(keys, cursor));
+    }
+
+    @Test
+    @DisplayName("无效游标抛出业务异常")
+    void decode_invalidCursor() {
+        assertThrows(BizException.class, () -> KeysetPaging.decode(keys, "abc"));
+        assertThrows(BizException.class, () -> KeysetPaging.decode(keys, "!!.??"));
+    }
+
+    @Test
+    @DisplayName("seek 条件引用所有排序键")
+    void seek_referencesAllKeys() {
+        Predicate seek = KeysetPaging.seek(keys, List.of(LocalDateTime.now(), 1L));
+
+        assertTrue(QuerydslUtils.references(seek, operLog.createTime));
+        assertTrue(QuerydslUtils.references(seek, operLog.id));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("多取一行判断是否有下一页")
+    void fetch_hasNext() {
+        JPAQuery<OperLogDTO> query = mock(JPAQuery.class);
+        when(query.where(any(Predicate.class))).thenReturn(query);
+        when(query.orderBy(any(OrderSpecifier[].class))).thenReturn(query);
+        when(query.limit(anyLong())).thenReturn(query);
+        LocalDateTime time = LocalDateTime.now();
+        when(query.fetch()).thenReturn(List.of(row(3L, time), row(2L, time), row(1L, time)));
+
+        CursorSlice<OperLogDTO> slice = KeysetPaging.fetch(query, keys, null, 2);
+
+        verify(query).limit(3L);
+        verify(query, never()).where(any(Predicate.class));
+        assertTrue(slice.hasNext());
+        assertEquals(2, slice.content().size());
+        assertEquals(List.of(time, 2L), KeysetPaging.decode(keys, slice.nextCursor()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("最后一页不返回游标")
+    void fetch_lastPage() {
+        JPAQuery<OperLogDTO> query = mock(JPAQuery.class);
+        when(query.where(any(Predicate.class))).thenReturn(query);
+        when(query.orderBy(any(OrderSpecifier[].class))).thenReturn(query);
+        when(query.limit(anyLong())).thenReturn(query);
+        when(query.fetch()).thenReturn(List.of(row(1L, LocalDateTime.now())));
+
+        CursorSlice<OperLogDTO> slice = KeysetPaging.fetch(query, keys,
+                KeysetPaging.encode(keys, row(5L, LocalDateTime.now())), 2);
+
+        verify(query).where(any(Predicate.class));
+        assertFalse(slice.hasNext());
+        assertNull(slice.nextCursor());
+    }
+}
@@ -0,0 +1,132 @@
+package com.mok.ddd.infrastructure.repository;
+
+import com.mok.ddd.application.sys.dto.log.LoginLogQuery;
+import com.mok.ddd.domain.sys.model.QLoginLog;
+import com.mok.ddd.infrastructure.config.PageCountProperties;
+import com.mok.ddd.infrastructure.log.storage.LogQueryWindow;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("PageFetcher 分页计数测试")
+class PageFetcherTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private PageFetcher pageFetcher;
+    private Querydsl querydsl;
+    private JPQLQuery<String> paginated;
+    private JPAQuery<String> query;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        pageFetcher = new PageFetcher(jdbcTemplate, new PageCountProperties());
+        querydsl = mock(Querydsl.class);
+        paginated = mock(JPQLQuery.class);
+        query = mock(JPAQuery.class);
+        when(querydsl.applyPagination(any(Pageable.class), eq(query))).thenReturn(paginated);
+        when(paginated.limit(anyLong())).thenReturn(paginated);
+    }
+
+    @Test
+    @DisplayName("HAS_NEXT 多取一行且不计数")
+    void hasNext_noCount() {
+        when(paginated.fetch()).thenReturn(List.of("a", "b", "c"));
+
+        Page<String> page = pageFetcher.fetch(query, querydsl, PageRequest.of(1, 2), CountMode.HAS_NEXT,
+                new PageFetcher.CountSource("t", null, () -> {
+                    throw new AssertionError("should not count");
+                }));
+
+        verify(paginated).limit(3L);
+        assertEquals(List.of("a", "b"), page.getContent());
+        assertTrue(page.hasNext());
+        assertEquals(5, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("CACHED 相同条件只计数一次")
+    void cached_reusesCount() {
+        when(paginated.fetch()).thenReturn(List.of("a"));
+        AtomicInteger counted = new AtomicInteger();
+        PageFetcher.CountSource source = new PageFetcher.CountSource("t", new BooleanBuilder(), () -> {
+            counted.incrementAndGet();
+            return 42L;
+        });
+
+        pageFetcher.fetch(query, querydsl, PageRequest.of(0, 1), CountMode.CACHED, source);
+        Page<String> page = pageFetcher.fetch(query, querydsl, PageRequest.of(1, 1), CountMode.CACHED, source);
+
+        assertEquals(1, counted.get());
+        assertEquals(42, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("CACHED 带默认时间窗口的相同请求复用同一个缓存条目")
+    void cached_reusesCountWithQueryWindow() {
+        when(paginated.fetch()).thenReturn(List.of("a"));
+        AtomicInteger counted = new AtomicInteger();
+        LoginLogQuery request = new LoginLogQuery();
+        request.setUsername("root");
+
+        for (int i = 0; i < 2; i++) {
+            Predicate filter = LogQueryWindow.apply(request.toPredicate(), QLoginLog.loginLog.createTime, 30);
+            pageFetcher.fetch(query, querydsl, PageRequest.of(0, 1), CountMode.CACHED,
+                    new PageFetcher.CountSource("sys_login_log", filter, () -> {
+                        counted.incrementAndGet();
+                        return 7L;
+                    }));
+        }
+
+        assertEquals(1, counted.get());
+    }
+
+    @Test
+    @DisplayName("ESTIMATED 无条件时使用表统计信息")
+    void estimated_usesTableStats() {
+        when(paginated.fetch()).thenReturn(List.of("a"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("t"))).thenReturn(5_000_000L);
+
+        Page<String> page = pageFetcher.fetch(query, querydsl, PageRequest.of(0, 1), CountMode.ESTIMATED,
+                new PageFetcher.CountSource("t", new BooleanBuilder(), () -> {
+                    throw new AssertionError("should not count");
+                }));
+
+        assertEquals(5_000_000L, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("ESTIMATED 小表精确计数")
+    void estimated_smallTableCountsExactly() {
+        when(paginated.fetch()).thenReturn(List.of("a"));
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class), eq("t"))).thenReturn(10L);
+
+        Page<String> page = pageFetcher.fetch(query, querydsl, PageRequest.of(0, 1), CountMode.ESTIMATED,
+                new PageFetcher.CountSource("t", null, () -> 12L));
+
+        assertEquals(12, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("未配置的列表默认精确计数")
+    void modeOf_defaultsToExact() {
+        assertEquals(CountMode.EXACT, pageFetcher.modeOf("oper-log"));
+    }
+}
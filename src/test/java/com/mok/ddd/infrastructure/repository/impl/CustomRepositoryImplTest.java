@@ -0,0 +1,81 @@
+package com.mok.ddd.infrastructure.repository.impl;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.domain.sys.model.Menu;
+import com.mok.ddd.domain.sys.model.OperLog;
+import com.mok.ddd.domain.sys.model.QMenu;
+import com.mok.ddd.domain.sys.model.QOperLog;
+import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("CustomRepositoryImpl 租户过滤测试")
+class CustomRepositoryImplTest {
+
+    @SuppressWarnings("unchecked")
+    private <T extends com.mok.ddd.domain.common.model.BaseEntity> CustomRepositoryImpl<T, Long> repository(Class<T> type, String name) {
+        JpaEntityInformation<T, ?> entityInformation = mock(JpaEntityInformation.class);
+        when(entityInformation.getJavaType()).thenReturn(type);
+        when(entityInformation.getEntityName()).thenReturn(name);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.getDelegate()).thenReturn(new Object());
+        return new CustomRepositoryImpl<>(entityInformation, entityManager);
+    }
+
+    @Test
+    @DisplayName("普通租户查询追加 tenantId 条件")
+    void createQuery_tenantEntity() {
+        CustomRepositoryImpl<OperLog, Long> repository = repository(OperLog.class, "OperLog");
+
+        Predicate where = ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .call(() -> repository.createQuery(QOperLog.operLog).getMetadata().getWhere());
+
+        assertNotNull(where);
+        assertTrue(where.toString().contains("tenantId = t1"));
+    }
+
+    @Test
+    @DisplayName("超级管理员不追加任何条件")
+    void createQuery_superAdmin() {
+        CustomRepositoryImpl<OperLog, Long> repository = repository(OperLog.class, "OperLog");
+
+        JPAQuery<OperLog> query = ScopedValue.where(TenantContextHolder.TENANT_ID, Const.DEFAULT_TENANT_ID)
+                .where(TenantContextHolder.USERNAME, Const.SUPER_ADMIN_USERNAME)
+                .call(() -> repository.createQuery(QOperLog.operLog));
+
+        assertNull(query.getMetadata().getWhere());
+    }
+
+    @Test
+    @DisplayName("非租户实体不追加条件")
+    void createQuery_nonTenantEntity() {
+        CustomRepositoryImpl<Menu, Long> repository = repository(Menu.class, "Menu");
+
+        JPAQuery<Menu> query = ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .call(() -> repository.createQuery(QMenu.menu));
+
+        assertNull(query.getMetadata().getWhere());
+    }
+
+    @Test
+    @DisplayName("applyTenantFilter 只过滤租户实体")
+    void applyTenantFilter_onlyTenantPaths() {
+        CustomRepositoryImpl<OperLog, Long> repository = repository(OperLog.class, "OperLog");
+        JPAQuery<Object> query = new JPAQuery<>();
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .run(() -> repository.applyTenantFilter(query, QOperLog.operLog, QMenu.menu));
+
+        Predicate where = query.getMetadata().getWhere();
+        assertNotNull(where);
+        assertEquals("operLog.tenantId = t1", where.toString());
+    }
+}
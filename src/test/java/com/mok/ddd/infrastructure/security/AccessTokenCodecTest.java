@@ -0,0 +1,102 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.infrastructure.config.StatelessTokenProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccessTokenCodec 访问令牌测试")
+class AccessTokenCodecTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private StatelessTokenProperties properties;
+    private AccessTokenCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StatelessTokenProperties();
+        properties.setEnabled(true);
+        properties.setSecret(SECRET);
+        codec = new AccessTokenCodec(properties);
+    }
+
+    private static CustomUserDetail principal() {
+        return new CustomUserDetail(7L, "alice", "secret", "T1", Set.of(1L, 2L), false);
+    }
+
+    @Test
+    @DisplayName("签发的令牌可在本地校验，载荷还原为用户")
+    void issueAndVerify() {
+        String token = codec.issue("session-1", principal());
+
+        AccessTokenCodec.AccessClaims claims = codec.verify(token);
+
+        assertNotNull(claims);
+        assertEquals("session-1", claims.sid());
+        CustomUserDetail restored = claims.toPrincipal();
+        assertEquals(7L, restored.getUserId());
+        assertEquals("alice", restored.getUsername());
+        assertEquals("T1", restored.getTenantId());
+        assertEquals(Set.of(1L, 2L), restored.getRoleIds());
+        assertNull(restored.getPassword());
+        assertTrue(AccessTokenCodec.isSigned(token));
+        assertFalse(AccessTokenCodec.isSigned("9b2c0a1e-5d7f-4c3e-8a6b-1f2e3d4c5b6a"));
+    }
+
+    @Test
+    @DisplayName("载荷或签名被篡改、其他密钥签发的令牌校验失败")
+    void verify_rejectsTampered() {
+        String token = codec.issue("session-1", principal());
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("\"adm\":false", "\"adm\":true").getBytes(StandardCharsets.UTF_8));
+
+        assertNull(codec.verify(parts[0] + "." + forgedPayload + "." + parts[2]));
+        assertNull(codec.verify(parts[0] + "." + parts[1] + ".AAAA"));
+        assertNull(codec.verify("not-a-token"));
+
+        properties.setSecret("another-secret-another-secret-!!");
+        assertNull(new AccessTokenCodec(properties).verify(token));
+    }
+
+    @Test
+    @DisplayName("拒绝 alg=none 等非本类签发的头部")
+    void verify_rejectsOtherAlgorithms() {
+        String token = codec.issue("session-1", principal());
+        String payload = token.split("\\.")[1];
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(codec.verify(none + "." + payload + "."));
+    }
+
+    @Test
+    @DisplayName("过期令牌校验失败，但仍可取出所属会话用于退出登录")
+    void verify_rejectsExpired() {
+        properties.setAccessTtlMs(-1000);
+        String token = new AccessTokenCodec(properties).issue("session-1", principal());
+
+        assertNull(codec.verify(token));
+        assertEquals("session-1", codec.sessionId(token));
+    }
+
+    @Test
+    @DisplayName("未启用时不校验，启用时密钥过短启动失败")
+    void disabledAndShortSecret() {
+        StatelessTokenProperties disabled = new StatelessTokenProperties();
+        AccessTokenCodec disabledCodec = new AccessTokenCodec(disabled);
+        assertFalse(disabledCodec.isEnabled());
+        assertNull(disabledCodec.verify(codec.issue("session-1", principal())));
+
+        properties.setSecret("short");
+        assertThrows(IllegalStateException.class, () -> new AccessTokenCodec(properties));
+    }
+}
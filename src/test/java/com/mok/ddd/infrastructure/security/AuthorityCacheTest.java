@@ -0,0 +1,101 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.sys.event.PermissionChangedEvent;
+import com.mok.ddd.application.sys.service.PermissionService;
+import com.mok.ddd.common.Const;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorityCacheTest {
+
+    @Mock
+    private PermissionService permissionService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private AuthorityCache authorityCache;
+
+    @BeforeEach
+    void setUp() {
+        authorityCache = new AuthorityCache(permissionService, redisTemplate, listenerContainer);
+    }
+
+    @Test
+    @DisplayName("相同角色组合共享同一权限列表，不重复加载")
+    void getAuthorities_SameRoleSet_SharesInstance() {
+        when(permissionService.getPermissionsByRoleIds(Set.of(1L, 2L))).thenReturn(Set.of("user:list", "role:list"));
+
+        List<SimpleGrantedAuthority> first = authorityCache.getAuthorities(Set.of(2L, 1L));
+        List<SimpleGrantedAuthority> second = authorityCache.getAuthorities(Set.of(1L, 2L));
+
+        assertSame(first, second);
+        assertEquals(List.of(new SimpleGrantedAuthority("role:list"), new SimpleGrantedAuthority("user:list")), first);
+        verify(permissionService, times(1)).getPermissionsByRoleIds(any());
+    }
+
+    @Test
+    @DisplayName("超管包含 SUPER_ADMIN 及全部权限")
+    void getAuthorities_SuperAdmin() {
+        when(permissionService.getAllPermissionCodes()).thenReturn(Set.of("user:list"));
+
+        List<SimpleGrantedAuthority> authorities = authorityCache.getAuthorities(Set.of(Const.SUPER_ADMIN_ROLE_ID, 1L));
+
+        assertEquals(List.of(new SimpleGrantedAuthority(Const.SUPER_ADMIN_ROLE_CODE), new SimpleGrantedAuthority("user:list")), authorities);
+        verify(permissionService, never()).getPermissionsByRoleIds(any());
+    }
+
+    @Test
+    @DisplayName("无角色返回空列表")
+    void getAuthorities_NoRoles() {
+        assertTrue(authorityCache.getAuthorities(null).isEmpty());
+        assertTrue(authorityCache.getAuthorities(Set.of()).isEmpty());
+        verifyNoInteractions(permissionService);
+    }
+
+    @Test
+    @DisplayName("权限变更只失效包含相关角色的组合并广播")
+    void onPermissionChanged_EvictsAffectedRoleSets() {
+        when(permissionService.getPermissionsByRoleIds(any())).thenReturn(Set.of("user:list"));
+        authorityCache.getAuthorities(Set.of(1L, 2L));
+        authorityCache.getAuthorities(Set.of(3L));
+
+        authorityCache.onPermissionChanged(new PermissionChangedEvent(this, Set.of(2L), false));
+        authorityCache.getAuthorities(Set.of(1L, 2L));
+        authorityCache.getAuthorities(Set.of(3L));
+
+        verify(permissionService, times(2)).getPermissionsByRoleIds(Set.of(1L, 2L));
+        verify(permissionService, times(1)).getPermissionsByRoleIds(Set.of(3L));
+        verify(redisTemplate).convertAndSend(Const.Channel.AUTHORITY_EVICT, "2");
+    }
+
+    @Test
+    @DisplayName("全量权限变更同时失效超管")
+    void onPermissionChanged_AllPermissions_EvictsSuperAdmin() {
+        when(permissionService.getAllPermissionCodes()).thenReturn(Set.of("user:list"));
+        authorityCache.getAuthorities(Set.of(Const.SUPER_ADMIN_ROLE_ID));
+
+        authorityCache.onPermissionChanged(new PermissionChangedEvent(this, Set.of(), true));
+        authorityCache.getAuthorities(Set.of(Const.SUPER_ADMIN_ROLE_ID));
+
+        verify(permissionService, times(2)).getAllPermissionCodes();
+        verify(redisTemplate).convertAndSend(eq(Const.Channel.AUTHORITY_EVICT), eq("0"));
+    }
+}
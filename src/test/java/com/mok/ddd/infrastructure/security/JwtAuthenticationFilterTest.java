@@ -0,0 +1,100 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.sys.dto.auth.RefreshTokenRequest;
+import com.mok.ddd.application.sys.service.TenantCacheService;
+import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
+import com.mok.ddd.web.common.GlobalExceptionHandler;
+import com.mok.ddd.web.sys.AuthController;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class, AuthController.class, GlobalExceptionHandler.class})
+@DisplayName("JwtAuthenticationFilter 无状态模式测试")
+class JwtAuthenticationFilterTest {
+
+    @Configuration
+    static class TestConfig {
+        @Bean
+        EntityManagerFactory entityManagerFactory() {
+            return mock(EntityManagerFactory.class);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @MockitoBean
+    private JwtTokenProvider tokenProvider;
+
+    @MockitoBean
+    private AuthorityCache authorityCache;
+
+    @MockitoBean
+    private TenantCacheService tenantCacheService;
+
+    @MockitoBean
+    private AccessTokenCodec accessTokenCodec;
+
+    @MockitoBean
+    private TokenRevocationList revocationList;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        given(accessTokenCodec.isEnabled()).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("刷新令牌作为 Bearer 访问受保护接口返回 401，且不读取 Redis 会话")
+    void refreshTokenAsBearer_unauthorized() throws Exception {
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer session-token"))
+                .andExpect(status().isUnauthorized());
+
+        verify(tokenProvider, never()).getSession(any());
+        verify(tokenProvider, never()).removeToken(any());
+    }
+
+    @Test
+    @DisplayName("刷新令牌只能在请求体中提交给刷新接口")
+    void refreshTokenInBody_accepted() throws Exception {
+        RefreshTokenRequest req = new RefreshTokenRequest();
+        req.setRefreshToken("session-token");
+        CustomUserDetail principal = new CustomUserDetail(1L, "john", null, "tenantA", Collections.emptySet(), false);
+        given(tokenProvider.getSession("session-token"))
+                .willReturn(new TokenSessionDTO("john", "tenantA", principal, "127.0.0.1", "Chrome", 1L));
+        given(accessTokenCodec.issue("session-token", principal)).willReturn("new.access.token");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("new.access.token"));
+    }
+}
@@ -0,0 +1,419 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.application.exception.BizException;
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtTokenProvider 会话索引测试")
+class JwtTokenProviderTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private SessionCodec sessionCodec;
+    @Mock
+    private SessionNearCache sessionNearCache;
+    @Mock
+    private TokenRevocationList revocationList;
+    @Mock
+    private RedisConnection connection;
+    @Mock
+    private RedisStringCommands stringCommands;
+    @Mock
+    private RedisZSetCommands zSetCommands;
+    @Mock
+    private RedisKeyCommands keyCommands;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private JwtTokenProvider tokenProvider;
+
+    private static final long EXPIRATION_MS = 1800000;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(redisTemplate, sessionCodec, sessionNearCache, revocationList);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", EXPIRATION_MS);
+        lenient().when(connection.stringCommands()).thenReturn(stringCommands);
+        lenient().when(connection.zSetCommands()).thenReturn(zSetCommands);
+        lenient().when(connection.keyCommands()).thenReturn(keyCommands);
+        lenient().when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private TokenSessionDTO session(String token, String tenantId, Long userId, long loginTime) {
+        CustomUserDetail principal = new CustomUserDetail(userId, "user" + userId, "", tenantId, Set.of(), false);
+        TokenSessionDTO session = new TokenSessionDTO("user" + userId, tenantId, principal, "127.0.0.1", "Chrome", loginTime);
+        when(sessionCodec.decode(aryEq(bytes(token)))).thenReturn(session);
+        return session;
+    }
+
+    private static Set<DefaultTypedTuple<String>> tuples(Object... tokenAndScore) {
+        Set<DefaultTypedTuple<String>> tuples = new LinkedHashSet<>();
+        for (int i = 0; i < tokenAndScore.length; i += 2) {
+            tuples.add(new DefaultTypedTuple<>((String) tokenAndScore[i], ((Number) tokenAndScore[i + 1]).doubleValue()));
+        }
+        return tuples;
+    }
+
+    /**
+     * MGET 按 key 返回 token 本身作为会话数据，missing 中的视为已过期
+     */
+    private void stubMget(String... missing) {
+        Set<String> expired = Set.of(missing);
+        when(stringCommands.mGet(any(byte[][].class))).thenAnswer(invocation -> Arrays.stream(invocation.getArguments())
+                .map(key -> new String((byte[]) key, StandardCharsets.UTF_8).substring(Const.CacheKey.AUTH_TOKEN.length()))
+                .map(token -> expired.contains(token) ? null : bytes(token))
+                .toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<RedisCallback<Object>> pipelines(int times) {
+        ArgumentCaptor<RedisCallback<Object>> captor = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redisTemplate, times(times)).executePipelined(captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    @DisplayName("只读取本租户索引，一次 MGET 取会话且不续期")
+    void findSessions_tenantIndexWithSingleMget() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(new LinkedHashSet<>(List.of("t2", "t1")), 2L));
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(List.of(bytes("t2"), bytes("t1")));
+        session("t2", "T1", 2L, 200L);
+        session("t1", "T1", 1L, 100L);
+
+        SessionSlice slice = tokenProvider.findSessions("T1", 0, 10);
+
+        assertEquals(List.of("t2", "t1"), slice.sessions().stream().map(TokenSessionDTO::getToken).toList());
+        assertEquals(2, slice.total());
+        assertFalse(slice.hasMore());
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+
+        pipelines(1).getFirst().doInRedis(connection);
+        verify(zSetCommands).zRevRange(bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1"), 0, 9);
+        verify(zSetCommands).zCard(bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1"));
+
+        verify(redisTemplate, never()).getExpire(any(), any());
+        verify(redisTemplate, never()).expire(any(), anyLong(), any());
+        verifyNoInteractions(sessionNearCache);
+    }
+
+    @Test
+    @DisplayName("已过期的 token 从索引中移除，下一段起点相应前移")
+    void findSessions_removesExpiredTokens() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(new LinkedHashSet<>(List.of("t2", "t1")), 5L), List.of());
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(Arrays.asList(null, bytes("t1")));
+        session("t1", "T1", 1L, 100L);
+
+        SessionSlice slice = tokenProvider.findSessions("T1", 0, 2);
+
+        assertEquals(1, slice.sessions().size());
+        assertEquals(4, slice.total());
+        assertEquals(1, slice.nextOffset());
+        assertTrue(slice.hasMore());
+
+        pipelines(2).get(1).doInRedis(connection);
+        verify(zSetCommands).zRem(aryEq(bytes(Const.CacheKey.SESSION_INDEX)), aryEq(bytes("t2")));
+        verify(zSetCommands).zRem(aryEq(bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1")), aryEq(bytes("t2")));
+    }
+
+    @Test
+    @DisplayName("超级租户读取全局索引，按用户分组")
+    void getAllOnlineUsers_superTenantGroupsByUser() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(new LinkedHashSet<>(List.of("a", "b", "c")), 3L));
+        when(stringCommands.mGet(any(byte[][].class))).thenReturn(List.of(bytes("a"), bytes("b"), bytes("c")));
+        session("a", "T1", 1L, 300L);
+        session("b", "T2", 2L, 200L);
+        session("c", "T1", 1L, 100L);
+
+        List<OnlineUserDTO> users = tokenProvider.getAllOnlineUsers(Map.of("T1", "租户一")::get, "000000", true);
+
+        assertEquals(2, users.size());
+        assertEquals("租户一", users.getFirst().tenantName());
+        assertEquals(2, users.getFirst().sessions().size());
+        assertEquals("T2", users.get(1).tenantName());
+
+        pipelines(1).getFirst().doInRedis(connection);
+        verify(zSetCommands).zRevRange(bytes(Const.CacheKey.SESSION_INDEX), 0, 499);
+    }
+
+    @Test
+    @DisplayName("游标分页：同一毫秒登录的会话按 token 续读，不重复不遗漏")
+    void findSessionsByCursor_tiesAtSameLoginTime() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(tuples("a", 300, "c", 200, "b", 200)))
+                .thenReturn(List.of(tuples("c", 200, "b", 200), tuples("d", 100)));
+        stubMget();
+        session("a", "T1", 1L, 300L);
+        session("c", "T1", 3L, 200L);
+        session("b", "T1", 2L, 200L);
+        session("d", "T1", 4L, 100L);
+        OnlineSessionQuery query = new OnlineSessionQuery();
+        query.setTenantId("T1");
+
+        CursorSlice<TokenSessionDTO> first = tokenProvider.findSessions(query, null, 2);
+        CursorSlice<TokenSessionDTO> second = tokenProvider.findSessions(query, first.nextCursor(), 2);
+
+        assertEquals(List.of("a", "c"), first.content().stream().map(TokenSessionDTO::getToken).toList());
+        assertTrue(first.hasNext());
+        assertEquals(new SessionCursor(200L, "c"), SessionCursor.decode(first.nextCursor()));
+        assertEquals(List.of("b", "d"), second.content().stream().map(TokenSessionDTO::getToken).toList());
+        assertFalse(second.hasNext());
+        assertNull(second.nextCursor());
+
+        List<RedisCallback<Object>> pipelines = pipelines(2);
+        pipelines.get(0).doInRedis(connection);
+        byte[] indexKey = bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1");
+        verify(zSetCommands).zRevRangeByScoreWithScores(indexKey, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0, 3);
+        pipelines.get(1).doInRedis(connection);
+        verify(zSetCommands).zRevRangeByScoreWithScores(indexKey, 200, 200);
+        verify(zSetCommands).zRevRangeByScoreWithScores(indexKey, Double.NEGATIVE_INFINITY, 199, 0, 3);
+        verifyNoInteractions(sessionNearCache);
+    }
+
+    @Test
+    @DisplayName("游标分页：用户名前缀在取回会话后过滤，登录时间范围下推到索引")
+    void findSessionsByCursor_filters() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(tuples("a", 300, "b", 200, "c", 100)));
+        stubMget();
+        session("a", "T1", 1L, 300L).setUsername("alice");
+        session("b", "T1", 2L, 200L).setUsername("bob");
+        session("c", "T1", 3L, 100L).setUsername("albert");
+        OnlineSessionQuery query = new OnlineSessionQuery();
+        query.setUsername("al");
+        query.setLoginTimeFrom(50L);
+        query.setLoginTimeTo(400L);
+
+        CursorSlice<TokenSessionDTO> slice = tokenProvider.findSessions(query, null, 10);
+
+        assertEquals(List.of("a", "c"), slice.content().stream().map(TokenSessionDTO::getToken).toList());
+        assertFalse(slice.hasNext());
+
+        pipelines(1).getFirst().doInRedis(connection);
+        verify(zSetCommands).zRevRangeByScoreWithScores(bytes(Const.CacheKey.SESSION_INDEX), 50, 400, 0, 500);
+    }
+
+    @Test
+    @DisplayName("无效游标抛出业务异常")
+    void findSessionsByCursor_invalidCursor() {
+        assertThrows(BizException.class, () -> tokenProvider.findSessions(new OnlineSessionQuery(), "!!", 10));
+        assertThrows(BizException.class, () -> tokenProvider.findSessions(new OnlineSessionQuery(), "YWJj", 10));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("批量撤销 token：一次 MGET 定位用户和租户，删除在一个 pipeline 内完成")
+    void revokeTokens_singlePipeline() {
+        stubMget("b");
+        session("a", "T1", 1L, 100L);
+
+        int revoked = tokenProvider.revokeTokens(List.of("a", "b", "a"));
+
+        assertEquals(1, revoked);
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+        pipelines(2).get(1).doInRedis(connection);
+        verify(keyCommands).del(bytes(Const.CacheKey.AUTH_TOKEN + "a"), bytes(Const.CacheKey.AUTH_TOKEN + "b"));
+        verify(zSetCommands).zRem(bytes(Const.CacheKey.SESSION_INDEX), bytes("a"), bytes("b"));
+        verify(zSetCommands).zRem(bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1"), bytes("a"));
+        verify(keyCommands).del(bytes(Const.CacheKey.USER_TOKENS + "T1:user1"));
+        verify(sessionNearCache).evict(List.of("a", "b"));
+        verify(revocationList).revoke(List.of("a", "b"));
+        verify(redisTemplate, never()).getExpire(any(), any());
+    }
+
+    @Test
+    @DisplayName("按租户批量撤销：其他租户的 token 不删除")
+    void revokeTenantTokens_skipsOtherTenants() {
+        stubMget();
+        session("a", "T1", 1L, 100L);
+        session("b", "T0", 2L, 100L);
+
+        int revoked = tokenProvider.revokeTenantTokens(List.of("a", "b"), "T1");
+
+        assertEquals(1, revoked);
+        verify(stringCommands, times(1)).mGet(any(byte[][].class));
+        pipelines(1).getFirst().doInRedis(connection);
+        verify(keyCommands).del(bytes(Const.CacheKey.AUTH_TOKEN + "a"));
+        verify(zSetCommands).zRem(bytes(Const.CacheKey.SESSION_INDEX), bytes("a"));
+        verify(zSetCommands).zRem(bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1"), bytes("a"));
+        verify(keyCommands, never()).del(bytes(Const.CacheKey.USER_TOKENS + "T0:user2"));
+        verify(sessionNearCache).evict(List.of("a"));
+        verify(revocationList).revoke(List.of("a"));
+    }
+
+    @Test
+    @DisplayName("按用户撤销：一次脚本调用删除 user:tokens 下的全部会话")
+    @SuppressWarnings("unchecked")
+    void revokeUser_byScript() {
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(Const.CacheKey.USER_TOKENS + "T1:alice",
+                Const.CacheKey.TENANT_SESSION_INDEX + "T1", Const.CacheKey.SESSION_INDEX)), eq(Const.CacheKey.AUTH_TOKEN)))
+                .thenReturn(List.of("a", "b"));
+
+        assertEquals(2, tokenProvider.revokeUser("T1", "alice"));
+        verify(sessionNearCache).evict(List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("按租户撤销：逐批读取租户索引直到为空")
+    void revokeTenant_byIndexBatches() {
+        byte[] indexKey = bytes(Const.CacheKey.TENANT_SESSION_INDEX + "T1");
+        when(zSetCommands.zRange(aryEq(indexKey), eq(0L), eq(499L)))
+                .thenReturn(new LinkedHashSet<>(List.of(bytes("a"), bytes("b"))), Set.of());
+        stubMget();
+        session("a", "T1", 1L, 200L);
+        session("b", "T1", 2L, 100L);
+
+        assertEquals(2, tokenProvider.revokeTenant("T1"));
+
+        pipelines(1).getFirst().doInRedis(connection);
+        verify(zSetCommands).zRem(indexKey, bytes("a"), bytes("b"));
+        verify(keyCommands).del(bytes(Const.CacheKey.USER_TOKENS + "T1:user1"));
+        verify(keyCommands).del(bytes(Const.CacheKey.USER_TOKENS + "T1:user2"));
+        verify(zSetCommands, times(2)).zRange(aryEq(indexKey), eq(0L), eq(499L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRenewScript(Object result) {
+        ReflectionTestUtils.setField(tokenProvider, "scriptRenewal", true);
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of(Const.CacheKey.AUTH_TOKEN + "t1", Const.CacheKey.SESSION_INDEX, Const.CacheKey.SESSION_EXPIRY_INDEX)),
+                eq(String.valueOf(EXPIRATION_MS)), eq("600000"), eq(Const.CacheKey.USER_TOKENS),
+                eq(Const.CacheKey.TENANT_SESSION_INDEX), anyString(), eq("t1")))
+                .thenReturn(result);
+    }
+
+    @Test
+    @DisplayName("脚本续期：进入续期窗口时脚本返回完整有效期，近端缓存按新有效期缓存")
+    void getSession_scriptRenewsInsideWindow() {
+        TokenSessionDTO session = session("t1", "T1", 1L, 100L);
+        stubRenewScript(List.of(bytes("t1"), EXPIRATION_MS));
+
+        assertSame(session, tokenProvider.getSession("t1"));
+        verify(sessionNearCache).put("t1", session, EXPIRATION_MS);
+        verify(redisTemplate, never()).expire(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("脚本续期：未进入续期窗口时按剩余有效期缓存")
+    void getSession_scriptKeepsTtlOutsideWindow() {
+        TokenSessionDTO session = session("t1", "T1", 1L, 100L);
+        stubRenewScript(List.of(bytes("t1"), 900000L));
+
+        assertSame(session, tokenProvider.getSession("t1"));
+        verify(sessionNearCache).put("t1", session, 900000L);
+    }
+
+    @Test
+    @DisplayName("脚本续期：会话不存在时返回 null 且不缓存")
+    void getSession_scriptMissingSession() {
+        stubRenewScript(null);
+
+        assertNull(tokenProvider.getSession("t1"));
+        verify(sessionNearCache, never()).put(any(), any(), anyLong());
+        verifyNoInteractions(sessionCodec);
+    }
+
+    @Test
+    @DisplayName("命令续期：剩余时间小于阈值时续期 token、user:tokens 和会话索引")
+    void getSession_commandsRenewInsideWindow() {
+        String tokenKey = Const.CacheKey.AUTH_TOKEN + "t1";
+        when(stringCommands.get(aryEq(bytes(tokenKey)))).thenReturn(bytes("t1"));
+        TokenSessionDTO session = session("t1", "T1", 1L, 100L);
+        when(redisTemplate.getExpire(tokenKey, TimeUnit.MILLISECONDS)).thenReturn(300000L);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+
+        assertSame(session, tokenProvider.getSession("t1"));
+        verify(redisTemplate).expire(tokenKey, EXPIRATION_MS, TimeUnit.MILLISECONDS);
+        verify(redisTemplate).expire(Const.CacheKey.USER_TOKENS + "T1:user1", EXPIRATION_MS, TimeUnit.MILLISECONDS);
+        verify(redisTemplate).expire(Const.CacheKey.TENANT_SESSION_INDEX + "T1", EXPIRATION_MS, TimeUnit.MILLISECONDS);
+        verify(redisTemplate).expire(Const.CacheKey.SESSION_INDEX, EXPIRATION_MS, TimeUnit.MILLISECONDS);
+        verify(zSetOperations).add(eq(Const.CacheKey.SESSION_EXPIRY_INDEX), eq("t1:T1"), anyDouble());
+        verify(redisTemplate).expire(Const.CacheKey.SESSION_EXPIRY_INDEX, EXPIRATION_MS, TimeUnit.MILLISECONDS);
+        verify(sessionNearCache).put("t1", session, EXPIRATION_MS);
+    }
+
+    @Test
+    @DisplayName("命令续期：剩余时间充足时不续期")
+    void getSession_commandsKeepTtlOutsideWindow() {
+        String tokenKey = Const.CacheKey.AUTH_TOKEN + "t1";
+        when(stringCommands.get(aryEq(bytes(tokenKey)))).thenReturn(bytes("t1"));
+        TokenSessionDTO session = session("t1", "T1", 1L, 100L);
+        when(redisTemplate.getExpire(tokenKey, TimeUnit.MILLISECONDS)).thenReturn(900000L);
+
+        assertSame(session, tokenProvider.getSession("t1"));
+        verify(redisTemplate, never()).expire(any(), anyLong(), any());
+        verify(sessionNearCache).put("t1", session, 900000L);
+    }
+
+    @Test
+    @DisplayName("命令续期：会话不存在时返回 null")
+    void getSession_commandsMissingSession() {
+        assertNull(tokenProvider.getSession("t1"));
+        verify(redisTemplate, never()).getExpire(any(), any());
+        verify(sessionNearCache, never()).put(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("清理会话索引：一批处理满时继续下一批，直到不足一批")
+    @SuppressWarnings("unchecked")
+    void sweepSessionIndex_untilPartialBatch() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of(Const.CacheKey.SESSION_EXPIRY_INDEX, Const.CacheKey.SESSION_INDEX)),
+                anyString(), eq("500"), eq(Const.CacheKey.AUTH_TOKEN), eq(Const.CacheKey.TENANT_SESSION_INDEX)))
+                .thenReturn(List.of(500L, 480L), List.of(20L, 20L));
+
+        tokenProvider.sweepSessionIndex();
+
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class),
+                eq(List.of(Const.CacheKey.SESSION_EXPIRY_INDEX, Const.CacheKey.SESSION_INDEX)),
+                anyString(), eq("500"), eq(Const.CacheKey.AUTH_TOKEN), eq(Const.CacheKey.TENANT_SESSION_INDEX));
+    }
+
+    @Test
+    @DisplayName("清理会话索引：Redis 异常不向定时任务抛出")
+    @SuppressWarnings("unchecked")
+    void sweepSessionIndex_swallowsFailure() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of(Const.CacheKey.SESSION_EXPIRY_INDEX, Const.CacheKey.SESSION_INDEX)),
+                anyString(), eq("500"), eq(Const.CacheKey.AUTH_TOKEN), eq(Const.CacheKey.TENANT_SESSION_INDEX)))
+                .thenThrow(new IllegalStateException("redis down"));
+
+        assertDoesNotThrow(() -> tokenProvider.sweepSessionIndex());
+    }
+}
@@ -0,0 +1,88 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.infrastructure.config.JacksonConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SessionCodec 单元测试")
+class SessionCodecTest {
+
+    private final JsonMapper jsonMapper = new JacksonConfig().jsonMapper();
+
+    private TokenSessionDTO newSession() {
+        CustomUserDetail principal = new CustomUserDetail(1001L, "alice", "$2a$10$hash", "T00001", Set.of(1L, 2L, 3L), false);
+        TokenSessionDTO session = new TokenSessionDTO("alice", "T00001", principal, "127.0.0.1", "macOS - Chrome", 1700000000000L);
+        session.setToken("token-1");
+        return session;
+    }
+
+    @Test
+    @DisplayName("二进制编码往返，且不保存密码")
+    void binary_RoundTrip() {
+        BinarySessionCodec codec = new BinarySessionCodec();
+        TokenSessionDTO decoded = codec.decode(codec.encode(newSession()));
+
+        assertEquals("alice", decoded.getUsername());
+        assertEquals("T00001", decoded.getTenantId());
+        assertEquals("token-1", decoded.getToken());
+        assertEquals("127.0.0.1", decoded.getIp());
+        assertEquals("macOS - Chrome", decoded.getBrowser());
+        assertEquals(1700000000000L, decoded.getLoginTime());
+        assertEquals(1001L, decoded.getPrincipal().getUserId());
+        assertEquals(Set.of(1L, 2L, 3L), decoded.getPrincipal().getRoleIds());
+        assertEquals("alice", decoded.getPrincipal().getUsername());
+        assertFalse(decoded.getPrincipal().isSuperAdmin());
+        assertNull(decoded.getPrincipal().getPassword());
+    }
+
+    @Test
+    @DisplayName("二进制编码 - 空字段")
+    void binary_NullFields() {
+        BinarySessionCodec codec = new BinarySessionCodec();
+        TokenSessionDTO session = new TokenSessionDTO("root", "000000", null, null, null, 0L);
+
+        TokenSessionDTO decoded = codec.decode(codec.encode(session));
+
+        assertNull(decoded.getPrincipal());
+        assertNull(decoded.getIp());
+        assertNull(decoded.getToken());
+    }
+
+    @Test
+    @DisplayName("二进制编码体积小于 JSON")
+    void binary_SmallerThanJson() {
+        TokenSessionDTO session = newSession();
+        int binarySize = new BinarySessionCodec().encode(session).length;
+        int jsonSize = new JsonSessionCodec(jsonMapper).encode(session).length;
+
+        assertTrue(binarySize < jsonSize / 2, "binary=" + binarySize + ", json=" + jsonSize);
+    }
+
+    @Test
+    @DisplayName("切换格式后仍可读取两种格式")
+    void delegating_ReadsBothFormats() {
+        DelegatingSessionCodec binaryWriter = new DelegatingSessionCodec(jsonMapper, "binary");
+        DelegatingSessionCodec jsonWriter = new DelegatingSessionCodec(jsonMapper, "json");
+        TokenSessionDTO session = newSession();
+
+        byte[] binary = binaryWriter.encode(session);
+        byte[] json = jsonWriter.encode(session);
+
+        assertEquals(BinarySessionCodec.MAGIC, binary[0]);
+        assertEquals('{', json[0]);
+        assertEquals("alice", jsonWriter.decode(binary).getUsername());
+        assertEquals("alice", binaryWriter.decode(json).getUsername());
+    }
+
+    @Test
+    @DisplayName("无法识别的格式")
+    void delegating_UnknownFormat() {
+        DelegatingSessionCodec codec = new DelegatingSessionCodec(jsonMapper, "json");
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[]{1, 2, 3}));
+    }
+}
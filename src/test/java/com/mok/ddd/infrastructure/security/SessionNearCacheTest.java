@@ -0,0 +1,136 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.config.SessionCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SessionNearCache 会话近端缓存测试")
+class SessionNearCacheTest {
+
+    private static final long REMOTE_TTL_MS = 60_000;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SessionCacheProperties properties;
+    private SessionNearCache nearCache;
+    private MessageListener evictListener;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SessionCacheProperties();
+        nearCache = new SessionNearCache(properties, redisTemplate, listenerContainer);
+
+        ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(captor.capture(), eq(new ChannelTopic(Const.Channel.SESSION_EVICT)));
+        evictListener = captor.getValue();
+    }
+
+    private static TokenSessionDTO session(String username) {
+        return new TokenSessionDTO(username, "tenantA", null, "127.0.0.1", "Chrome", 1L);
+    }
+
+    @Test
+    @DisplayName("命中时返回缓存的会话")
+    void get_hit() {
+        TokenSessionDTO session = session("john");
+        nearCache.put("t1", session, REMOTE_TTL_MS);
+
+        assertSame(session, nearCache.get("t1", 1_000));
+        assertNull(nearCache.get("t2", 1_000));
+    }
+
+    @Test
+    @DisplayName("本地 ttl 到期后不再命中")
+    void get_expiredAfterTtl() throws InterruptedException {
+        properties.setTtlMs(1);
+        nearCache.put("t1", session("john"), REMOTE_TTL_MS);
+
+        Thread.sleep(5);
+
+        assertNull(nearCache.get("t1", 0));
+    }
+
+    @Test
+    @DisplayName("本地 ttl 不超过 Redis 剩余有效期")
+    void put_ttlCappedByRemoteTtl() throws InterruptedException {
+        nearCache.put("t1", session("john"), 1);
+
+        Thread.sleep(5);
+
+        assertNull(nearCache.get("t1", 0));
+    }
+
+    @Test
+    @DisplayName("Redis 剩余有效期低于续期阈值时返回 null，交由调用方回源续期")
+    void get_nearRenewThresholdBypassed() {
+        TokenSessionDTO session = session("john");
+        nearCache.put("t1", session, 10_000);
+
+        assertNull(nearCache.get("t1", 30_000));
+        assertSame(session, nearCache.get("t1", 1_000));
+    }
+
+    @Test
+    @DisplayName("收到其他节点的失效消息后移除本地条目")
+    void remoteEvictMessage_invalidates() {
+        nearCache.put("t1", session("john"), REMOTE_TTL_MS);
+        nearCache.put("t2", session("jane"), REMOTE_TTL_MS);
+        nearCache.put("t3", session("bob"), REMOTE_TTL_MS);
+
+        evictListener.onMessage(new DefaultMessage(
+                Const.Channel.SESSION_EVICT.getBytes(StandardCharsets.UTF_8),
+                "t1,t2".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNull(nearCache.get("t1", 0));
+        assertNull(nearCache.get("t2", 0));
+        assertNotNull(nearCache.get("t3", 0));
+    }
+
+    @Test
+    @DisplayName("本节点失效后立即生效并广播")
+    void evict_localAndBroadcast() {
+        nearCache.put("t1", session("john"), REMOTE_TTL_MS);
+        nearCache.put("t2", session("jane"), REMOTE_TTL_MS);
+
+        nearCache.evict(List.of("t1", "t2"));
+
+        assertNull(nearCache.get("t1", 0));
+        assertNull(nearCache.get("t2", 0));
+        verify(redisTemplate).convertAndSend(Const.Channel.SESSION_EVICT, "t1,t2");
+    }
+
+    @Test
+    @DisplayName("未启用时不缓存也不广播")
+    void disabled_noCacheNoBroadcast() {
+        properties.setEnabled(false);
+        nearCache.put("t1", session("john"), REMOTE_TTL_MS);
+
+        assertNull(nearCache.get("t1", 0));
+        nearCache.evict("t1");
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+}
@@ -0,0 +1,114 @@
+package com.mok.ddd.infrastructure.security;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.infrastructure.config.StatelessTokenProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList 撤销列表测试")
+class TokenRevocationListTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private StatelessTokenProperties properties;
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        properties = new StatelessTokenProperties();
+        properties.setEnabled(true);
+        properties.setSecret("0123456789abcdef0123456789abcdef");
+        revocationList = new TokenRevocationList(properties, redisTemplate, listenerContainer);
+    }
+
+    @Test
+    @DisplayName("撤销后本节点立即生效，写入 Redis 并广播")
+    void revoke_localAndBroadcast() {
+        revocationList.revoke(List.of("s1", "s2"));
+
+        assertTrue(revocationList.isRevoked("s1"));
+        assertTrue(revocationList.isRevoked("s2"));
+        assertFalse(revocationList.isRevoked("s3"));
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(redisTemplate).convertAndSend(Const.Channel.SESSION_REVOKED, "s1,s2");
+    }
+
+    @Test
+    @DisplayName("未启用时不记录也不访问 Redis")
+    void revoke_disabled() {
+        properties.setEnabled(false);
+
+        revocationList.revoke(List.of("s1"));
+
+        assertFalse(revocationList.isRevoked("s1"));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Redis 不可用时本节点仍然生效")
+    void revoke_redisFailure() {
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new IllegalStateException("down"));
+
+        revocationList.revoke(List.of("s1"));
+
+        assertTrue(revocationList.isRevoked("s1"));
+    }
+
+    @Test
+    @DisplayName("其他节点的撤销消息按逗号拆分")
+    void onMessage_addsAll() {
+        revocationList.onMessage("s1,s2");
+
+        assertTrue(revocationList.isRevoked("s1"));
+        assertTrue(revocationList.isRevoked("s2"));
+    }
+
+    @Test
+    @DisplayName("启动时加载仍有效的撤销记录")
+    void load_fromRedis() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores(eq(Const.CacheKey.REVOKED_SESSIONS), anyDouble(), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(Set.of(new DefaultTypedTuple<>("s1", (double) System.currentTimeMillis() + 60000)));
+
+        revocationList.load();
+
+        assertTrue(revocationList.isRevoked("s1"));
+    }
+
+    @Test
+    @DisplayName("超过访问令牌有效期的记录被清理，其余保留")
+    void prune_removesExpired() {
+        properties.setAccessTtlMs(-1000);
+        revocationList.onMessage("old");
+        properties.setAccessTtlMs(60000);
+        revocationList.onMessage("fresh");
+
+        revocationList.prune();
+
+        assertEquals(1, revocationList.size());
+        assertFalse(revocationList.isRevoked("old"));
+        assertTrue(revocationList.isRevoked("fresh"));
+    }
+}
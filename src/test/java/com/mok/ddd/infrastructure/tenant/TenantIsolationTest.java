@@ -0,0 +1,175 @@
+package com.mok.ddd.infrastructure.tenant;
+
+import com.mok.ddd.common.Const;
+import com.mok.ddd.domain.sys.repository.UserRepository;
+import com.mok.ddd.infrastructure.tenant.TenantFilter.TenantFilterPolicy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Filter;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@DisplayName("TenantIsolation 租户隔离测试")
+class TenantIsolationTest {
+
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final TenantIsolation tenantIsolation =
+            new TenantIsolation(entityManagerFactory, List.of(UserRepository.class, SkippedRepository.class));
+
+    @TenantFilter(TenantFilterPolicy.SKIP)
+    interface SkippedRepository {
+        void find();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.hasResource(entityManagerFactory)) {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        }
+    }
+
+    private Session bindSession() {
+        Session session = mock(Session.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        return session;
+    }
+
+    @Test
+    @DisplayName("策略优先取方法注解，其次取接口注解")
+    void policyOf() throws NoSuchMethodException {
+        assertEquals(TenantFilterPolicy.FORCE,
+                tenantIsolation.policyOf(UserRepository.class.getMethod("findByUsername", String.class)));
+        assertEquals(TenantFilterPolicy.DEFAULT,
+                tenantIsolation.policyOf(UserRepository.class.getMethod("findByTenantIdAndUsername", String.class, String.class)));
+        assertEquals(TenantFilterPolicy.SKIP,
+                tenantIsolation.policyOf(SkippedRepository.class.getMethod("find")));
+    }
+
+    @Test
+    @DisplayName("启动扫描包含 domain 下的仓储接口")
+    void scanRepositories() {
+        List<Class<?>> repositories = TenantIsolation.scanRepositories();
+
+        assertTrue(repositories.contains(UserRepository.class));
+        assertTrue(repositories.stream().allMatch(Class::isInterface));
+    }
+
+    @Test
+    @DisplayName("按策略统计调用次数和过滤器切换次数")
+    void stats() {
+        Session session = bindSession();
+        when(session.enableFilter(TenantIsolation.FILTER_NAME)).thenReturn(mock(Filter.class));
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1").run(() -> {
+            tenantIsolation.execute(TenantFilterPolicy.DEFAULT, () -> "ok");
+            tenantIsolation.execute(TenantFilterPolicy.FORCE, () -> "ok");
+            tenantIsolation.execute(TenantFilterPolicy.FORCE, () -> "ok");
+        });
+
+        TenantIsolationStats stats = tenantIsolation.getStats();
+        assertEquals(1L, stats.calls().get(TenantFilterPolicy.DEFAULT));
+        assertEquals(2L, stats.calls().get(TenantFilterPolicy.FORCE));
+        assertEquals(0L, stats.calls().get(TenantFilterPolicy.SKIP));
+        assertEquals(2L, stats.filterSwitches());
+        assertTrue(stats.indexedMethods() > 0);
+    }
+
+    @Test
+    @DisplayName("DEFAULT 下超级管理员和无租户上下文不过滤")
+    void filterTenant() {
+        assertNull(TenantIsolation.filterTenant(TenantFilterPolicy.DEFAULT));
+        assertEquals("", TenantIsolation.filterTenant(TenantFilterPolicy.FORCE));
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1").run(() -> {
+            assertEquals("t1", TenantIsolation.filterTenant(TenantFilterPolicy.DEFAULT));
+            assertEquals("t1", TenantIsolation.filterTenant(TenantFilterPolicy.FORCE));
+            assertNull(TenantIsolation.filterTenant(TenantFilterPolicy.SKIP));
+        });
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, Const.DEFAULT_TENANT_ID)
+                .where(TenantContextHolder.USERNAME, Const.SUPER_ADMIN_USERNAME)
+                .run(() -> {
+                    assertNull(TenantIsolation.filterTenant(TenantFilterPolicy.DEFAULT));
+                    assertEquals(Const.DEFAULT_TENANT_ID, TenantIsolation.filterTenant(TenantFilterPolicy.FORCE));
+                });
+    }
+
+    @Test
+    @DisplayName("没有事务会话时只传递策略")
+    void execute_withoutSession() {
+        TenantFilterPolicy policy = tenantIsolation.execute(TenantFilterPolicy.SKIP, TenantIsolation::currentPolicy);
+
+        assertEquals(TenantFilterPolicy.SKIP, policy);
+        assertEquals(TenantFilterPolicy.DEFAULT, TenantIsolation.currentPolicy());
+    }
+
+    @Test
+    @DisplayName("会话状态与策略不一致时切换并在结束后恢复")
+    void execute_switchesAndRestores() {
+        Session session = bindSession();
+        Filter filter = mock(Filter.class);
+        when(session.enableFilter(TenantIsolation.FILTER_NAME)).thenReturn(filter);
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .run(() -> tenantIsolation.execute(TenantFilterPolicy.FORCE, () -> "ok"));
+
+        verify(filter).setParameter(TenantIsolation.FILTER_PARAMETER, "t1");
+        verify(session).setProperty(TenantIsolation.APPLIED_TENANT, new TenantIsolation.AppliedTenant("t1"));
+        verify(session).disableFilter(TenantIsolation.FILTER_NAME);
+        verify(session).setProperty(TenantIsolation.APPLIED_TENANT, new TenantIsolation.AppliedTenant(null));
+    }
+
+    @Test
+    @DisplayName("会话已按相同租户过滤时不再切换")
+    void execute_alreadyApplied() {
+        Session session = bindSession();
+        when(session.getProperties())
+                .thenReturn(Map.of(TenantIsolation.APPLIED_TENANT, new TenantIsolation.AppliedTenant("t1")));
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .run(() -> tenantIsolation.execute(TenantFilterPolicy.FORCE, () -> "ok"));
+
+        verify(session, never()).enableFilter(anyString());
+        verify(session, never()).disableFilter(anyString());
+    }
+
+    @Test
+    @DisplayName("会话已按其他租户过滤时切换到目标租户并在结束后恢复原租户")
+    void execute_restoresPreviousTenant() {
+        Session session = bindSession();
+        Filter filter = mock(Filter.class);
+        when(session.enableFilter(TenantIsolation.FILTER_NAME)).thenReturn(filter);
+        when(session.getProperties())
+                .thenReturn(Map.of(TenantIsolation.APPLIED_TENANT, new TenantIsolation.AppliedTenant("t0")));
+
+        ScopedValue.where(TenantContextHolder.TENANT_ID, "t1")
+                .run(() -> tenantIsolation.execute(TenantFilterPolicy.FORCE, () -> "ok"));
+
+        verify(filter).setParameter(TenantIsolation.FILTER_PARAMETER, "t1");
+        verify(filter).setParameter(TenantIsolation.FILTER_PARAMETER, "t0");
+        verify(session, never()).disableFilter(anyString());
+    }
+
+    @Test
+    @DisplayName("同一策略嵌套调用不访问会话")
+    void execute_nestedSamePolicy() {
+        Session session = bindSession();
+
+        tenantIsolation.execute(TenantFilterPolicy.DEFAULT, () -> "ok");
+
+        verifyNoInteractions(session);
+    }
+}
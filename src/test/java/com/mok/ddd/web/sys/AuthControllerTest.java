@@ -1,9 +1,8 @@
 package com.mok.ddd.web.sys;
 
 import com.mok.ddd.application.sys.dto.auth.LoginRequest;
-import com.mok.ddd.infrastructure.security.CustomUserDetail;
-import com.mok.ddd.infrastructure.security.JwtAuthenticationFilter;
-import com.mok.ddd.infrastructure.security.JwtTokenProvider;
+import com.mok.ddd.application.sys.dto.auth.RefreshTokenRequest;
+import com.mok.ddd.infrastructure.security.*;
 import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
 import com.mok.ddd.web.common.GlobalExceptionHandler;
 import jakarta.persistence.EntityManagerFactory;
@@ -69,6 +68,9 @@ class AuthControllerTest {
     @MockitoBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @MockitoBean
+    private AccessTokenCodec accessTokenCodec;
+
     @BeforeEach
     public void setup(WebApplicationContext webApplicationContext) {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
@@ -180,4 +182,84 @@ class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(400));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(7)
+    void login_stateless_returns_access_and_refresh_token() throws Exception {
+        LoginRequest req = new LoginRequest();
+        req.setUsername("john");
+        req.setPassword("password");
+        req.setTenantId("tenantA");
+
+        CustomUserDetail userDetail = new CustomUserDetail(
+                1L, "john", "password", "tenantA", Collections.emptySet(), false
+        );
+        given(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .willReturn(new UsernamePasswordAuthenticationToken(userDetail, "password"));
+        given(jwtTokenProvider.createToken(eq("john"), eq("tenantA"), any(CustomUserDetail.class), anyString(), anyString()))
+                .willReturn("session-token");
+        given(accessTokenCodec.isEnabled()).willReturn(true);
+        given(accessTokenCodec.issue("session-token", userDetail)).willReturn("signed.access.token");
+        given(accessTokenCodec.getAccessTtlMs()).willReturn(300000L);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .header("User-Agent", "Mozilla/5.0...")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(req))
+                        .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("signed.access.token"))
+                .andExpect(jsonPath("$.data.refreshToken").value("session-token"));
+    }
+
+    @Test
+    @Order(8)
+    void refresh_success() throws Exception {
+        RefreshTokenRequest req = new RefreshTokenRequest();
+        req.setRefreshToken("session-token");
+        CustomUserDetail principal = new CustomUserDetail(1L, "john", null, "tenantA", Collections.emptySet(), false);
+        given(accessTokenCodec.isEnabled()).willReturn(true);
+        given(jwtTokenProvider.getSession("session-token"))
+                .willReturn(new TokenSessionDTO("john", "tenantA", principal, "127.0.0.1", "Chrome", 1L));
+        given(accessTokenCodec.issue("session-token", principal)).willReturn("new.access.token");
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(req))
+                        .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("new.access.token"))
+                .andExpect(jsonPath("$.data.refreshToken").value("session-token"));
+    }
+
+    @Test
+    @Order(9)
+    void refresh_revoked_session_unauthorized() throws Exception {
+        RefreshTokenRequest req = new RefreshTokenRequest();
+        req.setRefreshToken("revoked-token");
+        given(accessTokenCodec.isEnabled()).willReturn(true);
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(req))
+                        .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.code").value(401));
+
+        verify(accessTokenCodec, never()).issue(any(), any());
+    }
+
+    @Test
+    @Order(10)
+    void logout_stateless_revokes_session_of_access_token() throws Exception {
+        given(accessTokenCodec.isEnabled()).willReturn(true);
+        given(accessTokenCodec.sessionId("signed.access.token")).willReturn("session-token");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer signed.access.token")
+                        .with(SecurityMockMvcRequestPostProcessors.csrf()))
+                .andExpect(status().isOk());
+
+        verify(jwtTokenProvider).removeToken("session-token");
+    }
+}
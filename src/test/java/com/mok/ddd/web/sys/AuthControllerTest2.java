@@ -1,6 +1,7 @@
 package com.mok.ddd.web.sys;
 
 import com.mok.ddd.application.sys.dto.auth.LoginRequest;
+import com.mok.ddd.infrastructure.security.AccessTokenCodec;
 import com.mok.ddd.infrastructure.security.CustomUserDetail;
 import com.mok.ddd.infrastructure.security.JwtTokenProvider;
 import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
@@ -43,6 +44,9 @@ class AuthControllerTest2 {
     @Mock
     private CustomUserDetailsService customUserDetailsService;
 
+    @Mock
+    private AccessTokenCodec accessTokenCodec;
+
     @InjectMocks
     private AuthController authController;
 
@@ -4,6 +4,7 @@ import com.mok.ddd.application.exception.NotFoundException;
 import com.mok.ddd.application.sys.dto.menu.MenuDTO;
 import com.mok.ddd.application.sys.dto.menu.MenuOptionDTO;
 import com.mok.ddd.application.sys.service.MenuService;
+import com.mok.ddd.application.sys.service.MenuTreeCache;
 import com.mok.ddd.infrastructure.security.JwtAuthenticationFilter;
 import com.mok.ddd.infrastructure.security.JwtTokenProvider;
 import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
@@ -55,6 +56,9 @@ class MenuControllerTest {
     @MockitoBean
     private MenuService menuService;
 
+    @MockitoBean
+    private MenuTreeCache menuTreeCache;
+
     @MockitoBean
     private AuthenticationManager authenticationManager;
 
@@ -87,8 +91,7 @@ class MenuControllerTest {
         parent.setChildren(List.of(child1, child2));
         List<MenuDTO> tree = List.of(parent);
 
-        given(menuService.findAll()).willReturn(List.of(parent, child1, child2));
-        given(menuService.buildMenuTree(any())).willReturn(tree);
+        given(menuTreeCache.globalMenus()).willReturn(tree);
 
         mockMvc.perform(get("/api/menus/tree").accept(MediaType.APPLICATION_JSON))
                 .andDo(MockMvcResultHandlers.print())
@@ -155,7 +158,7 @@ class MenuControllerTest {
         MenuOptionDTO option = new MenuOptionDTO();
         option.setId(1L);
         option.setName("Option 1");
-        given(menuService.buildMenuAndPermissionTree()).willReturn(List.of(option));
+        given(menuTreeCache.menuOptions()).willReturn(List.of(option));
 
         mockMvc.perform(get("/api/menus/tree-options")
                         .accept(MediaType.APPLICATION_JSON))
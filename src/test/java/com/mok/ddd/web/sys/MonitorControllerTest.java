@@ -0,0 +1,145 @@
+package com.mok.ddd.web.sys;
+
+import com.mok.ddd.application.sys.service.TenantCacheService;
+import com.mok.ddd.infrastructure.cache.CacheStats;
+import com.mok.ddd.infrastructure.log.writer.LogWriterStats;
+import com.mok.ddd.infrastructure.log.writer.LoginLogWriter;
+import com.mok.ddd.infrastructure.log.writer.OperLogWriter;
+import com.mok.ddd.infrastructure.redis.LatencyHistogram;
+import com.mok.ddd.infrastructure.redis.RedisMetrics;
+import com.mok.ddd.infrastructure.redis.RedisMetricsSnapshot;
+import com.mok.ddd.infrastructure.security.JwtAuthenticationFilter;
+import com.mok.ddd.infrastructure.security.JwtTokenProvider;
+import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
+import com.mok.ddd.infrastructure.tenant.TenantFilter.TenantFilterPolicy;
+import com.mok.ddd.infrastructure.tenant.TenantIsolation;
+import com.mok.ddd.infrastructure.tenant.TenantIsolationStats;
+import com.mok.ddd.web.common.GlobalExceptionHandler;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest
+@Import(value = {MonitorController.class, GlobalExceptionHandler.class})
+@AutoConfigureMockMvc(addFilters = false)
+class MonitorControllerTest {
+
+    @Configuration
+    static class TestConfig {
+        @Bean
+        EntityManagerFactory entityManagerFactory() {
+            return mock(EntityManagerFactory.class);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TenantCacheService tenantCacheService;
+
+    @MockitoBean
+    private OperLogWriter operLogWriter;
+
+    @MockitoBean
+    private LoginLogWriter loginLogWriter;
+
+    @MockitoBean
+    private TenantIsolation tenantIsolation;
+
+    @MockitoBean
+    private RedisMetrics redisMetrics;
+
+    @MockitoBean
+    private AuthenticationManager authenticationManager;
+
+    @MockitoBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void tenantCache_ReturnStats() throws Exception {
+        given(tenantCacheService.getStats()).willReturn(new CacheStats(9, 1, 1, 2_000_000, 5));
+
+        mockMvc.perform(get("/api/monitor/tenant-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hitCount").exists())
+                .andExpect(jsonPath("$.data.size").exists());
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void logWriters_ReturnStatsOfBothWriters() throws Exception {
+        given(operLogWriter.getStats()).willReturn(new LogWriterStats("oper-log", 3, 10000, 10, 0, 7, 0, 2, 0, 0));
+        given(loginLogWriter.getStats()).willReturn(new LogWriterStats("login-log", 0, 10000, 5, 1, 4, 0, 1, 0, 0));
+
+        mockMvc.perform(get("/api/monitor/log-writers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name").value("oper-log"))
+                .andExpect(jsonPath("$.data[0].queueDepth").value(3))
+                .andExpect(jsonPath("$.data[1].name").value("login-log"));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void tenantIsolation_ReturnCallsPerPolicy() throws Exception {
+        TenantFilterPolicy policy = TenantFilterPolicy.values()[0];
+        given(tenantIsolation.getStats()).willReturn(new TenantIsolationStats(Map.of(policy, 12L), 3, 40));
+
+        mockMvc.perform(get("/api/monitor/tenant-isolation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.calls." + policy.name()).exists())
+                .andExpect(jsonPath("$.data.indexedMethods").value(40));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void redis_ReturnSnapshot() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000_000, false);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        given(redisMetrics.snapshot()).willReturn(new RedisMetricsSnapshot(3, 8, 1, snapshot,
+                Map.of("GET", snapshot), Map.of("JwtTokenProvider", snapshot)));
+
+        mockMvc.perform(get("/api/monitor/redis"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.openConnections").value(3))
+                .andExpect(jsonPath("$.data.acquire.maxMs").value(2.0))
+                .andExpect(jsonPath("$.data.commands.GET").exists())
+                .andExpect(jsonPath("$.data.callers.JwtTokenProvider.p99Ms").value(2.0));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void resetRedis_ClearsStats() throws Exception {
+        mockMvc.perform(delete("/api/monitor/redis"))
+                .andExpect(status().isOk());
+
+        verify(redisMetrics).reset();
+    }
+}
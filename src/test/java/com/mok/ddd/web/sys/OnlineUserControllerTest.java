@@ -1,11 +1,10 @@
 package com.mok.ddd.web.sys;
 
-import com.mok.ddd.application.sys.dto.tenant.TenantOptionDTO;
-import com.mok.ddd.application.sys.service.TenantService;
+import com.mok.ddd.application.sys.dto.tenant.TenantDTO;
+import com.mok.ddd.application.sys.service.TenantCacheService;
 import com.mok.ddd.infrastructure.common.aspect.OperLogAspect;
-import com.mok.ddd.infrastructure.security.JwtAuthenticationFilter;
-import com.mok.ddd.infrastructure.security.JwtTokenProvider;
-import com.mok.ddd.infrastructure.security.OnlineUserDTO;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
+import com.mok.ddd.infrastructure.security.*;
 import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
 import com.mok.ddd.infrastructure.tenant.TenantContextHolder;
 import com.mok.ddd.web.common.GlobalExceptionHandler;
@@ -26,19 +25,19 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import static org.mockito.ArgumentMatchers.anyMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OnlineUserController.class)
 @Import({GlobalExceptionHandler.class, OnlineUserController.class})
@@ -61,7 +60,7 @@ class OnlineUserControllerTest {
     private JwtTokenProvider tokenProvider;
 
     @MockitoBean
-    private TenantService tenantService;
+    private TenantCacheService tenantCacheService;
 
     @MockitoBean
     private AuthenticationManager authenticationManager;
@@ -91,9 +90,6 @@ class OnlineUserControllerTest {
     @WithMockUser(authorities = "admin:online-user")
     @DisplayName("list - 成功获取在线用户列表")
     void list_Success() throws Exception {
-        TenantOptionDTO option = new TenantOptionDTO();
-        option.setTenantId("T1");
-        option.setName("Tenant 1");
 
         OnlineUserDTO userDTO = new OnlineUserDTO(
                 1L,
@@ -103,23 +99,78 @@ class OnlineUserControllerTest {
                 Collections.emptyList()
         );
 
-        given(tenantService.findOptions(null)).willReturn(List.of(option));
         mockedTenantContext.when(TenantContextHolder::getTenantId).thenReturn("T1");
         mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(false);
-        given(tokenProvider.getAllOnlineUsers(anyMap(), eq("T1"), eq(false))).willReturn(List.of(userDTO));
+        given(tokenProvider.getAllOnlineUsers(any(), eq("T1"), eq(false))).willReturn(List.of(userDTO));
 
         mockMvc.perform(get("/api/online-user/list")
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data[0].username").value("user1"));
+        verify(tenantCacheService, never()).findByTenantId(any());
+    }
+
+    private static TokenSessionDTO session(String token, String tenantId) {
+        TokenSessionDTO session = new TokenSessionDTO("user1", tenantId, null, "127.0.0.1", "Chrome", 100L);
+        session.setToken(token);
+        return session;
+    }
+
+    @Test
+    @WithMockUser(authorities = "admin:online-user")
+    @DisplayName("list - 游标分页，非超级租户限定本租户，租户名称取自缓存")
+    void findSlice_ScopedToTenant() throws Exception {
+        TenantDTO tenant = new TenantDTO();
+        tenant.setName("Tenant 1");
+        mockedTenantContext.when(TenantContextHolder::getTenantId).thenReturn("T1");
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(false);
+        given(tenantCacheService.findByTenantId("T1")).willReturn(tenant);
+        given(tokenProvider.findSessions(any(OnlineSessionQuery.class), eq(""), eq(20)))
+                .willReturn(new CursorSlice<>(List.of(session("tk1", "T1")), "next", true));
+
+        mockMvc.perform(get("/api/online-user/list")
+                        .param("cursor", "")
+                        .param("tenantId", "T2")
+                        .param("username", "us")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].token").value("tk1"))
+                .andExpect(jsonPath("$.data.content[0].tenantName").value("Tenant 1"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"));
+
+        verify(tokenProvider).findSessions(argThat(query -> "T1".equals(query.getTenantId())
+                && "us".equals(query.getUsername())), eq(""), eq(20));
+    }
+
+    @Test
+    @WithMockUser(authorities = "admin:online-user")
+    @DisplayName("stream - 按批写出 NDJSON")
+    void stream_WritesNdjson() throws Exception {
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(true);
+        given(tokenProvider.findSessions(any(OnlineSessionQuery.class), isNull(), anyInt()))
+                .willReturn(new CursorSlice<>(List.of(session("tk1", "T1")), "c1", true));
+        given(tokenProvider.findSessions(any(OnlineSessionQuery.class), eq("c1"), anyInt()))
+                .willReturn(new CursorSlice<>(List.of(session("tk2", "T2")), null, false));
+
+        MvcResult result = mockMvc.perform(get("/api/online-user/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = body.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"token\":\"tk1\""));
+        assertTrue(lines.get(1).contains("\"token\":\"tk2\""));
     }
 
     @Test
     @WithMockUser(authorities = "admin:online-user:kickout")
     @DisplayName("kickout - 成功强退用户")
     void kickout_Success() throws Exception {
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(true);
         String token = "some-token";
-        Map<String, String> body = Map.of("token", token);
         String content = "{\"token\": \"some-token\"}";
 
         mockMvc.perform(post("/api/online-user/kickout")
@@ -127,7 +178,23 @@ class OnlineUserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(tokenProvider).removeToken(token);
+        verify(tokenProvider).revokeTokens(List.of(token));
+    }
+
+    @Test
+    @WithMockUser(authorities = "admin:online-user:kickout")
+    @DisplayName("kickout - 非超级租户只踢出本租户的会话")
+    void kickout_ScopedToTenant() throws Exception {
+        mockedTenantContext.when(TenantContextHolder::getTenantId).thenReturn("T1");
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(false);
+
+        mockMvc.perform(post("/api/online-user/kickout")
+                        .content("{\"token\": \"super-token\"}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(tokenProvider).revokeTenantTokens(List.of("super-token"), "T1");
+        verify(tokenProvider, never()).revokeTokens(any());
     }
 
     @Test
@@ -141,6 +208,38 @@ class OnlineUserControllerTest {
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
 
-        verify(tokenProvider, never()).removeToken(anyString());
+        verify(tokenProvider, never()).revokeTokens(any());
+        verify(tokenProvider, never()).revokeTenantTokens(any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "admin:online-user:kickout")
+    @DisplayName("kickout/batch - 批量强退，返回下线的会话数")
+    void kickoutBatch_Success() throws Exception {
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(true);
+        given(tokenProvider.revokeTokens(List.of("tk1", "tk2"))).willReturn(2);
+
+        mockMvc.perform(post("/api/online-user/kickout/batch")
+                        .content("[\"tk1\", \"tk2\"]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(2));
+    }
+
+    @Test
+    @WithMockUser(authorities = "admin:online-user:kickout")
+    @DisplayName("kickout/batch - 非超级租户提交其他租户的 token 时不会被踢出")
+    void kickoutBatch_CrossTenantIgnored() throws Exception {
+        mockedTenantContext.when(TenantContextHolder::getTenantId).thenReturn("T1");
+        mockedTenantContext.when(TenantContextHolder::isSuperTenant).thenReturn(false);
+        given(tokenProvider.revokeTenantTokens(List.of("tk1", "super-token"), "T1")).willReturn(1);
+
+        mockMvc.perform(post("/api/online-user/kickout/batch")
+                        .content("[\"tk1\", \"super-token\"]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(1));
+
+        verify(tokenProvider, never()).revokeTokens(any());
     }
-}
\ No newline at end of file
+}
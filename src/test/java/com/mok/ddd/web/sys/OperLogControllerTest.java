@@ -2,6 +2,7 @@ package com.mok.ddd.web.sys;
 
 import com.mok.ddd.application.sys.dto.log.OperLogDTO;
 import com.mok.ddd.application.sys.service.OperLogService;
+import com.mok.ddd.infrastructure.repository.CursorSlice;
 import com.mok.ddd.infrastructure.security.JwtAuthenticationFilter;
 import com.mok.ddd.infrastructure.security.JwtTokenProvider;
 import com.mok.ddd.infrastructure.sys.security.CustomUserDetailsService;
@@ -29,10 +30,14 @@ import tools.jackson.databind.json.JsonMapper;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -97,4 +102,27 @@ class OperLogControllerTest {
                 .andExpect(jsonPath("$.data.content[0].title").value("用户管理"))
                 .andExpect(jsonPath("$.data.totalElements").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "root", authorities = "log:oper:list")
+    @DisplayName("带 cursor 参数时使用游标分页")
+    void findSlice_Success() throws Exception {
+        OperLogDTO operLogDTO = new OperLogDTO();
+        operLogDTO.setId(1L);
+        operLogDTO.setTitle("用户管理");
+
+        given(operLogService.findSlice(any(), eq("abc"), eq(10)))
+                .willReturn(new CursorSlice<>(List.of(operLogDTO), "next", true));
+
+        mockMvc.perform(get("/api/oper-logs")
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].title").value("用户管理"))
+                .andExpect(jsonPath("$.data.nextCursor").value("next"))
+                .andExpect(jsonPath("$.data.hasNext").value(true));
+
+        verify(operLogService, never()).findPage(any(), any(Pageable.class));
+    }
+}